@@ -0,0 +1,55 @@
+package com.example.sudokusolver;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.sudokusolver.solver.Geometry;
+import com.example.sudokusolver.solver.PropagatingSolver;
+import com.example.sudokusolver.solver.SolveTrace;
+import com.example.sudokusolver.solver.TracePlayer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Replays traces on the main thread, where TraceReplayer must run.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TraceReplayerTest {
+    @Test
+    public void replaysSixteenBySixteenTraceToItsEnd() {
+        Geometry geometry = Geometry.of(4);
+        int[] puzzle = new int[geometry.cells];
+        SolveTrace trace = new SolveTrace();
+        trace.reset(puzzle);
+        PropagatingSolver solver = new PropagatingSolver(geometry);
+        solver.setListener(trace);
+        int[] solution = puzzle.clone();
+        assertTrue(solver.solve(solution));
+
+        int[] shown = puzzle.clone();
+        boolean[] finished = new boolean[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            TraceReplayer replayer = new TraceReplayer();
+            replayer.play(new TracePlayer(trace), 60, new TraceReplayer.Listener() {
+                @Override
+                public void onCellsChanged(int[] cells, int[] values, int count) {
+                    for (int i = 0; i < count; i++) {
+                        shown[cells[i]] = values[i];
+                    }
+                }
+
+                @Override
+                public void onReplayFinished() {
+                    finished[0] = true;
+                }
+            });
+            // Skipping to the end drains all 256 cells in one call, as pressing Solve during a replay does
+            replayer.seek(Integer.MAX_VALUE);
+        });
+        assertTrue(finished[0]);
+        assertArrayEquals(solution, shown);
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.sudokusolver;
+
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.sudokusolver.solver.CachingSolver;
+import com.example.sudokusolver.solver.FallbackSolver;
+import com.example.sudokusolver.solver.Geometry;
+import com.example.sudokusolver.solver.SolutionCache;
+import com.example.sudokusolver.solver.SolutionCounter;
+import com.example.sudokusolver.solver.SolveTrace;
+import com.example.sudokusolver.solver.SolverMetrics;
+import com.example.sudokusolver.solver.SolverStats;
+import com.example.sudokusolver.solver.SolverType;
+import com.example.sudokusolver.solver.SudokuSolver;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class: BackgroundSolver
+ *
+ * Description:
+ * Runs solver engines on a background thread at full speed. Every placement and undo is recorded into a SolveTrace,
+ * which is handed over with the result so the search can be animated afterwards at any pace (see TraceReplayer);
+ * how long the solve takes and how long the animation takes no longer depend on each other.
+ * Boards of any Geometry are accepted. Every solve gets SOLVE_TIME_LIMIT_MILLIS: an engine still searching then is
+ * stopped and reported as TIMED_OUT, so an open 25x25 board cannot keep the thread busy indefinitely.
+ * The SolverStats of every finished solve are logged and added to SolverMetrics, grouped by engine, so slow solves
+ * can be told apart by their node and backtrack counts; dumpMetrics() writes the collected histograms out.
+ * Solves go through a SolutionCache shared by all engines, so a board solved before, or any relabeled, reordered or
+ * transposed copy of it, is answered without searching. Such solves are recorded under CACHE_METRICS.
+ * Every engine but SAT runs inside a FallbackSolver: a search that exceeds FALLBACK_PLACEMENTS placements or
+ * FALLBACK_MILLIS is handed to the CDCL SAT engine, and recorded as "<engine>+SAT".
+ * All public methods must be called from the main thread, and every callback is delivered on the main thread.
+ */
+public class BackgroundSolver {
+    /**
+     * Enum: Outcome
+     *
+     * Description:
+     * How a background solve ended.
+     *   1. SOLVED: The board was solved.
+     *   2. NO_SOLUTION: The engine found the givens conflicting or proved that no solution exists.
+     *   3. TIMED_OUT: The solve was stopped after SOLVE_TIME_LIMIT_MILLIS. The board may still be solvable.
+     */
+    public enum Outcome {
+        SOLVED,
+        NO_SOLUTION,
+        TIMED_OUT
+    }
+
+    /**
+     * Interface: Callback
+     *
+     * Description:
+     * Receives the progress and the outcome of a background solve on the main thread.
+     */
+    public interface Callback {
+        /**
+         * Called once when the solve ends, unless it was cancelled. 'board' is the solved board when 'outcome' is
+         * SOLVED, the board that was passed in otherwise. 'trace' holds every change the engine made on the way,
+         * starting from the board that was passed in.
+         */
+        void onSolveFinished(Outcome outcome, int[] board, SolveTrace trace);
+    }
+
+    /**
+     * Interface: CheckCallback
+     *
+     * Description:
+     * Receives the outcome of a uniqueness check on the main thread.
+     */
+    public interface CheckCallback {
+        void onChecked(SolutionCounter.Result result);
+    }
+
+    private static final String TAG = "BackgroundSolver";
+    private static final String CACHE_METRICS = "CACHE";
+    private static final long SOLVE_TIME_LIMIT_MILLIS = 10_000;
+    private static final long CACHE_BYTES = 1 << 20;
+    // The budget of a backtracking engine before the SAT engine takes over
+    private static final long FALLBACK_PLACEMENTS = 200_000;
+    private static final long FALLBACK_MILLIS = 1_000;
+    // Bounds a uniqueness check on boards larger than 9x9, whose search can be huge
+    private static final long CHECK_NODE_LIMIT = 100_000;
+
+    static {
+        // java.lang.management is missing on Android
+        SolverStats.setCpuClock(Debug::threadCpuTimeNanos);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Used on the executor thread only, indexed by box size
+    private final SolutionCounter[] counters = new SolutionCounter[Geometry.MAX_BOX_SIZE + 1];
+    private final SolverMetrics metrics = new SolverMetrics();
+    private final SolutionCache cache = new SolutionCache(CACHE_BYTES);
+    private SolveJob activeJob;
+
+    /**
+     * Example Call:
+     * backgroundSolver.solve(grid, SolverType.DANCING_LINKS, callback);
+     *
+     * Parameters:
+     * @param board (int[]): The board to solve, in row-major order. Copied, so the caller may keep using it.
+     * @param type (SolverType): The engine to solve with.
+     * @param callback (Callback): Receives the result and the recorded trace on the main thread.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Cancels any solve that is still running and starts a new one on the background executor. The engine is made
+     * for the board's Geometry, which the length of 'board' selects.
+     */
+    public void solve(int[] board, SolverType type, Callback callback) {
+        cancel();
+        Geometry geometry = Geometry.forCells(board.length);
+        SudokuSolver engine = type.create(geometry);
+        FallbackSolver fallback = null;
+        if (type != SolverType.SAT) {
+            fallback = new FallbackSolver(engine, SolverType.SAT.create(geometry), FALLBACK_PLACEMENTS,
+                    FALLBACK_MILLIS);
+            engine = fallback;
+        }
+        SolveJob job = new SolveJob(board.clone(), type, new CachingSolver(engine, cache), fallback, callback);
+        activeJob = job;
+        executor.execute(job::run);
+        mainHandler.postDelayed(() -> {
+            if (activeJob == job) {
+                job.timedOut = true;
+                job.solver.cancel();
+            }
+        }, SOLVE_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Example Call:
+     * backgroundSolver.checkSolutions(grid, result -> showResult(result));
+     *
+     * Parameters:
+     * @param board (int[]): The board to check, in row-major order. Copied, so the caller may keep using it.
+     * @param callback (CheckCallback): Receives whether the board has no, one or several solutions. Not called when a
+     * check on a large board runs out of its node budget, since the answer is unknown then.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Counts the board's solutions up to two on the background executor, after any solve already queued there.
+     */
+    public void checkSolutions(int[] board, CheckCallback callback) {
+        int[] copy = board.clone();
+        Geometry geometry = Geometry.forCells(copy.length);
+        executor.execute(() -> {
+            SolutionCounter counter = counters[geometry.boxSize];
+            if (counter == null) {
+                counter = new SolutionCounter(geometry);
+                if (geometry != Geometry.CLASSIC) {
+                    counter.setNodeLimit(CHECK_NODE_LIMIT);
+                }
+                counters[geometry.boxSize] = counter;
+            }
+            SolutionCounter.Result result = counter.check(copy);
+            if (!counter.hitNodeLimit()) {
+                mainHandler.post(() -> callback.onChecked(result));
+            }
+        });
+    }
+
+    /**
+     * Example Call:
+     * backgroundSolver.dumpMetrics(new File(getFilesDir(), "solver-metrics.txt"));
+     *
+     * Parameters:
+     * @param file (File): Replaced with the metrics of every solve so far, or null to only log them.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Writes the per-engine latency histograms and counter averages to logcat and to 'file' on the background
+     * executor, after any solve already queued there.
+     */
+    public void dumpMetrics(File file) {
+        executor.execute(() -> {
+            try {
+                StringWriter text = new StringWriter();
+                metrics.dump(text);
+                text.append(cache.toString()).append('\n');
+                Log.i(TAG, "Solver metrics:\n" + text);
+                if (file != null) {
+                    try (Writer out = new FileWriter(file)) {
+                        out.write(text.toString());
+                    }
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Could not write solver metrics to " + file, e);
+            }
+        });
+    }
+
+    /**
+     * Returns true while a solve started by this instance has neither finished nor been cancelled.
+     */
+    public boolean isSolving() {
+        return activeJob != null;
+    }
+
+    /**
+     * Example Call:
+     * backgroundSolver.cancel();
+     *
+     * Description:
+     * Stops the running solve cooperatively. The engine notices the request at its next search node; no callback is
+     * delivered for the cancelled solve.
+     */
+    public void cancel() {
+        if (activeJob != null) {
+            activeJob.solver.cancel();
+            activeJob = null;
+        }
+    }
+
+    /**
+     * Cancels any running solve and stops the background thread. The instance cannot be used afterwards.
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Class: SolveJob
+     *
+     * Description:
+     * One solve and the trace it records. The trace is only written by the solving thread and is handed to the main
+     * thread through the Handler once the solve is over.
+     */
+    private class SolveJob {
+        private final int[] board;
+        private final SolverType type;
+        private final CachingSolver solver;
+        // Null when the engine runs without a fallback
+        private final FallbackSolver fallback;
+        private final Callback callback;
+        private final SolveTrace trace = new SolveTrace();
+        // Set on the main thread before the time limit cancels the solve
+        private volatile boolean timedOut;
+
+        SolveJob(int[] board, SolverType type, CachingSolver solver, FallbackSolver fallback, Callback callback) {
+            this.board = board;
+            this.type = type;
+            this.solver = solver;
+            this.fallback = fallback;
+            this.callback = callback;
+        }
+
+        void run() {
+            trace.reset(board);
+            solver.setListener(trace);
+            int[] solution = board.clone();
+            boolean solved = solver.solve(solution);
+            SolverStats stats = solver.getStats();
+            String name = solver.wasCacheHit() ? CACHE_METRICS : type.name();
+            if (!solver.wasCacheHit() && fallback != null && fallback.wasFallbackUsed()) {
+                name += "+" + SolverType.SAT.name();
+            }
+            metrics.record(name, stats);
+            Log.d(TAG, name + " " + Geometry.forCells(board.length) + ": " + stats);
+            mainHandler.post(() -> {
+                if (activeJob != this) {
+                    return; // cancelled
+                }
+                activeJob = null;
+                Outcome outcome = solved ? Outcome.SOLVED : timedOut ? Outcome.TIMED_OUT : Outcome.NO_SOLUTION;
+                callback.onSolveFinished(outcome, solved ? solution : board, trace);
+            });
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.example.sudokusolver;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.sudokusolver.solver.Board;
+import com.example.sudokusolver.solver.EditJournal;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Class: BoardRepository
+ *
+ * Description:
+ * The single way into the saved boards. One SudokuDatabaseMngr is opened lazily and kept for the life of the process,
+ * and every database access runs on one background thread, so the main thread never waits on SQLite.
+ * Creating the repository touches no file. open() opens the journal and queues the recovery; MainActivity calls it
+ * once the first frame is drawn, and every method that needs the journal or the database calls it implicitly, so
+ * a cold start does not share the device with database work before anything is on screen. For that first frame,
+ * readLastBoard() returns the working board the last session left, from a small file (LAST_BOARD_FILE) written
+ * when the journal is compacted.
+ * The repository keeps an in-memory copy of every slot it has loaded or saved. Because all writes go through here,
+ * a cached slot is always at least as fresh as the database and is returned without touching it.
+ * Saves and single cell edits update the cache at once and are appended to an EditJournal (JOURNAL_DIR) on the
+ * calling thread: a few bytes per edit instead of a rewrite of the whole board, durable as soon as the call returns.
+ * The database is brought up to date by compaction on the background thread, which replays the closed journal
+ * segments over the stored boards, writes each changed slot once and deletes the segments. Compaction runs when the
+ * journal grows past COMPACT_BYTES, when compactJournal() is called, and from open(), ahead of any database read
+ * queued after it, so a session that ended in a crash is recovered before anything is read from the database.
+ * If the journal cannot be written, saves fall back to writing the board to the database directly.
+ * All public methods must be called from the main thread, and every callback is delivered on the main thread.
+ */
+public final class BoardRepository {
+    /**
+     * Interface: LoadCallback
+     *
+     * Description:
+     * Receives a loaded board and the play time saved with it on the main thread. The board is a private copy the
+     * caller may modify.
+     */
+    public interface LoadCallback {
+        void onBoardLoaded(int slot, Board board, long elapsedMillis);
+    }
+
+    /**
+     * Interface: SlotsCallback
+     *
+     * Description:
+     * Receives the occupied slots on the main thread, as a bitmask where bit 'slot' is set for every saved board.
+     */
+    public interface SlotsCallback {
+        void onSlotsLoaded(int savedMask);
+    }
+
+    public static final String JOURNAL_DIR = "journal";
+    public static final String LAST_BOARD_FILE = "last-board.bin";
+    static final long COMPACT_BYTES = 16 * 1024;
+    private static final String TAG = "BoardRepository";
+    private static final int SLOT_COUNT = SudokuContract.SAVE_SLOTS + 1;
+    private static BoardRepository instance;
+
+    private final SudokuDatabaseMngr dbManager;
+    private final File journalDir;
+    private final File lastBoardFile;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Main thread only
+    private final SavedBoard[] cache = new SavedBoard[SLOT_COUNT];
+    private int savedMask;
+    private boolean savedMaskKnown;
+    // Null if the journal cannot be written
+    private EditJournal journal;
+    private boolean compacting;
+    private boolean opened;
+
+    private BoardRepository(Context context) {
+        dbManager = new SudokuDatabaseMngr(context.getApplicationContext());
+        File dir = context.getApplicationContext().getFilesDir();
+        journalDir = new File(dir, JOURNAL_DIR);
+        lastBoardFile = new File(dir, LAST_BOARD_FILE);
+    }
+
+    /**
+     * Example Call:
+     * repository.open();
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Opens the edit journal and queues the recovery of what the last session journaled, ahead of every database
+     * read. Does nothing after the first call.
+     */
+    public void open() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        int below = Integer.MAX_VALUE;
+        try {
+            journal = EditJournal.open(journalDir);
+            below = journal.activeSegment();
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot open the edit journal, saving boards directly", e);
+        }
+        // Recover what the last session journaled before anything is read from the database
+        startCompaction(below, null);
+    }
+
+    /**
+     * Example Call:
+     * BoardRepository repository = BoardRepository.getInstance(this);
+     *
+     * Parameters:
+     * @param context (Context): Any context; only its application context is kept.
+     *
+     * Returns:
+     * @return BoardRepository - The process-wide repository.
+     */
+    public static BoardRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new BoardRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Example Call:
+     * repository.save(slot, board, elapsedMillis);
+     *
+     * Parameters:
+     * @param slot (int): The save slot to write, replacing whatever it held.
+     * @param board (Board): The board to store. Copied, so the caller may keep modifying it.
+     * @param elapsedMillis (long): The play time to store with the board.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Updates the cached slot immediately and appends the board to the journal.
+     */
+    public void save(int slot, Board board, long elapsedMillis) {
+        checkSlot(slot);
+        open();
+        SavedBoard copy = new SavedBoard(board.copy(), elapsedMillis);
+        cache[slot] = copy;
+        savedMask |= 1 << slot;
+        try {
+            if (journal != null) {
+                journal.appendBoard(slot, copy.board, elapsedMillis);
+                compactIfLarge();
+                return;
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot append to the edit journal, saving boards directly", e);
+            journal = null;
+        }
+        writeThrough(slot);
+    }
+
+    /**
+     * Example Call:
+     * repository.recordEdits(slot, cells, values, count, elapsedMillis);
+     *
+     * Parameters:
+     * @param slot (int): The save slot of the board that was edited. It must have been loaded or saved before.
+     * @param cells (int[]): The cells that changed.
+     * @param values (int[]): The new value of each cell, 0 if it was cleared.
+     * @param count (int): How many entries of 'cells' and 'values' to record.
+     * @param elapsedMillis (long): The play time at the edit.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Applies the edits to the cached slot and appends one small record per cell to the journal.
+     */
+    public void recordEdits(int slot, int[] cells, int[] values, int count, long elapsedMillis) {
+        checkSlot(slot);
+        open();
+        SavedBoard cached = cache[slot];
+        if (cached == null) {
+            throw new IllegalStateException("Slot " + slot + " was edited before it was loaded");
+        }
+        for (int i = 0; i < count; i++) {
+            cached.board.set(cells[i], values[i]);
+        }
+        cache[slot] = new SavedBoard(cached.board, elapsedMillis);
+        try {
+            if (journal != null) {
+                for (int i = 0; i < count; i++) {
+                    journal.appendCell(slot, cells[i], values[i], elapsedMillis);
+                }
+                compactIfLarge();
+                return;
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot append to the edit journal, saving boards directly", e);
+            journal = null;
+        }
+        writeThrough(slot);
+    }
+
+    /**
+     * Writes everything journaled so far to the database in the background, for example when the app is left, and
+     * keeps the working board for readLastBoard().
+     */
+    public void compactJournal() {
+        if (!opened) {
+            return;
+        }
+        SavedBoard working = cache[SudokuContract.WORKING_SLOT];
+        if (working != null) {
+            SavedBoard copy = new SavedBoard(working.board.copy(), working.elapsedMillis);
+            executor.execute(() -> writeLastBoard(copy));
+        }
+        if (journal != null && journal.size() > 0) {
+            rotateAndCompact();
+        }
+    }
+
+    /**
+     * Example Call:
+     * repository.load(slot, (slot, board, elapsedMillis) -> showBoard(board));
+     *
+     * Parameters:
+     * @param slot (int): The save slot to read.
+     * @param callback (LoadCallback): Receives the board, or an empty board if the slot holds nothing.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * A cached slot is delivered before this method returns; anything else is read on the background thread.
+     */
+    public void load(int slot, LoadCallback callback) {
+        checkSlot(slot);
+        open();
+        if (cache[slot] != null) {
+            deliver(slot, callback);
+            return;
+        }
+        executor.execute(() -> {
+            SavedBoard stored = dbManager.loadBoard(slot);
+            SavedBoard loaded = stored != null ? stored : new SavedBoard(new Board(), 0);
+            mainHandler.post(() -> {
+                // A save made while the read was running is newer than what was read
+                if (cache[slot] == null) {
+                    cache[slot] = loaded;
+                }
+                deliver(slot, callback);
+            });
+        });
+    }
+
+    /**
+     * Example Call:
+     * repository.loadSavedSlots(mask -> showSlots(mask));
+     *
+     * Parameters:
+     * @param callback (SlotsCallback): Receives the bitmask of occupied slots.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * The database is asked once per process; after that the mask is kept up to date by save().
+     */
+    public void loadSavedSlots(SlotsCallback callback) {
+        if (savedMaskKnown) {
+            callback.onSlotsLoaded(savedMask);
+            return;
+        }
+        open();
+        executor.execute(() -> {
+            List<Integer> slots = dbManager.savedSlots();
+            int mask = 0;
+            for (int slot : slots) {
+                if (slot >= 0 && slot < SLOT_COUNT) {
+                    mask |= 1 << slot;
+                }
+            }
+            int stored = mask;
+            mainHandler.post(() -> {
+                savedMask |= stored;
+                savedMaskKnown = true;
+                callback.onSlotsLoaded(savedMask);
+            });
+        });
+    }
+
+    /**
+     * Example Call:
+     * SavedBoard last = repository.readLastBoard();
+     *
+     * Returns:
+     * @return SavedBoard - The working board as the last session left it, or null if none was kept or the file is
+     * unreadable. Edits journaled after the file was written are missing; load() has them. A private copy.
+     *
+     * Description:
+     * Returns the cached working slot if there is one. Otherwise reads LAST_BOARD_FILE, a few hundred bytes, on the
+     * calling thread, without opening the journal or the database. Meant for the first frame of a cold start.
+     */
+    public SavedBoard readLastBoard() {
+        SavedBoard cached = cache[SudokuContract.WORKING_SLOT];
+        if (cached != null) {
+            return new SavedBoard(cached.board.copy(), cached.elapsedMillis);
+        }
+        if (!lastBoardFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(lastBoardFile))) {
+            long elapsedMillis = in.readLong();
+            byte[] snapshot = new byte[(int) lastBoardFile.length() - 8];
+            in.readFully(snapshot);
+            return new SavedBoard(Board.restore(snapshot), elapsedMillis);
+        } catch (IOException | IllegalArgumentException | NegativeArraySizeException e) {
+            Log.w(TAG, "Cannot read the last board", e);
+            return null;
+        }
+    }
+
+    /**
+     * Runs 'task' on the database thread with the shared helper, after every write queued before it.
+     * For other stores that live in the same database.
+     */
+    void runOnDatabaseThread(Consumer<SudokuDatabaseMngr> task) {
+        open();
+        executor.execute(() -> task.accept(dbManager));
+    }
+
+    private void deliver(int slot, LoadCallback callback) {
+        SavedBoard saved = cache[slot];
+        callback.onBoardLoaded(slot, saved.board.copy(), saved.elapsedMillis);
+    }
+
+    private void writeThrough(int slot) {
+        SavedBoard saved = cache[slot];
+        SavedBoard copy = new SavedBoard(saved.board.copy(), saved.elapsedMillis);
+        executor.execute(() -> dbManager.saveBoard(slot, copy));
+    }
+
+    private void compactIfLarge() {
+        if (journal.size() >= COMPACT_BYTES && !compacting) {
+            rotateAndCompact();
+        }
+    }
+
+    private void rotateAndCompact() {
+        try {
+            Closeable finished = journal.rotate();
+            startCompaction(journal.activeSegment(), finished);
+        } catch (IOException e) {
+            // Appending to the current segment still works; the next attempt rotates again
+            Log.w(TAG, "Cannot start a new journal segment", e);
+        }
+    }
+
+    // 'finished' is the segment rotate() just ended, or null; its fsync runs here on the background thread
+    private void startCompaction(int below, Closeable finished) {
+        compacting = true;
+        executor.execute(() -> {
+            if (finished != null) {
+                try {
+                    finished.close();
+                } catch (IOException e) {
+                    Log.w(TAG, "Cannot sync the finished journal segment", e);
+                }
+            }
+            compact(below);
+            mainHandler.post(() -> compacting = false);
+        });
+    }
+
+    // Background thread: replaces LAST_BOARD_FILE through a temporary file, so a crash leaves the old or the new one
+    private void writeLastBoard(SavedBoard saved) {
+        File temporary = new File(lastBoardFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temporary))) {
+            out.writeLong(saved.elapsedMillis);
+            out.write(saved.board.snapshot());
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot keep the last board", e);
+            return;
+        }
+        if (!temporary.renameTo(lastBoardFile)) {
+            Log.w(TAG, "Cannot replace " + lastBoardFile);
+        }
+    }
+
+    // Background thread: replays the segments below 'below' over the stored boards and deletes them
+    private void compact(int below) {
+        SavedBoard[] replayed = new SavedBoard[SLOT_COUNT];
+        try {
+            int records = EditJournal.replay(journalDir, below, new EditJournal.Handler() {
+                @Override
+                public void onBoard(int slot, Board board, long elapsedMillis) {
+                    if (slot < SLOT_COUNT) {
+                        replayed[slot] = new SavedBoard(board, elapsedMillis);
+                    }
+                }
+
+                @Override
+                public void onCell(int slot, int cell, int value, long elapsedMillis) {
+                    if (slot >= SLOT_COUNT) {
+                        return;
+                    }
+                    SavedBoard saved = replayed[slot];
+                    if (saved == null) {
+                        saved = dbManager.loadBoard(slot);
+                        if (saved == null) {
+                            saved = new SavedBoard(new Board(), 0);
+                        }
+                    }
+                    if (cell < saved.board.geometry().cells && value >= 0 && value <= saved.board.geometry().size) {
+                        saved.board.set(cell, value);
+                    }
+                    replayed[slot] = new SavedBoard(saved.board, elapsedMillis);
+                }
+            });
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                if (replayed[slot] != null) {
+                    dbManager.saveBoard(slot, replayed[slot]);
+                }
+            }
+            // Only once the boards are stored; replaying these segments again would give the same boards
+            EditJournal.delete(journalDir, below);
+            if (records > 0) {
+                Log.d(TAG, "Compacted " + records + " journal records");
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Cannot compact the edit journal", e);
+        }
+    }
+
+    private static void checkSlot(int slot) {
+        if (slot < 0 || slot >= SLOT_COUNT) {
+            throw new IllegalArgumentException("Invalid save slot " + slot);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.sudokusolver;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.sudokusolver.solver.Difficulty;
+import com.example.sudokusolver.solver.LibraryImporter;
+import com.example.sudokusolver.solver.PuzzleLibrary;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class: LibraryRepository
+ *
+ * Description:
+ * The puzzle library of the app, a memory-mapped PuzzleLibrary in the files directory (LIBRARY_FILE). A collection
+ * copied there as IMPORT_FILE, in the one-line-per-puzzle text format, is imported into the library the next time
+ * the library is opened, if it is newer than the library. Opening, importing and marking puzzles run on one
+ * background thread; picking a puzzle only reads the mapped index and one record, whatever the library's size.
+ * All public methods must be called from the main thread, and every callback is delivered on the main thread.
+ */
+public final class LibraryRepository {
+    /**
+     * Interface: SummaryCallback
+     *
+     * Description:
+     * Receives how many unsolved puzzles the library holds per Difficulty ordinal, or null if there is no library.
+     */
+    public interface SummaryCallback {
+        void onSummaryLoaded(int[] unsolvedByDifficulty);
+    }
+
+    /**
+     * Interface: PuzzleCallback
+     *
+     * Description:
+     * Receives a puzzle picked from the library and its ordinal, or ordinal -1 and null if there was none to pick.
+     */
+    public interface PuzzleCallback {
+        void onPuzzlePicked(int ordinal, int[] puzzle);
+    }
+
+    public static final String LIBRARY_FILE = "library.sdkl";
+    public static final String IMPORT_FILE = "library.txt";
+    private static final String TAG = "LibraryRepository";
+    private static LibraryRepository instance;
+
+    private final File libraryFile;
+    private final File importFile;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Background thread only
+    private final Random random = new Random();
+    private PuzzleLibrary library;
+    private boolean opened;
+
+    private LibraryRepository(Context context) {
+        File dir = context.getApplicationContext().getFilesDir();
+        libraryFile = new File(dir, LIBRARY_FILE);
+        importFile = new File(dir, IMPORT_FILE);
+    }
+
+    /**
+     * Example Call:
+     * LibraryRepository repository = LibraryRepository.getInstance(this);
+     *
+     * Parameters:
+     * @param context (Context): Any context; only its files directory is kept.
+     *
+     * Returns:
+     * @return LibraryRepository - The process-wide repository.
+     */
+    public static LibraryRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new LibraryRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Example Call:
+     * libraryRepository.loadSummary(unsolved -> showLibrary(unsolved));
+     *
+     * Parameters:
+     * @param callback (SummaryCallback): Receives the unsolved counts per difficulty.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Opens the library first if needed, importing IMPORT_FILE when it is newer than the library.
+     */
+    public void loadSummary(SummaryCallback callback) {
+        executor.execute(() -> {
+            PuzzleLibrary opened = library();
+            int[] unsolved = null;
+            if (opened != null) {
+                unsolved = new int[Difficulty.values().length];
+                for (Difficulty difficulty : Difficulty.values()) {
+                    unsolved[difficulty.ordinal()] = opened.unsolvedCount(difficulty);
+                }
+            }
+            int[] summary = unsolved;
+            mainHandler.post(() -> callback.onSummaryLoaded(summary));
+        });
+    }
+
+    /**
+     * Example Call:
+     * libraryRepository.pickUnsolved(Difficulty.HARD, (ordinal, puzzle) -> play(ordinal, puzzle));
+     *
+     * Parameters:
+     * @param difficulty (Difficulty): The grade to pick from.
+     * @param callback (PuzzleCallback): Receives a random unsolved puzzle of that grade.
+     *
+     * Returns:
+     * @return void
+     */
+    public void pickUnsolved(Difficulty difficulty, PuzzleCallback callback) {
+        executor.execute(() -> {
+            PuzzleLibrary opened = library();
+            int ordinal = -1;
+            int[] puzzle = null;
+            if (opened != null && opened.unsolvedCount(difficulty) > 0) {
+                ordinal = opened.unsolved(difficulty, random.nextInt(opened.unsolvedCount(difficulty)));
+                puzzle = opened.read(ordinal);
+            }
+            int picked = ordinal;
+            int[] board = puzzle;
+            mainHandler.post(() -> callback.onPuzzlePicked(picked, board));
+        });
+    }
+
+    /**
+     * Marks the library puzzle 'ordinal' as solved, so it is not picked again.
+     */
+    public void markSolved(int ordinal) {
+        executor.execute(() -> {
+            PuzzleLibrary opened = library();
+            if (opened != null && ordinal >= 0 && ordinal < opened.size()) {
+                opened.markSolved(ordinal, true);
+            }
+        });
+    }
+
+    // Opens the library once, importing the text collection first if it is newer
+    private PuzzleLibrary library() {
+        if (opened) {
+            return library;
+        }
+        opened = true;
+        try {
+            if (importFile.exists() && importFile.lastModified() > libraryFile.lastModified()) {
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(importFile),
+                        StandardCharsets.UTF_8))) {
+                    Log.i(TAG, "Imported " + IMPORT_FILE + ": " + LibraryImporter.importText(in, libraryFile));
+                }
+            }
+            if (libraryFile.exists()) {
+                if (!PuzzleLibrary.indexFile(libraryFile).exists()) {
+                    PuzzleLibrary.buildIndex(libraryFile);
+                }
+                library = PuzzleLibrary.open(libraryFile, true);
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Cannot open the puzzle library", e);
+            library = null;
+        }
+        return library;
+    }
+}
@@ -2,64 +2,101 @@ package com.example.sudokusolver;
 
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.recyclerview.widget.GridLayoutManager;
-import androidx.recyclerview.widget.RecyclerView;
-import android.content.ContentValues;
-import android.content.Context;
-import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
-import android.database.sqlite.SQLiteOpenHelper;
 import android.os.Bundle;
 import android.os.Handler;
-import android.provider.BaseColumns;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
-import java.util.ArrayList;
-import java.util.List;
+import com.example.sudokusolver.solver.Board;
+import com.example.sudokusolver.solver.Difficulty;
+import com.example.sudokusolver.solver.GameClock;
+import com.example.sudokusolver.solver.Geometry;
+import com.example.sudokusolver.solver.SolutionCounter;
+import com.example.sudokusolver.solver.SolverType;
+import com.example.sudokusolver.solver.TracePlayer;
+
+import java.io.File;
 import java.util.Locale;
-import java.util.Random;
-import java.util.Stack;
 
 public class MainActivity extends AppCompatActivity {
+    private static final String TAG = "MainActivity";
+    private static final int REPLAY_STEPS_PER_SECOND = 60;
+    private static final String SOLVER_METRICS_FILE = "solver-metrics.txt";
+
     private SudokuAdapter sudokuAdapter;
+    private BackgroundSolver backgroundSolver;
+    private final TraceReplayer traceReplayer = new TraceReplayer();
     private Handler handler;
-    private Long startTime;
+    private final GameClock gameClock = new GameClock();
+    private final Runnable clockTick = this::onClockTick;
+    private int clockWakeups;
     private boolean gameOver;
     private boolean solvingInProgress = true;
+    private SolverType solverType = SolverType.PROPAGATION;
+    private int currentSlot = SudokuContract.WORKING_SLOT;
+    private BoardRepository boardRepository;
+    private PuzzlePool puzzlePool;
+    private LibraryRepository libraryRepository;
+    // The library puzzle in the working slot, -1 if the working slot holds no library puzzle
+    private int libraryOrdinal = -1;
+    // True while the working slot holds an unfinished game from the last session, which the next start resumes
+    private boolean resumeWorkingGame;
+    private Difficulty difficulty = Difficulty.MEDIUM;
+    private Geometry geometry = Geometry.CLASSIC;
+    // Cold start timing: when onCreate began, and whether the working slot has been loaded from the repository
+    private long startupMillis;
+    private boolean boardReady;
 
     // View Objects
     private TextView tvTimer;
     private Button btnStart;
     private Button btnSolve;
     private Button btnSave;
-    private RecyclerView rvSudokuBoard;
+    private Button btnUndo;
+    private Button btnRedo;
+    private SudokuBoardView boardView;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        startupMillis = SystemClock.uptimeMillis();
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
-//        initDB(convertIntToSudokuCells(callFromDatabase()));
-        // Initialize game settings
-        initDB();
+        // Initialize game settings. Creating the repositories touches neither the journal nor the database
+        boardRepository = BoardRepository.getInstance(this);
+        libraryRepository = LibraryRepository.getInstance(this);
         gameOver = true;
-        initBoard(gameOver);
+        // The first frame shows the board the last session left, or an empty one; the database comes after it
+        SavedBoard lastBoard = boardRepository.readLastBoard();
+        showBoard(lastBoard != null ? lastBoard.board : new Board(geometry), gameOver);
 
         handler = new Handler();
+        backgroundSolver = new BackgroundSolver();
+        runAfterFirstFrame(this::onFirstFrame);
 
         // connect view objects
         tvTimer = findViewById(R.id.tvTimer);
         btnStart = findViewById(R.id.btnStart);
         btnSolve = findViewById(R.id.btnSolve);
         btnSave = findViewById(R.id.btnSave);
+        btnUndo = findViewById(R.id.btnUndo);
+        btnRedo = findViewById(R.id.btnRedo);
         // listen for click event on btn
         btnStart.setOnClickListener(view -> {
+            if (!boardReady) {
+                // Still loading the working slot, which decides whether the game resumes
+                return;
+            }
             if(gameOver) {
                 startTimer();
-                rvSudokuBoard.setVisibility(view.VISIBLE);
+                boardView.setVisibility(view.VISIBLE);
             }
             else {
+                backgroundSolver.cancel();
+                traceReplayer.stop();
                 stopTimer();
                 initBoard(gameOver);
             }
@@ -67,23 +104,135 @@ public class MainActivity extends AppCompatActivity {
         // listen for click event on btn
         btnSolve.setOnClickListener(view -> {
             if (!gameOver) {
-                solvingInProgress = true;
-                solveNextStep();
+                if (traceReplayer.isPlaying()) {
+                    traceReplayer.seek(Integer.MAX_VALUE);
+                } else if (!backgroundSolver.isSolving()) {
+                    solveBoard();
+                }
             }
             else if (!solvingInProgress){
                 gameOver = true;
                 stopTimer();
-                rvSudokuBoard.setVisibility(view.INVISIBLE);
+                boardView.setVisibility(view.INVISIBLE);
             }
         });
         // listen for click event on btn
         btnSave.setOnClickListener(view -> {
+            if (!boardReady) {
+                return;
+            }
             if(sudokuAdapter.getSudokuData() != null)
                 showDatabaseAlert(sudokuAdapter.getSudokuData());
             else {
                 Toast.makeText(this, "No Data", Toast.LENGTH_SHORT).show();
             }
         });
+        // Undo and redo only the player's own game, never a running solve or replay
+        btnUndo.setOnClickListener(view -> {
+            if (!gameOver && !backgroundSolver.isSolving() && !traceReplayer.isPlaying()
+                    && !sudokuAdapter.undo()) {
+                Toast.makeText(this, "Nothing to undo", Toast.LENGTH_SHORT).show();
+            }
+        });
+        btnRedo.setOnClickListener(view -> {
+            if (!gameOver && !backgroundSolver.isSolving() && !traceReplayer.isPlaying()
+                    && !sudokuAdapter.redo()) {
+                Toast.makeText(this, "Nothing to redo", Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    /**
+     * Example Call:
+     * runAfterFirstFrame(this::onFirstFrame);
+     *
+     * Parameters:
+     * @param action (Runnable): Runs on the main thread once, right after the first frame of the window is drawn.
+     *
+     * Returns:
+     * @return void
+     */
+    private void runAfterFirstFrame(Runnable action) {
+        View content = findViewById(android.R.id.content);
+        content.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean drawn;
+
+            @Override
+            public void onDraw() {
+                if (!drawn) {
+                    drawn = true;
+                    // A draw listener cannot be removed while the frame is being drawn
+                    handler.post(() -> {
+                        content.getViewTreeObserver().removeOnDrawListener(this);
+                        action.run();
+                    });
+                }
+            }
+        });
+    }
+    /**
+     * Example Call:
+     * onFirstFrame();
+     *
+     * Parameters:
+     * None
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * The deferred half of the cold start. Logs the time to the first frame, then opens the repository, which
+     * recovers the last session's journal into the database (migrating it if needed), starts the puzzle pool and
+     * loads the working slot. Once the working slot is shown the board is interactive: that time is logged too and
+     * reported with reportFullyDrawn().
+     */
+    private void onFirstFrame() {
+        Log.d(TAG, "Startup: first frame after " + (SystemClock.uptimeMillis() - startupMillis) + " ms");
+        boardRepository.open();
+        puzzlePool = PuzzlePool.getInstance(this);
+        // The working slot holds the last session's game, recovered from the edit journal if the app was killed
+        boardRepository.load(SudokuContract.WORKING_SLOT, (slot, sudokuBoard, elapsedMillis) -> {
+            resumeWorkingGame = sudokuBoard.filledCount() > 0
+                    && !sudokuBoard.geometry().isSolved(sudokuBoard.toValues());
+            if (gameOver && currentSlot == SudokuContract.WORKING_SLOT) {
+                showBoard(sudokuBoard, gameOver);
+            }
+            boardReady = true;
+            Log.d(TAG, "Startup: interactive after " + (SystemClock.uptimeMillis() - startupMillis) + " ms");
+            reportFullyDrawn();
+        });
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (!gameOver) {
+            gameClock.pause(SystemClock.elapsedRealtime());
+            handler.removeCallbacks(clockTick);
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        boardRepository.compactJournal();
+        backgroundSolver.dumpMetrics(new File(getFilesDir(), SOLVER_METRICS_FILE));
+        super.onStop();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (!gameOver) {
+            gameClock.resume(SystemClock.elapsedRealtime());
+            updateTimer();
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        backgroundSolver.shutdown();
+        traceReplayer.stop();
+        super.onDestroy();
     }
 
     /**
@@ -97,84 +246,41 @@ public class MainActivity extends AppCompatActivity {
      * @return void
      *
      * Dependencies:
-     * @see SudokuDatabaseMngr: A custom class to manage SQLite database connections for the Sudoku app.
-     * @see SudokuContract: A class containing constants for the database schema, including table name and column names.
+     * @see BoardRepository: The cached, asynchronous store of the saved boards.
+     * @see SudokuContract: A class containing constants for the database schema, including the save slots.
      *
      * Description:
-     * This function initializes the database connections and inserts initial data (a 9x9 Sudoku board) into the database.
+     * This function stores an empty board of the selected `geometry` in the working slot.
      */
     private void initDB() {
-        // Initialize Database Connections
-        SudokuDatabaseMngr dbManager = new SudokuDatabaseMngr(this.getApplicationContext());
-        SQLiteDatabase db = dbManager.getWritableDatabase();
-
-        // Data to insert into tables
-        int[][] sudokuBoard = {
-                {0, 0, 0, 0, 0, 0, 0, 0, 0},
-                {0, 0, 0, 0, 0, 0, 0, 0, 0},
-                {0, 0, 0, 0, 0, 0, 0, 0, 0},
-                {0, 0, 0, 0, 0, 0, 0, 0, 0},
-                {0, 0, 0, 0, 0, 0, 0, 0, 0},
-                {0, 0, 0, 0, 0, 0, 0, 0, 0},
-                {0, 0, 0, 0, 0, 0, 0, 0, 0},
-                {0, 0, 0, 0, 0, 0, 0, 0, 0},
-                {0, 0, 0, 0, 0, 0, 0, 0, 0}
-        };
-
-        // Send data to database
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                int value = sudokuBoard[row][col];
-                if(value > -1) {
-                    ContentValues cv = new ContentValues();
-                    cv.put(SudokuContract.SudokuEntry.COLUMN_ROW, row);
-                    cv.put(SudokuContract.SudokuEntry.COLUMN_COL, col);
-                    cv.put(SudokuContract.SudokuEntry.COLUMN_VALUE, value);
-                    db.insert(SudokuContract.SudokuEntry.TABLE_NAME, null, cv);
-                }
-            }
-        }
-        db.close();
-        dbManager.close();
+        currentSlot = SudokuContract.WORKING_SLOT;
+        initDB(new Board(geometry), currentSlot);
     }
     /**
      * Example Call:
-     * initDB(sudokuBoard);
+     * initDB(sudokuBoard, slot);
      *
      * Parameters:
-     * @param sudokuBoard (SudokuCell[][]): A 9x9 two-dimensional array representing the Sudoku board. Each element of the array is a SudokuCell object containing the value of the cell.
+     * @param sudokuBoard (Board): The Sudoku board to store, holding the value of every cell.
+     * @param slot (int): The save slot to store the board in. Whatever the slot held before is replaced.
+     * The current play time is stored with it.
      *
      * Returns:
      * @return void
      *
      * Dependencies:
-     * @see SudokuCell: The class representing a cell in the Sudoku board, containing cell value and related information.
-     * @see SudokuDatabaseMngr: A custom class to manage SQLite database connections for the Sudoku app.
-     * @see SudokuContract: A class containing constants for the database schema, including table name and column names.
+     * @see Board: The compact board representation, holding the cell values and which cells are givens.
+     * @see BoardRepository: The cached, asynchronous store of the saved boards.
      *
      * Description:
-     * Same as above, except calls the database to get initial board data rather than an array
+     * Same as above, except stores the given board in the given slot. The board is journaled at once and written to
+     * the database in the background. A new board in the working slot replaces the game the next start would resume.
      */
-    private void initDB(SudokuCell[][] sudokuBoard) {
-        // Initialize Database Connections
-        SudokuDatabaseMngr dbManager = new SudokuDatabaseMngr(this.getApplicationContext());
-        SQLiteDatabase db = dbManager.getWritableDatabase();
-
-        // Send data to database
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                int value = sudokuBoard[row][col].getValue();
-                if(value > -1) {
-                    ContentValues cv = new ContentValues();
-                    cv.put(SudokuContract.SudokuEntry.COLUMN_ROW, row);
-                    cv.put(SudokuContract.SudokuEntry.COLUMN_COL, col);
-                    cv.put(SudokuContract.SudokuEntry.COLUMN_VALUE, value);
-                    db.insert(SudokuContract.SudokuEntry.TABLE_NAME, null, cv);
-                }
-            }
+    private void initDB(Board sudokuBoard, int slot) {
+        if (slot == SudokuContract.WORKING_SLOT) {
+            resumeWorkingGame = false;
         }
-        db.close();
-        dbManager.close();
+        boardRepository.save(slot, sudokuBoard, gameClock.elapsedMillis(SystemClock.elapsedRealtime()));
     }
     /**
      * Example Call:
@@ -191,17 +297,46 @@ public class MainActivity extends AppCompatActivity {
      *
      * Dependencies:
      * --------------
-     * @see SudokuCell: The class representing a cell in the Sudoku board, containing cell value and related information.
-     * @see SudokuAdapter: The custom RecyclerView adapter responsible for rendering SudokuCell objects within the RecyclerView.
+     * @see BoardRepository: The cached, asynchronous store of the saved boards.
+     * @see SudokuAdapter: Connects the Board to the SudokuBoardView that draws it and handles taps on its cells.
      *
+     * Description:
+     * Loads the board of the current slot and shows it. Cached boards are shown right away; otherwise the board
+     * appears once the background read finishes. While a game is running, the clock continues from the play time
+     * saved with the board.
      */
     private void initBoard(boolean gameOver) {
-        // Initialize RecyclerView and adapter
-        SudokuCell[][] sudokuBoard = convertIntToSudokuCells(callFromDatabase());
-        rvSudokuBoard = findViewById(R.id.rvSudokuBoard);
-        sudokuAdapter = new SudokuAdapter(this, sudokuBoard, gameOver);
-        rvSudokuBoard.setLayoutManager(new GridLayoutManager(this, 9));
-        rvSudokuBoard.setAdapter(sudokuAdapter);
+        boardRepository.load(currentSlot, (slot, sudokuBoard, elapsedMillis) -> {
+            showBoard(sudokuBoard, gameOver);
+            if (!this.gameOver) {
+                gameClock.setElapsedMillis(elapsedMillis, SystemClock.elapsedRealtime());
+                updateTimer();
+            }
+        });
+    }
+    /**
+     * Example Call:
+     * showBoard(sudokuBoard, true);
+     *
+     * Parameters:
+     * @param sudokuBoard (Board): The board to show.
+     * @param gameOver (boolean): If true, the board is read-only.
+     *
+     * Returns:
+     * @return void
+     */
+    private void showBoard(Board sudokuBoard, boolean gameOver) {
+        // The board view and its adapter are created once and reused for every board
+        if (sudokuAdapter == null) {
+            boardView = findViewById(R.id.boardView);
+            sudokuAdapter = new SudokuAdapter(this, boardView, sudokuBoard, gameOver);
+            // Every edit is journaled to the slot being played, so a killed process loses none of them
+            sudokuAdapter.setEditListener((cells, values, count) -> boardRepository.recordEdits(currentSlot, cells,
+                    values, count, gameClock.elapsedMillis(SystemClock.elapsedRealtime())));
+        } else {
+            sudokuAdapter.setGameOver(gameOver);
+            sudokuAdapter.updateSudokuData(sudokuBoard);
+        }
     }
     /**
      * Example Call:
@@ -215,14 +350,25 @@ public class MainActivity extends AppCompatActivity {
      *
      * Description:
      * Starts the timer for the Sudoku game, initializes the game state, and sets up the game board.
+     * In the working slot every game gets a new puzzle of the selected `difficulty` and `geometry` from the puzzle
+     * pool, unless a library puzzle was just picked or the last session left a game unfinished there; a board
+     * restored from a save slot is played as it was saved.
      */
     private void startTimer() {
-        startTime = System.currentTimeMillis();
+        gameClock.start(SystemClock.elapsedRealtime());
+        clockWakeups = 0;
         gameOver = false;
         btnStart.setText("STOP");
         updateTimer();
-        tvTimer.setText(calculateTime(startTime, startTime));
-        initBoard(gameOver);
+        if (currentSlot == SudokuContract.WORKING_SLOT && libraryOrdinal < 0 && !resumeWorkingGame) {
+            puzzlePool.take(geometry, difficulty, puzzle -> {
+                initDB(Board.fromValues(puzzle), SudokuContract.WORKING_SLOT);
+                initBoard(gameOver);
+            });
+        } else {
+            initBoard(gameOver);
+        }
+        resumeWorkingGame = false;
     }
     /**
      * Example Call:
@@ -235,16 +381,21 @@ public class MainActivity extends AppCompatActivity {
      * @return void
      *
      * Description:
-     * Updates the timer displayed on the UI for the Sudoku game. The function uses a handler to schedule periodic updates of the timer while the game is active (not over).
+     * Shows the current play time and schedules the next update for the moment the shown second changes, so a
+     * running game wakes the main thread about once per second. Any update that was already scheduled is replaced.
      */
     private void updateTimer() {
-        handler.post(() -> {
-            if(!gameOver) {
-                long currentTime = System.currentTimeMillis();
-                tvTimer.setText(calculateTime(currentTime, startTime));
-                updateTimer();
-            }
-        });
+        long now = SystemClock.elapsedRealtime();
+        tvTimer.setText(calculateTime(gameClock.elapsedMillis(now)));
+        handler.removeCallbacks(clockTick);
+        if (!gameOver && gameClock.isRunning()) {
+            handler.postDelayed(clockTick, gameClock.millisUntilNextTick(now));
+        }
+    }
+
+    private void onClockTick() {
+        clockWakeups++;
+        updateTimer();
     }
     /**
      * Example Call:
@@ -258,342 +409,296 @@ public class MainActivity extends AppCompatActivity {
      *
      * Description:
      * Stops the timer for the Sudoku game and updates the game state to indicate that the game is over. The function also updates the UI to display the final time and changes the text of the start button to "Restart".
+     * Logs how often the clock woke the main thread during the game. A library puzzle that was solved is marked as
+     * such in the library, and the next game in the working slot takes a puzzle from the pool again.
      */
     private void stopTimer() {
         if (!gameOver) {
-            long endTime = System.currentTimeMillis();
-            tvTimer.setText(calculateTime(endTime, startTime));
+            long endTime = SystemClock.elapsedRealtime();
+            gameClock.pause(endTime);
             gameOver = true;
+            updateTimer();
             btnStart.setText("Restart");
             sudokuAdapter.setGameOver(gameOver);
+            if (libraryOrdinal >= 0) {
+                Board played = sudokuAdapter.getSudokuData();
+                if (played.geometry().isSolved(played.toValues())) {
+                    libraryRepository.markSolved(libraryOrdinal);
+                }
+                libraryOrdinal = -1;
+            }
+            Log.d(TAG, "Game clock woke the main thread " + clockWakeups + " times in "
+                    + gameClock.elapsedMillis(endTime) / GameClock.TICK_MILLIS + " s");
         }
     }
-    // https://www.youtube.com/watch?v=MlyTq-xVkQE
     /**
      * Example Call:
-     * boolean result = solveNextStep();
+     * solveBoard();
      *
      * Parameters:
      * None
      *
      * Returns:
-     * @return boolean - True if Sudoku is successfully solved, false if no solution exists.
+     * @return void
      *
      * Description:
-     * Attempts to solve the next step in the Sudoku puzzle using a backtracking algorithm.
-     * It chooses a spot, tries placing a number, and then backtracks if the number doesn't lead to a solution.
-     * The Sudoku puzzle is updated in the process using the `sudokuAdapter`.
+     * Solves the board shown by the `sudokuAdapter` on a background thread with the engine selected by
+     * `solverType`. The solve records a trace of its placements and undos, which is then replayed onto the board at
+     * REPLAY_STEPS_PER_SECOND, one batched update per frame. Pressing Solve again skips to the end of the replay;
+     * pressing STOP cancels the solve or the replay. A solve that runs out of the BackgroundSolver's time limit is
+     * reported as timed out, not as a board without a solution.
+     *
+     * Dependencies:
+     * @see BackgroundSolver: Runs the engine off the main thread and records its trace.
+     * @see TraceReplayer: Animates the recorded trace at a fixed pace.
+     * @see SolverType: Selects the solver engine (bitmask backtracking, Dancing Links, constraint propagation or the
+     * CDCL SAT engine). Every engine but SAT runs inside a FallbackSolver that hands long searches to SAT.
      */
-    private boolean solveNextStep() {
-        Stack<SudokuCell> stack = new Stack<>();
-        stack.push(chooseSpot());
-
-        while (!stack.isEmpty()) {
-            SudokuCell cellToFill = stack.pop();
-
-            if (cellToFill == null) {
-                solvingInProgress = false;
-                return true;
+    private void solveBoard() {
+        solvingInProgress = true;
+        backgroundSolver.solve(sudokuAdapter.getSudokuData().toValues(), solverType, (outcome, board, trace) -> {
+            if (outcome != BackgroundSolver.Outcome.SOLVED) {
+                solvingInProgress = true;
+                String message = outcome == BackgroundSolver.Outcome.TIMED_OUT
+                        ? "Solve timed out" : "No solution for this board";
+                Toast.makeText(MainActivity.this, message, Toast.LENGTH_SHORT).show();
+                return;
             }
+            traceReplayer.play(new TracePlayer(trace), REPLAY_STEPS_PER_SECOND, new TraceReplayer.Listener() {
+                @Override
+                public void onCellsChanged(int[] cells, int[] values, int count) {
+                    sudokuAdapter.setValues(cells, values, count);
+                }
 
-            int row = cellToFill.getRow();
-            int col = cellToFill.getCol();
-
-            int num = cellToFill.getValue();
-            boolean backtrack = true;
-
-            while (num <= 9) {
-                if (isValidPlacement(row, col, num)) {
-                    cellToFill.setValue(num);
-                    sudokuAdapter.notifyItemChanged(row * 9 + col);
-
-                    if (!solveNextStep()) {
-                        solvingInProgress = false;
-                        return true;
+                @Override
+                public void onReplayFinished() {
+                    // A truncated trace ends before the solution, so the final board is applied as a whole
+                    int[] cells = new int[board.length];
+                    for (int cell = 0; cell < board.length; cell++) {
+                        cells[cell] = cell;
                     }
-
-                    stack.push(chooseSpot());
-                    backtrack = false;
-                    break;
+                    sudokuAdapter.setValues(cells, board, board.length);
+                    // The whole solve is one step in the undo history, without the backtracking of the replay
+                    sudokuAdapter.recordChanges();
+                    initDB(sudokuAdapter.getSudokuData(), currentSlot);
+                    solvingInProgress = false;
                 }
-                num++;
-            }
-        }
-        solvingInProgress = true;
-        return false;
+            });
+        });
     }
-
-//            // Solve the cell
-//            for (int num = 1; num <=9; num++) {
-//                if(isValidPlacement(row, col, num)) {
-//                    cellToFill.setValue(num);
-//                    sudokuAdapter.notifyItemChanged(row * 9 + col);
-//
-//                    if(solveNextStep()) { return true; }
-//
-//                    cellToFill.setValue(0);
-//                    sudokuAdapter.notifyItemChanged(row * 9 + col);
-//                }
-//            }
-//        }
-//        // No valid number found for the cell, backtrack to previous cells
-//        solvingInProgress = true;
-//        return false;
-//    }
     /**
      * Example Call:
-     * SudokuCell cell = chooseSpot();
+     * String formattedTime = calculateTime(timeTaken);
      *
      * Parameters:
-     * None
+     * @param timeTaken (long): A duration in milliseconds, usually the play time of the game clock.
      *
      * Returns:
-     * @return SudokuCell - A randomly chosen empty cell (cell with a value of 0) from the Sudoku board. If there are no empty cells, the function returns null.
+     * @return String - A formatted string representing the duration in the format "HH:mm:ss".
      *
      * Description:
-     * Randomly selects an empty cell (cell with a value of 0) from the Sudoku board to be filled with a number during the Sudoku solving process.
-     * The function iterates through the entire Sudoku board and compiles a list of empty cells.
-     * It then selects a random cell from the list and returns it.
-     * If there are no empty cells on the board, the function returns null, indicating that the Sudoku puzzle is already solved or there's no solution for the current configuration.
+     * Formats a duration for the timer display.
      */
-    private SudokuCell chooseSpot() {
-        Random random = new Random();
-        List<SudokuCell> emptyCells = new ArrayList<>();
-
-        for (int row = 0; row < 9; row++) {
-            for (int col = 0; col < 9; col++) {
-                if (sudokuAdapter.getSudokuData()[row][col].getValue() == 0) {
-                    emptyCells.add(sudokuAdapter.getSudokuData()[row][col]);
-                }
-            }
-        }
-
-        if(!emptyCells.isEmpty()) {
-            int randomIndex = random.nextInt(emptyCells.size());
-
-            return emptyCells.get(randomIndex);
-        }
-
-        return null;
+    private String calculateTime(long timeTaken) {
+        long seconds = (timeTaken / 1000) % 60;
+        long minutes = (timeTaken / (1000 * 60) % 60);
+        long hours = (timeTaken / (1000 * 60 * 60) % 24);
+        return(String.format(Locale.getDefault(), "%02d:%02d:%02d", hours, minutes, seconds));
     }
     /**
      * Example Call:
-     * boolean isValid = isValidPlacement(row, col, num);
+     * showDatabaseAlert(sudokuBoard);
      *
      * Parameters:
-     * @param row (int): The row index of the cell to be checked.
-     * @param col (int): The column index of the cell to be checked.
-     * @param num (int): The number to be placed in the cell and checked for validity.
+     * @param sudokuBoard (Board): The Sudoku board.
      *
      * Returns:
-     * @return boolean - True if placing 'num' in the cell at position (row, col) is valid, false otherwise.
+     * @return void
      *
      * Description:
-     * Checks if placing a given 'num' in the cell at position (row, col) of the Sudoku board is a valid move according to Sudoku rules.
-     * The function checks the row, column, and the corresponding 3x3 sub-grid for any conflicts with 'num'.
-     * If there are no conflicts, the placement is considered valid, and the function returns true. Otherwise, it returns false, indicating an invalid placement.
+     * Displays an alert dialog with options for interacting with the Sudoku database.
+     *   1. Save: Asks for a save slot and stores `sudokuBoard` in it.
+     *   2. Restore: Asks for a save slot, or the puzzle library, and loads its board using `initBoard` function.
+     *   3. Board size: Asks for the size of the boards new games are played on.
+     *   4. Cancel: Closes the dialog without performing any action.
+     *
+     * Dependencies:
+     * @see AlertDialog: A class provided by Android SDK to create alert dialogs.
+     * @see Board: The compact board representation, holding the cell values and which cells are givens.
+     *
      */
-    private boolean isValidPlacement(int row, int col, int num) {
-        for (int i = 0; i < 9; i++) {
-            if (sudokuAdapter.getSudokuData()[row][i].getValue() == num || sudokuAdapter.getSudokuData()[i][col].getValue() == num) {
-                return false;
-            }
-        }
-
-        int subGridRow = (row / 3) * 3;
-        int subGridCol = (col / 3) * 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if(sudokuAdapter.getSudokuData()[subGridRow + i][subGridCol + j].getValue() == num) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+    private void showDatabaseAlert(Board sudokuBoard) {
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        builder.setTitle("Select an Option")
+                .setItems(R.array.alert_dialog_options, (dialog, which) -> {
+                    switch (which) {
+                        case 0:
+                            showSlotPicker(true, sudokuBoard);
+                            break;
+                        case 1:
+                            showSlotPicker(false, sudokuBoard);
+                            break;
+                        case 2:
+                            showSizePicker();
+                            break;
+                        case 3:
+                            // do nothing
+                            break;
+                    }
+                })
+                .show();
     }
     /**
      * Example Call:
-     * String formattedTime = calculateTime(currentTime, pastTime);
+     * showSlotPicker(true, sudokuBoard);
      *
      * Parameters:
-     * @param currentTime (long): The current time in milliseconds (usually obtained using System.currentTimeMillis()).
-     * @param pastTime (long): The past time in milliseconds from which the time difference is calculated.
+     * @param saving (boolean): True to save 'sudokuBoard' into the picked slot, false to restore the picked slot.
+     * @param sudokuBoard (Board): The Sudoku board to save.
      *
      * Returns:
-     * @return String - A formatted string representing the time difference between currentTime and pastTime in the format "HH:mm:ss".
+     * @return void
      *
      * Description:
-     * Calculates the time difference between two given timestamps (currentTime and pastTime)
+     * Lists the save slots, marking the ones that are empty. Empty slots cannot be restored.
+     * The picked slot becomes the current slot, which is what the board is reloaded from on the next start.
+     * When restoring, the list ends with the puzzle library (see showLibraryPicker).
      */
-    private String calculateTime(long currentTime, long pastTime) {
-        long timeTaken = currentTime - pastTime;
-        long seconds = (timeTaken / 1000) % 60;
-        long minutes = (timeTaken / (1000 * 60) % 60);
-        long hours = (timeTaken / (1000 * 60 * 60) % 24);
-        return(String.format(Locale.getDefault(), "%02d:%02d:%02d", hours, minutes, seconds));
+    private void showSlotPicker(boolean saving, Board sudokuBoard) {
+        boardRepository.loadSavedSlots(savedMask -> {
+            String[] labels = new String[SudokuContract.SAVE_SLOTS + (saving ? 0 : 1)];
+            for (int i = 0; i < SudokuContract.SAVE_SLOTS; i++) {
+                int slot = i + 1;
+                labels[i] = "Slot " + slot + ((savedMask & (1 << slot)) != 0 ? "" : " (empty)");
+            }
+            if (!saving) {
+                labels[SudokuContract.SAVE_SLOTS] = "Puzzle library";
+            }
+            AlertDialog.Builder builder = new AlertDialog.Builder(this);
+            builder.setTitle(saving ? "Save to" : "Restore from")
+                    .setItems(labels, (dialog, which) -> {
+                        int slot = which + 1;
+                        if (which == SudokuContract.SAVE_SLOTS) {
+                            showLibraryPicker();
+                            return;
+                        }
+                        libraryOrdinal = -1;
+                        if (saving) {
+                            initDB(sudokuBoard, slot);
+                            currentSlot = slot;
+                            warnIfNotProper(sudokuBoard);
+                        } else if ((savedMask & (1 << slot)) != 0) {
+                            currentSlot = slot;
+                            initBoard(gameOver);
+                        } else {
+                            Toast.makeText(this, "Slot " + slot + " is empty", Toast.LENGTH_SHORT).show();
+                        }
+                    })
+                    .show();
+        });
     }
     /**
      * Example Call:
-     * int[][] sudokuData = callFromDatabase();
+     * showLibraryPicker();
      *
      * Parameters:
      * None
      *
      * Returns:
-     * @return int[][] - A 9x9 two-dimensional array representing the Sudoku board data retrieved from the database.
-     *
-     * Dependencies:
-     * @see SudokuDatabaseMngr: A custom class to manage SQLite database connections for the Sudoku app.
-     * @see SudokuContract: A class containing constants for the database schema, including table name and column names.
+     * @return void
      *
      * Description:
-     * Retrieves the Sudoku board data from the database and converts it into a 9x9 two-dimensional array.
+     * Lists the difficulties with the number of unsolved puzzles the library holds of each. Picking one loads a
+     * random unsolved puzzle of that difficulty into the working slot; the next start plays it, and solving it marks
+     * it as solved in the library. Without a library, tells the user how to import one.
+     *
+     * Dependencies:
+     * @see LibraryRepository: The memory-mapped puzzle library and its importer.
      */
-    private int[][] callFromDatabase() {
-        SudokuDatabaseMngr dbManager = new SudokuDatabaseMngr(this);
-        SQLiteDatabase db = dbManager.getReadableDatabase();
-        Cursor cursor = db.query(SudokuContract.SudokuEntry.TABLE_NAME, null, null, null, null, null, null);
-        int[][] sudokuData = new int[9][9];
-
-        int rowColIndex = cursor.getColumnIndex(SudokuContract.SudokuEntry.COLUMN_ROW);
-        int colColIndex = cursor.getColumnIndex(SudokuContract.SudokuEntry.COLUMN_COL);
-        int valueColIndex = cursor.getColumnIndex(SudokuContract.SudokuEntry.COLUMN_VALUE);
-
-        if (rowColIndex >= 0 && colColIndex >= 0 && valueColIndex >=0) {
-            while (cursor.moveToNext()) {
-                int row = cursor.getInt(rowColIndex);
-                int col = cursor.getInt(colColIndex);
-                int value = cursor.getInt(valueColIndex);
-                if (row >= 0 && row < 9 && col >= 0 && col < 9) {
-                    sudokuData[row][col] = value;
-                } else {
-                    Log.i("Database data retrieval error", "Invalid row or column index: " + row + ", " + col);
-                }
+    private void showLibraryPicker() {
+        libraryRepository.loadSummary(unsolved -> {
+            if (unsolved == null) {
+                Toast.makeText(this, "No puzzle library. Copy puzzles to files/" + LibraryRepository.IMPORT_FILE
+                        + " to import them.", Toast.LENGTH_LONG).show();
+                return;
             }
-        }
-
-        cursor.close();
-        db.close();
-        dbManager.close();
-
-        return(sudokuData);
+            Difficulty[] difficulties = Difficulty.values();
+            String[] labels = new String[difficulties.length];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = difficulties[i] + " (" + unsolved[i] + " unsolved)";
+            }
+            AlertDialog.Builder builder = new AlertDialog.Builder(this);
+            builder.setTitle("Puzzle library")
+                    .setItems(labels, (dialog, which) ->
+                            libraryRepository.pickUnsolved(difficulties[which], (ordinal, puzzle) -> {
+                                if (ordinal < 0) {
+                                    Toast.makeText(this, "No unsolved " + difficulties[which] + " puzzles left",
+                                            Toast.LENGTH_SHORT).show();
+                                    return;
+                                }
+                                Board board = Board.fromValues(puzzle);
+                                geometry = board.geometry();
+                                libraryOrdinal = ordinal;
+                                currentSlot = SudokuContract.WORKING_SLOT;
+                                initDB(board, currentSlot);
+                                initBoard(gameOver);
+                            }))
+                    .show();
+        });
     }
     /**
      * Example Call:
-     * showDatabaseAlert(sudokuBoard);
+     * showSizePicker();
      *
      * Parameters:
-     * @param sudokuBoard (SudokuCell[][]): A 9x9 two-dimensional array representing the Sudoku board.
+     * None
      *
      * Returns:
      * @return void
      *
      * Description:
-     * Displays an alert dialog with options for interacting with the Sudoku database.
-     *   1. Save Database: Initializes the database and inserts the data from `sudokuBoard`.
-     *   2. Load Board: Initializes the RecyclerView and adapter for the Sudoku board using `initBoard` function.
-     *   3. Cancel: Closes the dialog without performing any action.
-     *
-     * Dependencies:
-     * @see AlertDialog: A class provided by Android SDK to create alert dialogs.
-     * @see SudokuCell: The class representing a cell in the Sudoku board, containing cell value and related information.
-     *
+     * Lists the supported board sizes, from 4x4 to 25x25. Picking one sets `geometry` and, while no game is running,
+     * shows an empty board of that size in the working slot; the next start plays a puzzle of that size.
      */
-    private void showDatabaseAlert(SudokuCell[][] sudokuBoard) {
+    private void showSizePicker() {
+        int sizes = Geometry.MAX_BOX_SIZE - Geometry.MIN_BOX_SIZE + 1;
+        String[] labels = new String[sizes];
+        for (int i = 0; i < sizes; i++) {
+            Geometry option = Geometry.of(Geometry.MIN_BOX_SIZE + i);
+            labels[i] = option + (option == geometry ? " (current)" : "");
+        }
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
-        builder.setTitle("Select an Option")
-                .setItems(R.array.alert_dialog_options, (dialog, which) -> {
-                    switch (which) {
-                        case 0:
-                            initDB(sudokuBoard);
-                            break;
-                        case 1:
-                            initBoard(gameOver);
-                            break;
-                        case 2:
-                            // do nothing
-                            break;
+        builder.setTitle("Board size")
+                .setItems(labels, (dialog, which) -> {
+                    geometry = Geometry.of(Geometry.MIN_BOX_SIZE + which);
+                    if (gameOver) {
+                        initDB();
+                        initBoard(gameOver);
                     }
                 })
                 .show();
     }
     /**
      * Example Call:
-     * SudokuCell[][] sudokuCells = convertIntToSudokuCells(sudokuBoard);
+     * warnIfNotProper(sudokuBoard);
      *
      * Parameters:
-     * @param sudokuBoard (int[][]): A 9x9 two-dimensional array representing the Sudoku board with integer values.
+     * @param sudokuBoard (Board): The board that was just saved.
      *
      * Returns:
-     * @return SudokuCell[][] - A 9x9 two-dimensional array of SudokuCell objects.
+     * @return void
      *
      * Description:
-     * Converts a 9x9 two-dimensional array of integers (sudokuBoard) representing the Sudoku board into a 9x9 two-dimensional array of SudokuCell objects (sudokuCells).
-     * The function iterates through each cell of intArray, creates a new SudokuCell object with the row, column, and value information, and assigns it to the corresponding cell in sudokuCells.
-     * The resulting array contains SudokuCell objects representing each cell in the Sudoku board with their associated data.
-     *
-     * Dependencies:
-     * @see SudokuCell: The class representing a cell in the Sudoku board, containing cell value and related information.
-     *
+     * Counts the solutions of the saved board in the background and tells the user if it is not a proper puzzle,
+     * i.e. if it has no solution or more than one.
      */
-    private SudokuCell[][] convertIntToSudokuCells(int[][] sudokuBoard)
-    {
-        SudokuCell[][] sudokuCells = new SudokuCell[9][9];
-        for (int row = 0; row < 9; row ++) {
-            for (int col = 0; col < 9; col++) {
-                int value = sudokuBoard[row][col];
-                sudokuCells[row][col] = new SudokuCell(row, col, value);
+    private void warnIfNotProper(Board sudokuBoard) {
+        backgroundSolver.checkSolutions(sudokuBoard.toValues(), result -> {
+            if (result == SolutionCounter.Result.NONE) {
+                Toast.makeText(this, "Saved, but this board has no solution", Toast.LENGTH_SHORT).show();
+            } else if (result == SolutionCounter.Result.MULTIPLE) {
+                Toast.makeText(this, "Saved, but this board has more than one solution", Toast.LENGTH_SHORT).show();
             }
-        }
-        return sudokuCells;
-    }
-}
-
-/**
- * Class: SudokuContract
- *
- * Description:
- * A contract class that defines the database schema for the Sudoku app.
- */
-class SudokuContract {
-    public static class SudokuEntry implements BaseColumns {
-        public static final String TABLE_NAME = "sudokuboard";
-        public static final String COLUMN_ROW = "rows";
-        public static final String COLUMN_COL = "columns";
-        public static final String COLUMN_VALUE = "value";
-    }
-}
-
-/**
- * Class: SudokuDatabaseMngr
- * Extends: SQLiteOpenHelper
- *
- * Description:
- * A custom class that manages the SQLite database for the Sudoku app.
- * It extends the SQLiteOpenHelper class and handles database creation and version management.
- */
-class SudokuDatabaseMngr extends SQLiteOpenHelper {
-    public SudokuDatabaseMngr(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
-    }
-    private static final String DATABASE_NAME = "SudokuSolverVDTS.db";
-    private static final int DATABASE_VERSION = 1;
-
-    private static final String SQL_CREATE_ENTRIES =
-            "CREATE TABLE " + SudokuContract.SudokuEntry.TABLE_NAME + " (" +
-                    SudokuContract.SudokuEntry.COLUMN_ROW + " INTEGER," +
-                    SudokuContract.SudokuEntry.COLUMN_COL + " INTEGER," +
-                    SudokuContract.SudokuEntry.COLUMN_VALUE + " INTEGER)";
-
-    @Override
-    public void onCreate(SQLiteDatabase db) {
-        db.execSQL(SQL_CREATE_ENTRIES);
-    }
-
-    @Override
-    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-//        db.execSQL("DROP TABLE IF EXISTS " + SudokuContract.SudokuEntry.TABLE_NAME);
-//        onCreate(db);
+        });
     }
 }
@@ -0,0 +1,243 @@
+package com.example.sudokusolver;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import com.example.sudokusolver.solver.Difficulty;
+import com.example.sudokusolver.solver.Geometry;
+import com.example.sudokusolver.solver.PuzzleGenerator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class: PuzzlePool
+ *
+ * Description:
+ * Keeps a few generated puzzles of every difficulty ready, so starting a game never waits for the generator.
+ * Puzzles are generated on the spare cores (all but one) at background priority and stored in the database
+ * through the BoardRepository, so the pool survives restarts; taking a puzzle removes it and queues a replacement.
+ * Each difficulty's generation rate is logged as puzzles are made.
+ * Only classic 9x9 puzzles are pooled. Other board sizes are generated on demand on the same threads.
+ * All public methods must be called from the main thread, and every callback is delivered on the main thread.
+ */
+public final class PuzzlePool {
+    /**
+     * Interface: Callback
+     *
+     * Description:
+     * Receives a puzzle on the main thread: the cells in row-major order, 0 for empty cells.
+     */
+    public interface Callback {
+        void onPuzzleReady(int[] puzzle);
+    }
+
+    /**
+     * Class: Entry
+     *
+     * Description:
+     * A pooled puzzle and the id of its database row, or a negative id when storing it failed. Such a puzzle is
+     * still handed out, but is lost when the process ends.
+     */
+    static final class Entry {
+        final long id;
+        final Difficulty difficulty;
+        final int[] puzzle;
+
+        Entry(long id, Difficulty difficulty, int[] puzzle) {
+            this.id = id;
+            this.difficulty = difficulty;
+            this.puzzle = puzzle;
+        }
+    }
+
+    private static final String TAG = "PuzzlePool";
+    private static final int TARGET_PER_DIFFICULTY = 3;
+    private static PuzzlePool instance;
+
+    private final BoardRepository repository;
+    private final ExecutorService generators;
+    private final ThreadLocal<PuzzleGenerator> generator = new ThreadLocal<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Main thread only, indexed by Difficulty.ordinal()
+    private final List<ArrayDeque<Entry>> ready = new ArrayList<>();
+    private final List<ArrayDeque<Callback>> waiting = new ArrayList<>();
+    private final int[] inFlight = new int[Difficulty.values().length];
+    private final int[] generatedCount = new int[Difficulty.values().length];
+    private final long[] generatedNanos = new long[Difficulty.values().length];
+    private boolean loaded;
+
+    private PuzzlePool(Context context) {
+        repository = BoardRepository.getInstance(context);
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        generators = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < Difficulty.values().length; i++) {
+            ready.add(new ArrayDeque<>());
+            waiting.add(new ArrayDeque<>());
+        }
+        repository.runOnDatabaseThread(db -> {
+            List<Entry> stored = db.loadPool();
+            mainHandler.post(() -> onPoolLoaded(stored));
+        });
+    }
+
+    /**
+     * Example Call:
+     * PuzzlePool pool = PuzzlePool.getInstance(this);
+     *
+     * Parameters:
+     * @param context (Context): Any context; only its application context is kept.
+     *
+     * Returns:
+     * @return PuzzlePool - The process-wide pool. The first call starts loading and topping it up.
+     */
+    public static PuzzlePool getInstance(Context context) {
+        if (instance == null) {
+            instance = new PuzzlePool(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Example Call:
+     * pool.take(Difficulty.MEDIUM, puzzle -> startGame(puzzle));
+     *
+     * Parameters:
+     * @param difficulty (Difficulty): The grade of puzzle wanted.
+     * @param callback (Callback): Receives the puzzle.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Hands out a pooled puzzle before returning when one is ready. Otherwise the callback waits for the next
+     * puzzle of that difficulty to be generated.
+     */
+    public void take(Difficulty difficulty, Callback callback) {
+        Entry entry = ready.get(difficulty.ordinal()).poll();
+        if (entry != null) {
+            deleteStored(entry);
+            callback.onPuzzleReady(entry.puzzle.clone());
+        } else {
+            waiting.get(difficulty.ordinal()).add(callback);
+        }
+        topUp(difficulty);
+    }
+
+    /**
+     * Example Call:
+     * pool.take(Geometry.of(4), Difficulty.EASY, puzzle -> startGame(puzzle));
+     *
+     * Parameters:
+     * @param geometry (Geometry): The size of board wanted.
+     * @param difficulty (Difficulty): The grade of puzzle wanted.
+     * @param callback (Callback): Receives the puzzle.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Classic boards come from the pool as with take(Difficulty, Callback). Other sizes are generated for this call,
+     * which takes up to a few seconds for 25x25 boards.
+     */
+    public void take(Geometry geometry, Difficulty difficulty, Callback callback) {
+        if (geometry == Geometry.CLASSIC) {
+            take(difficulty, callback);
+            return;
+        }
+        generators.execute(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            int[] puzzle = new PuzzleGenerator(geometry).generate(difficulty);
+            mainHandler.post(() -> callback.onPuzzleReady(puzzle));
+        });
+    }
+
+    private void onPoolLoaded(List<Entry> stored) {
+        for (Entry entry : stored) {
+            ArrayDeque<Callback> waiters = waiting.get(entry.difficulty.ordinal());
+            if (!waiters.isEmpty()) {
+                deleteStored(entry);
+                waiters.poll().onPuzzleReady(entry.puzzle.clone());
+            } else {
+                ready.get(entry.difficulty.ordinal()).add(entry);
+            }
+        }
+        loaded = true;
+        for (Difficulty difficulty : Difficulty.values()) {
+            topUp(difficulty);
+        }
+    }
+
+    // Queues enough generation to bring the difficulty back to its target, counting puzzles already being made
+    private void topUp(Difficulty difficulty) {
+        int index = difficulty.ordinal();
+        int wanted = waiting.get(index).size();
+        if (loaded) {
+            wanted += TARGET_PER_DIFFICULTY - ready.get(index).size();
+        }
+        while (inFlight[index] < wanted) {
+            inFlight[index]++;
+            generators.execute(() -> generate(difficulty));
+        }
+    }
+
+    // Runs on a generator thread
+    private void generate(Difficulty difficulty) {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        PuzzleGenerator puzzleGenerator = generator.get();
+        if (puzzleGenerator == null) {
+            puzzleGenerator = new PuzzleGenerator();
+            generator.set(puzzleGenerator);
+        }
+        long start = System.nanoTime();
+        int[] puzzle = puzzleGenerator.generate(difficulty);
+        long nanos = System.nanoTime() - start;
+        mainHandler.post(() -> onGenerated(difficulty, puzzle, nanos));
+    }
+
+    private void onGenerated(Difficulty difficulty, int[] puzzle, long nanos) {
+        int index = difficulty.ordinal();
+        generatedCount[index]++;
+        generatedNanos[index] += nanos;
+        Log.i(TAG, String.format(Locale.US, "%s: %.1f puzzles/s per core over %d puzzles", difficulty,
+                generatedCount[index] * 1e9 / generatedNanos[index], generatedCount[index]));
+
+        Callback waiter = waiting.get(index).poll();
+        if (waiter != null) {
+            inFlight[index]--;
+            waiter.onPuzzleReady(puzzle);
+            return;
+        }
+        repository.runOnDatabaseThread(db -> {
+            long id = db.addPoolPuzzle(difficulty, puzzle);
+            mainHandler.post(() -> onStored(new Entry(id, difficulty, puzzle)));
+        });
+    }
+
+    // The puzzle counts as in flight until it is stored. A waiter that arrived meanwhile takes it straight away.
+    private void onStored(Entry entry) {
+        inFlight[entry.difficulty.ordinal()]--;
+        Callback waiter = waiting.get(entry.difficulty.ordinal()).poll();
+        if (waiter != null) {
+            deleteStored(entry);
+            waiter.onPuzzleReady(entry.puzzle.clone());
+        } else {
+            // Kept even when the insert failed, so the generation is not wasted
+            ready.get(entry.difficulty.ordinal()).add(entry);
+        }
+    }
+
+    private void deleteStored(Entry entry) {
+        if (entry.id >= 0) {
+            repository.runOnDatabaseThread(db -> db.deletePoolPuzzle(entry.id));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.sudokusolver;
+
+import com.example.sudokusolver.solver.Board;
+
+/**
+ * Class: SavedBoard
+ *
+ * Description:
+ * One save slot's contents: the board and the play time the game had when it was saved.
+ */
+final class SavedBoard {
+    final Board board;
+    final long elapsedMillis;
+
+    SavedBoard(Board board, long elapsedMillis) {
+        this.board = board;
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -4,105 +4,228 @@ import android.app.AlertDialog;
 import android.content.Context;
 import android.text.InputType;
 import android.view.Gravity;
-import android.view.LayoutInflater;
-import android.view.View;
-import android.view.ViewGroup;
 import android.widget.EditText;
 import android.widget.Toast;
 
-import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.RecyclerView;
+import com.example.sudokusolver.solver.Board;
+import com.example.sudokusolver.solver.ConflictTracker;
+import com.example.sudokusolver.solver.Geometry;
+import com.example.sudokusolver.solver.MoveHistory;
 
-import java.util.ArrayList;
-import java.util.List;
+/**
+ * Class: SudokuAdapter
+ *
+ * Description:
+ * Connects a Board to the SudokuBoardView that shows it. The adapter is the view's model, answering what each cell
+ * holds and whether it conflicts, and its controller, turning taps on empty cells into the number input dialog.
+ * Every change goes through setValue() or setValues(), which keep the conflict counts up to date and ask the view
+ * for one redraw. The board may have any Geometry; a board of another size replaces the conflict tracker.
+ * Edits made through setValue() are recorded in a MoveHistory for undo() and redo(); batches applied with
+ * setValues() are not, and are recorded as one step by recordChanges() once they are complete.
+ */
+public class SudokuAdapter implements SudokuBoardView.Model, SudokuBoardView.OnCellTapListener {
+    /**
+     * Interface: EditListener
+     *
+     * Description:
+     * Told about every change the player makes to the board: a number entered, or a step undone or redone.
+     */
+    public interface EditListener {
+        void onCellsEdited(int[] cells, int[] values, int count);
+    }
 
-public class SudokuAdapter extends RecyclerView.Adapter<SudokuCellViewHolder> {
     private final Context context;
+    private final SudokuBoardView boardView;
     private boolean gameOver;
-    private SudokuCell[][] sudokuData;
+    private Board sudokuData;
+    private ConflictTracker conflictTracker;
+    private MoveHistory history;
+    private int[] changedCells;
+    private int[] changedValues;
+    private EditListener editListener;
 
-    public SudokuAdapter(Context context, SudokuCell[][] sudokuData, boolean gameOver) {
+    public SudokuAdapter(Context context, SudokuBoardView boardView, Board sudokuData, boolean gameOver) {
         this.context = context;
+        this.boardView = boardView;
         this.sudokuData = sudokuData;
         this.gameOver = gameOver;
+        conflictTracker = new ConflictTracker(sudokuData.geometry());
+        conflictTracker.load(sudokuData);
+        resetHistory();
+        boardView.setModel(this);
+        boardView.setOnCellTapListener(this);
     }
 
-    @NonNull
     @Override
-    public SudokuCellViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View itemView = LayoutInflater.from(parent.getContext()).inflate(R.layout.sudoku_cell, parent, false);
-        return new SudokuCellViewHolder(itemView);
+    public Geometry geometry() {
+        return sudokuData.geometry();
     }
 
     @Override
-    public void onBindViewHolder(@NonNull SudokuCellViewHolder holder, int position) {
-        int row = position / 9;
-        int col = position % 9;
-        int value = sudokuData[row][col].getValue();
+    public int valueAt(int cell) {
+        return sudokuData.get(cell);
+    }
 
-        if (value != 0) {
-            holder.tvSudokuNumber.setText(String.valueOf(value));
-        }
-        else {
-            holder.tvSudokuNumber.setText("x");
+    @Override
+    public boolean isGiven(int cell) {
+        return sudokuData.isGiven(cell);
+    }
+
+    @Override
+    public boolean isConflicting(int cell) {
+        return conflictTracker.isConflicting(cell);
+    }
+
+    @Override
+    public void onCellTapped(int cell) {
+        if (gameOver || sudokuData.get(cell) != 0) {
+            return;
         }
-        if (!gameOver) {
-            holder.tvSudokuNumber.setOnClickListener(view -> {
-                if (value == 0) {
-                    List<Integer> validNumbers = getValidNumbers(row, col);
-                    if (!validNumbers.isEmpty()) {
-                        showNumberInputDialog(row, col);
-                    } else {
-                        // No valid numbers for this cell, show an error or toast message
-                        Toast.makeText(view.getContext(), "No valid numbers for this cell", Toast.LENGTH_SHORT).show();
-                    }
-                }
-            });
+        if (conflictTracker.validDigits(cell) != 0) {
+            int size = sudokuData.geometry().size;
+            showNumberInputDialog(cell / size, cell % size);
+        } else {
+            // No valid numbers for this cell, show an error or toast message
+            Toast.makeText(context, "No valid numbers for this cell", Toast.LENGTH_SHORT).show();
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return sudokuData.length * sudokuData[0].length;
+    public void setEditListener(EditListener editListener) {
+        this.editListener = editListener;
     }
 
     public void setGameOver(boolean gameOver) {
         this.gameOver = gameOver;
     }
-    public void updateSudokuData(SudokuCell[][] newData) {
+    public void updateSudokuData(Board newData) {
         this.sudokuData = newData;
-        notifyDataSetChanged();
+        if (conflictTracker.geometry() != newData.geometry()) {
+            conflictTracker = new ConflictTracker(newData.geometry());
+        }
+        conflictTracker.load(newData);
+        resetHistory();
+        boardView.invalidate();
     }
 
-    public SudokuCell[][] getSudokuData() {
+    public Board getSudokuData() {
         return sudokuData;
     }
-    private List<Integer> getValidNumbers(int row, int col) {
-        List<Integer> validNumbers = new ArrayList<>();
-        for (int num = 1; num <= 9; num++){
-            if (isValidPlacement(row, col, num)) {
-                validNumbers.add(num);
+    /**
+     * Example Call:
+     * sudokuAdapter.setValue(row, col, value);
+     *
+     * Parameters:
+     * @param row (int): The row index of the cell to change.
+     * @param col (int): The column index of the cell to change.
+     * @param value (int): The new value of the cell, 0 to clear it.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Updates the cell and the per-unit digit counts, and redraws the board if the value changed.
+     */
+    public void setValue(int row, int col, int value) {
+        int cell = row * sudokuData.geometry().size + col;
+        if (apply(cell, value)) {
+            history.record(cell, value);
+            boardView.invalidate();
+            if (editListener != null) {
+                changedCells[0] = cell;
+                changedValues[0] = value;
+                editListener.onCellsEdited(changedCells, changedValues, 1);
             }
         }
-        return validNumbers;
     }
-    private boolean isValidPlacement(int row, int col, int num) {
-        for (int i = 0; i < 9; i++) {
-            if (sudokuData[row][i].getValue() == num || sudokuData[i][col].getValue() == num) {
-                return false;
-            }
+    /**
+     * Example Call:
+     * sudokuAdapter.setValues(cells, values, count);
+     *
+     * Parameters:
+     * @param cells (int[]): The cells to change.
+     * @param values (int[]): The new value of each cell, 0 to clear it.
+     * @param count (int): How many entries of 'cells' and 'values' to apply.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Applies a batch of changes, such as one frame of a replayed solve, with a single redraw.
+     */
+    public void setValues(int[] cells, int[] values, int count) {
+        boolean changed = false;
+        for (int i = 0; i < count; i++) {
+            changed |= apply(cells[i], values[i]);
         }
+        if (changed) {
+            boardView.invalidate();
+        }
+    }
 
-        int subGridRow = (row / 3) * 3;
-        int subGridCol = (col / 3) * 3;
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if(sudokuData[subGridRow + i][subGridCol + j].getValue() == num) {
-                    return false;
-                }
-            }
+    /**
+     * Records every change since the last recorded edit, such as a finished solve applied with setValues(), as one
+     * step that a single undo() takes back.
+     */
+    public void recordChanges() {
+        history.recordChanges(sudokuData.toValues());
+    }
+
+    public boolean canUndo() {
+        return history.canUndo();
+    }
+
+    public boolean canRedo() {
+        return history.canRedo();
+    }
+
+    /**
+     * Example Call:
+     * boolean undone = sudokuAdapter.undo();
+     *
+     * Returns:
+     * @return boolean - True if a step was undone and the board redrawn, false if there was nothing to undo.
+     */
+    public boolean undo() {
+        return applyHistory(history.undo(changedCells, changedValues));
+    }
+
+    /**
+     * Example Call:
+     * boolean redone = sudokuAdapter.redo();
+     *
+     * Returns:
+     * @return boolean - True if a step was redone and the board redrawn, false if there was nothing to redo.
+     */
+    public boolean redo() {
+        return applyHistory(history.redo(changedCells, changedValues));
+    }
+
+    private boolean applyHistory(int count) {
+        setValues(changedCells, changedValues, count);
+        if (count > 0 && editListener != null) {
+            editListener.onCellsEdited(changedCells, changedValues, count);
         }
+        return count > 0;
+    }
 
+    // Starts an empty history from the current board, keeping the buffers if the geometry is unchanged
+    private void resetHistory() {
+        Geometry geometry = sudokuData.geometry();
+        if (history == null || history.geometry() != geometry) {
+            history = new MoveHistory(geometry);
+            changedCells = new int[geometry.cells];
+            changedValues = new int[geometry.cells];
+        }
+        history.reset(sudokuData.toValues());
+    }
+
+    // Returns true if the cell's value changed
+    private boolean apply(int cell, int value) {
+        int previous = conflictTracker.setValue(cell, value);
+        if (previous == value) {
+            return false;
+        }
+        sudokuData.set(cell, value);
         return true;
     }
     /**
@@ -118,9 +241,12 @@ public class SudokuAdapter extends RecyclerView.Adapter<SudokuCellViewHolder> {
      *
      * Description:
      * Displays an alert dialog with an input field for the user.
+     * Numbers that already appear in the cell's row, column or box are rejected.
      *
      */
     private void showNumberInputDialog(int row, int col) {
+        int size = sudokuData.geometry().size;
+        int cell = row * size + col;
         AlertDialog.Builder builder = new AlertDialog.Builder(context);
         builder.setTitle("Enter a number");
 
@@ -134,12 +260,17 @@ public class SudokuAdapter extends RecyclerView.Adapter<SudokuCellViewHolder> {
             if(!userInput.isEmpty())
             {
                 int value = Integer.parseInt(userInput);
-                if (value >= 1 && value <= 9) {
-                    sudokuData[row][col].setValue(value);
-                    notifyDataSetChanged(); // Reloads the RecycleView
+                if (value >= 1 && value <= size) {
+                    if (conflictTracker.canPlace(cell, value)) {
+                        setValue(row, col, value);
+                    }
+                    else {
+                        Toast.makeText(context, value + " is already in this row, column or box.", Toast.LENGTH_SHORT).show();
+                    }
                 }
                 else {
-                    Toast.makeText(context, "Invalid number! Please enter a number from 1-9.", Toast.LENGTH_SHORT).show();
+                    Toast.makeText(context, "Invalid number! Please enter a number from 1-" + size + ".",
+                            Toast.LENGTH_SHORT).show();
                 }
             }
             else {
@@ -148,7 +279,9 @@ public class SudokuAdapter extends RecyclerView.Adapter<SudokuCellViewHolder> {
         });
 
         builder.setNegativeButton("Cancel", (dialog, which) -> dialog.cancel());
+        builder.setOnDismissListener(dialog -> boardView.setSelectedCell(-1));
 
+        boardView.setSelectedCell(cell);
         builder.show();
     }
 }
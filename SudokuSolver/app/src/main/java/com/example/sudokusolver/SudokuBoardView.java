@@ -0,0 +1,227 @@
+package com.example.sudokusolver;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.example.sudokusolver.solver.Geometry;
+
+/**
+ * Class: SudokuBoardView
+ * Extends: View
+ *
+ * Description:
+ * Draws the whole board on one Canvas: the selected-cell highlight, the digits and the grid lines, with thick
+ * lines around the boxes. Paints, digit glyphs and the text baseline are prepared once per size change, so a redraw
+ * allocates nothing and a solving animation costs one draw per frame however many cells changed.
+ * The board size comes from the model's Geometry, from 4x4 up to 25x25; values above 9 are drawn as numbers in a
+ * smaller text size, and the layout is redone whenever the view or the model's geometry changes size.
+ * Taps are mapped to a cell by dividing the touch position by the cell size.
+ * The view only renders; the cell contents come from a Model and taps go to an OnCellTapListener.
+ */
+public class SudokuBoardView extends View {
+    /**
+     * Interface: Model
+     *
+     * Description:
+     * What the view needs to know about each cell in order to draw it.
+     */
+    public interface Model {
+        Geometry geometry();
+
+        int valueAt(int cell);
+
+        boolean isGiven(int cell);
+
+        boolean isConflicting(int cell);
+    }
+
+    /**
+     * Interface: OnCellTapListener
+     *
+     * Description:
+     * Receives the index (row * size + col) of the cell the user tapped.
+     */
+    public interface OnCellTapListener {
+        void onCellTapped(int cell);
+    }
+
+    private static final String[] LABELS = new String[Geometry.of(Geometry.MAX_BOX_SIZE).size];
+    private static final float THIN_LINE_DP = 1f;
+    private static final float THICK_LINE_DP = 3f;
+    private static final float TEXT_TO_CELL = 0.6f;
+    // Two-digit values need narrower text to fit their cell
+    private static final float WIDE_TEXT_TO_CELL = 0.45f;
+
+    static {
+        for (int value = 1; value <= LABELS.length; value++) {
+            LABELS[value - 1] = Integer.toString(value);
+        }
+    }
+
+    private final Paint givenPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint enteredPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint conflictPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint thinLinePaint = new Paint();
+    private final Paint thickLinePaint = new Paint();
+    private final Paint highlightPaint = new Paint();
+
+    private Model model;
+    private OnCellTapListener tapListener;
+    private int selectedCell = -1;
+
+    // Layout, recomputed in onSizeChanged and whenever the model's geometry changes
+    private Geometry geometry = Geometry.CLASSIC;
+    private float boardLeft;
+    private float boardTop;
+    private float cellSize;
+    private float textBaseline;
+
+    public SudokuBoardView(Context context) {
+        this(context, null);
+    }
+
+    public SudokuBoardView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        for (Paint paint : new Paint[] {givenPaint, enteredPaint, conflictPaint}) {
+            paint.setTextAlign(Paint.Align.CENTER);
+        }
+        givenPaint.setColor(ContextCompat.getColor(context, R.color.given));
+        givenPaint.setFakeBoldText(true);
+        enteredPaint.setColor(ContextCompat.getColor(context, R.color.entered));
+        conflictPaint.setColor(ContextCompat.getColor(context, R.color.conflict));
+        thinLinePaint.setColor(ContextCompat.getColor(context, R.color.grid_line));
+        thinLinePaint.setStrokeWidth(THIN_LINE_DP * density);
+        thickLinePaint.setColor(ContextCompat.getColor(context, R.color.grid_line));
+        thickLinePaint.setStrokeWidth(THICK_LINE_DP * density);
+        highlightPaint.setColor(ContextCompat.getColor(context, R.color.highlight));
+    }
+
+    public void setModel(Model model) {
+        this.model = model;
+        invalidate();
+    }
+
+    public void setOnCellTapListener(OnCellTapListener listener) {
+        this.tapListener = listener;
+    }
+
+    /**
+     * Highlights 'cell', or nothing if 'cell' is -1.
+     */
+    public void setSelectedCell(int cell) {
+        if (cell != selectedCell) {
+            selectedCell = cell;
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec);
+        int height = getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec);
+        int side = Math.min(width, height);
+        setMeasuredDimension(side, side);
+    }
+
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        layoutCells(width, height);
+    }
+
+    private void layoutCells(int width, int height) {
+        float inset = thickLinePaint.getStrokeWidth() / 2;
+        float side = Math.min(width, height) - 2 * inset;
+        cellSize = side / geometry.size;
+        boardLeft = (width - side) / 2;
+        boardTop = (height - side) / 2;
+
+        float textSize = cellSize * (geometry.size > 9 ? WIDE_TEXT_TO_CELL : TEXT_TO_CELL);
+        givenPaint.setTextSize(textSize);
+        enteredPaint.setTextSize(textSize);
+        conflictPaint.setTextSize(textSize);
+        Paint.FontMetrics metrics = givenPaint.getFontMetrics();
+        // Offset from a cell's top edge to the baseline that centres the digits vertically
+        textBaseline = (cellSize - metrics.ascent - metrics.descent) / 2;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (model != null && model.geometry() != geometry) {
+            geometry = model.geometry();
+            layoutCells(getWidth(), getHeight());
+        }
+        if (selectedCell >= 0) {
+            float left = boardLeft + geometry.colOf(selectedCell) * cellSize;
+            float top = boardTop + geometry.rowOf(selectedCell) * cellSize;
+            canvas.drawRect(left, top, left + cellSize, top + cellSize, highlightPaint);
+        }
+
+        if (model != null) {
+            for (int cell = 0; cell < geometry.cells; cell++) {
+                int value = model.valueAt(cell);
+                if (value == 0) {
+                    continue;
+                }
+                Paint paint = model.isConflicting(cell) ? conflictPaint
+                        : model.isGiven(cell) ? givenPaint : enteredPaint;
+                float x = boardLeft + (geometry.colOf(cell) + 0.5f) * cellSize;
+                float y = boardTop + geometry.rowOf(cell) * cellSize + textBaseline;
+                canvas.drawText(LABELS[value - 1], x, y, paint);
+            }
+        }
+
+        float right = boardLeft + geometry.size * cellSize;
+        float bottom = boardTop + geometry.size * cellSize;
+        for (int line = 0; line <= geometry.size; line++) {
+            Paint paint = line % geometry.boxSize == 0 ? thickLinePaint : thinLinePaint;
+            float x = boardLeft + line * cellSize;
+            float y = boardTop + line * cellSize;
+            canvas.drawLine(x, boardTop, x, bottom, paint);
+            canvas.drawLine(boardLeft, y, right, y, paint);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!isEnabled() || tapListener == null) {
+            return false;
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                return true;
+            case MotionEvent.ACTION_UP:
+                int cell = cellAt(event.getX(), event.getY());
+                if (cell >= 0) {
+                    performClick();
+                    tapListener.onCellTapped(cell);
+                }
+                return true;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    // Returns the cell under (x, y), or -1 outside the board
+    private int cellAt(float x, float y) {
+        int col = (int) Math.floor((x - boardLeft) / cellSize);
+        int row = (int) Math.floor((y - boardTop) / cellSize);
+        if (row < 0 || row >= geometry.size || col < 0 || col >= geometry.size) {
+            return -1;
+        }
+        return row * geometry.size + col;
+    }
+}
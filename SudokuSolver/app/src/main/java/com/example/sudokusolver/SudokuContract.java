@@ -0,0 +1,39 @@
+package com.example.sudokusolver;
+
+import android.provider.BaseColumns;
+
+/**
+ * Class: SudokuContract
+ *
+ * Description:
+ * A contract class that defines the database schema for the Sudoku app.
+ * BoardEntry is the current schema: one row per save slot, holding the whole board as a Board.snapshot() blob
+ * together with the game's play time. PoolEntry holds generated puzzles that are ready to be dealt.
+ * SudokuEntry is the version 1 schema (one row per cell, appended on every save) and is only read when migrating.
+ */
+class SudokuContract {
+    // Slot 0 holds the board the app starts with; the user's saves go to slots 1 to SAVE_SLOTS
+    public static final int WORKING_SLOT = 0;
+    public static final int SAVE_SLOTS = 3;
+
+    public static class BoardEntry implements BaseColumns {
+        public static final String TABLE_NAME = "boards";
+        public static final String COLUMN_SLOT = "slot";
+        public static final String COLUMN_BOARD = "board";
+        public static final String COLUMN_ELAPSED_MS = "elapsed_ms";
+        public static final String COLUMN_UPDATED_AT = "updated_at";
+    }
+
+    public static class PoolEntry implements BaseColumns {
+        public static final String TABLE_NAME = "puzzle_pool";
+        public static final String COLUMN_DIFFICULTY = "difficulty";
+        public static final String COLUMN_PUZZLE = "puzzle";
+    }
+
+    public static class SudokuEntry implements BaseColumns {
+        public static final String TABLE_NAME = "sudokuboard";
+        public static final String COLUMN_ROW = "rows";
+        public static final String COLUMN_COL = "columns";
+        public static final String COLUMN_VALUE = "value";
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.sudokusolver;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+import com.example.sudokusolver.solver.Board;
+import com.example.sudokusolver.solver.Difficulty;
+import com.example.sudokusolver.solver.SudokuRules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class: SudokuDatabaseMngr
+ * Extends: SQLiteOpenHelper
+ *
+ * Description:
+ * A custom class that manages the SQLite database for the Sudoku app.
+ * It extends the SQLiteOpenHelper class and handles database creation and version management.
+ * Every saved board is a single row keyed by its slot, so saving and loading cost the same no matter how often
+ * the user has saved before.
+ */
+class SudokuDatabaseMngr extends SQLiteOpenHelper {
+    private static final String TAG = "SudokuDatabaseMngr";
+    private static final String DATABASE_NAME = "SudokuSolverVDTS.db";
+    private static final int DATABASE_VERSION = 4;
+
+    private static final String SQL_CREATE_BOARDS =
+            "CREATE TABLE " + SudokuContract.BoardEntry.TABLE_NAME + " (" +
+                    SudokuContract.BoardEntry.COLUMN_SLOT + " INTEGER PRIMARY KEY," +
+                    SudokuContract.BoardEntry.COLUMN_BOARD + " BLOB NOT NULL," +
+                    SudokuContract.BoardEntry.COLUMN_ELAPSED_MS + " INTEGER NOT NULL DEFAULT 0," +
+                    SudokuContract.BoardEntry.COLUMN_UPDATED_AT + " INTEGER NOT NULL)";
+
+    private static final String SQL_CREATE_POOL =
+            "CREATE TABLE " + SudokuContract.PoolEntry.TABLE_NAME + " (" +
+                    SudokuContract.PoolEntry._ID + " INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    SudokuContract.PoolEntry.COLUMN_DIFFICULTY + " TEXT NOT NULL," +
+                    SudokuContract.PoolEntry.COLUMN_PUZZLE + " BLOB NOT NULL)";
+
+    public SudokuDatabaseMngr(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL(SQL_CREATE_BOARDS);
+        db.execSQL(SQL_CREATE_POOL);
+    }
+
+    /**
+     * Description:
+     * Version 1 kept one row per cell and appended 81 rows on every save, so the newest row of each cell is the
+     * board that was last saved. That board is carried over into the working slot before the old table is dropped.
+     * Version 2 boards gain the play time column, starting from zero. Version 4 adds the puzzle pool.
+     * SQLiteOpenHelper runs this inside a transaction, so a failed migration leaves the old version untouched.
+     */
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            db.execSQL(SQL_CREATE_BOARDS);
+            Board board = readLegacyBoard(db);
+            if (board != null) {
+                upsert(db, SudokuContract.WORKING_SLOT, new SavedBoard(board, 0));
+            }
+            db.execSQL("DROP TABLE IF EXISTS " + SudokuContract.SudokuEntry.TABLE_NAME);
+        } else if (oldVersion < 3) {
+            db.execSQL("ALTER TABLE " + SudokuContract.BoardEntry.TABLE_NAME + " ADD COLUMN " +
+                    SudokuContract.BoardEntry.COLUMN_ELAPSED_MS + " INTEGER NOT NULL DEFAULT 0");
+        }
+        if (oldVersion < 4) {
+            db.execSQL(SQL_CREATE_POOL);
+        }
+    }
+
+    /**
+     * Example Call:
+     * dbManager.saveBoard(SudokuContract.WORKING_SLOT, new SavedBoard(board, 0));
+     *
+     * Parameters:
+     * @param slot (int): The save slot to write, replacing whatever it held.
+     * @param saved (SavedBoard): The board and play time to store.
+     *
+     * Returns:
+     * @return void
+     */
+    public void saveBoard(int slot, SavedBoard saved) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            upsert(db, slot, saved);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Example Call:
+     * SavedBoard saved = dbManager.loadBoard(slot);
+     *
+     * Parameters:
+     * @param slot (int): The save slot to read.
+     *
+     * Returns:
+     * @return SavedBoard - The board stored in 'slot', or null if the slot is empty or its data is unreadable.
+     */
+    public SavedBoard loadBoard(int slot) {
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor cursor = db.query(SudokuContract.BoardEntry.TABLE_NAME,
+                new String[]{SudokuContract.BoardEntry.COLUMN_BOARD, SudokuContract.BoardEntry.COLUMN_ELAPSED_MS},
+                SudokuContract.BoardEntry.COLUMN_SLOT + " = ?", new String[]{String.valueOf(slot)},
+                null, null, null);
+        try {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            return new SavedBoard(Board.restore(cursor.getBlob(0)), cursor.getLong(1));
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Discarding unreadable board in slot " + slot, e);
+            return null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Example Call:
+     * List<Integer> slots = dbManager.savedSlots();
+     *
+     * Returns:
+     * @return List<Integer> - The slots that currently hold a board, in ascending order.
+     */
+    public List<Integer> savedSlots() {
+        SQLiteDatabase db = getReadableDatabase();
+        Cursor cursor = db.query(SudokuContract.BoardEntry.TABLE_NAME,
+                new String[]{SudokuContract.BoardEntry.COLUMN_SLOT},
+                null, null, null, null, SudokuContract.BoardEntry.COLUMN_SLOT);
+        List<Integer> slots = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                slots.add(cursor.getInt(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        return slots;
+    }
+
+    /**
+     * Example Call:
+     * long id = dbManager.addPoolPuzzle(Difficulty.HARD, puzzle);
+     *
+     * Parameters:
+     * @param difficulty (Difficulty): The grade of the puzzle.
+     * @param puzzle (int[]): The puzzle, 81 cells in row-major order.
+     *
+     * Returns:
+     * @return long - The row id of the stored puzzle, or -1 if it could not be stored.
+     */
+    public long addPoolPuzzle(Difficulty difficulty, int[] puzzle) {
+        ContentValues cv = new ContentValues();
+        cv.put(SudokuContract.PoolEntry.COLUMN_DIFFICULTY, difficulty.name());
+        cv.put(SudokuContract.PoolEntry.COLUMN_PUZZLE, Board.fromValues(puzzle).snapshot());
+        return getWritableDatabase().insert(SudokuContract.PoolEntry.TABLE_NAME, null, cv);
+    }
+
+    public void deletePoolPuzzle(long id) {
+        getWritableDatabase().delete(SudokuContract.PoolEntry.TABLE_NAME,
+                SudokuContract.PoolEntry._ID + " = ?", new String[]{String.valueOf(id)});
+    }
+
+    /**
+     * Example Call:
+     * List<PuzzlePool.Entry> pooled = dbManager.loadPool();
+     *
+     * Returns:
+     * @return List<PuzzlePool.Entry> - Every stored puzzle, oldest first. Unreadable rows are deleted and skipped.
+     */
+    public List<PuzzlePool.Entry> loadPool() {
+        SQLiteDatabase db = getWritableDatabase();
+        Cursor cursor = db.query(SudokuContract.PoolEntry.TABLE_NAME,
+                new String[]{SudokuContract.PoolEntry._ID, SudokuContract.PoolEntry.COLUMN_DIFFICULTY,
+                        SudokuContract.PoolEntry.COLUMN_PUZZLE},
+                null, null, null, null, SudokuContract.PoolEntry._ID);
+        List<PuzzlePool.Entry> entries = new ArrayList<>();
+        List<Long> unreadable = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                long id = cursor.getLong(0);
+                try {
+                    Difficulty difficulty = Difficulty.valueOf(cursor.getString(1));
+                    int[] puzzle = Board.restore(cursor.getBlob(2)).toValues();
+                    entries.add(new PuzzlePool.Entry(id, difficulty, puzzle));
+                } catch (IllegalArgumentException e) {
+                    unreadable.add(id);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        for (long id : unreadable) {
+            Log.w(TAG, "Discarding unreadable pooled puzzle " + id);
+            deletePoolPuzzle(id);
+        }
+        return entries;
+    }
+
+    private static void upsert(SQLiteDatabase db, int slot, SavedBoard saved) {
+        ContentValues cv = new ContentValues();
+        cv.put(SudokuContract.BoardEntry.COLUMN_SLOT, slot);
+        cv.put(SudokuContract.BoardEntry.COLUMN_BOARD, saved.board.snapshot());
+        cv.put(SudokuContract.BoardEntry.COLUMN_ELAPSED_MS, saved.elapsedMillis);
+        cv.put(SudokuContract.BoardEntry.COLUMN_UPDATED_AT, System.currentTimeMillis());
+        db.insertWithOnConflict(SudokuContract.BoardEntry.TABLE_NAME, null, cv, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    // Returns the last board saved under version 1, or null if nothing was ever saved
+    private static Board readLegacyBoard(SQLiteDatabase db) {
+        Cursor cursor = db.query(SudokuContract.SudokuEntry.TABLE_NAME,
+                new String[]{SudokuContract.SudokuEntry.COLUMN_ROW, SudokuContract.SudokuEntry.COLUMN_COL,
+                        SudokuContract.SudokuEntry.COLUMN_VALUE},
+                null, null, null, null, "rowid");
+        int[] values = new int[SudokuRules.CELLS];
+        boolean found = false;
+        try {
+            while (cursor.moveToNext()) {
+                int row = cursor.getInt(0);
+                int col = cursor.getInt(1);
+                int value = cursor.getInt(2);
+                if (row >= 0 && row < SudokuRules.SIZE && col >= 0 && col < SudokuRules.SIZE
+                        && value >= 0 && value <= SudokuRules.SIZE) {
+                    values[row * SudokuRules.SIZE + col] = value;
+                    found = true;
+                } else {
+                    Log.i(TAG, "Skipping invalid legacy cell: " + row + ", " + col);
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+        return found ? Board.fromValues(values) : null;
+    }
+}
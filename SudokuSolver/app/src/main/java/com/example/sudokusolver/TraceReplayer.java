@@ -0,0 +1,154 @@
+package com.example.sudokusolver;
+
+import android.view.Choreographer;
+
+import com.example.sudokusolver.solver.SudokuRules;
+import com.example.sudokusolver.solver.TracePlayer;
+
+/**
+ * Class: TraceReplayer
+ *
+ * Description:
+ * Animates a recorded solve at a chosen number of steps per second, independent of how fast the solve ran.
+ * On every frame the player is moved to where the clock says it should be, and all cells that changed since the
+ * previous frame are delivered in one call, so a fast replay costs one board update per frame, not one per step.
+ * seek() jumps anywhere in the trace, backwards included, and playback continues from there.
+ * All methods must be called from the main thread, and every callback is delivered on the main thread.
+ */
+public class TraceReplayer implements Choreographer.FrameCallback {
+    /**
+     * Interface: Listener
+     *
+     * Description:
+     * Receives the replayed changes on the main thread.
+     */
+    public interface Listener {
+        /**
+         * Called at most once per frame. 'cells' holds 'count' cell indexes and 'values' their current values.
+         */
+        void onCellsChanged(int[] cells, int[] values, int count);
+
+        /**
+         * Called once when the replay reaches the end of the trace.
+         */
+        void onReplayFinished();
+    }
+
+    private final Choreographer choreographer = Choreographer.getInstance();
+    // One entry per board cell, grown when a trace of a larger board is played
+    private int[] changedCells = new int[SudokuRules.CELLS];
+    private int[] changedValues = new int[SudokuRules.CELLS];
+    private TracePlayer player;
+    private Listener listener;
+    private int stepsPerSecond;
+    // Playback position is anchorStep plus the steps due since anchorTimeNanos; -1 until the next frame sets it
+    private int anchorStep;
+    private long anchorTimeNanos = -1;
+
+    /**
+     * Example Call:
+     * replayer.play(new TracePlayer(trace), 60, listener);
+     *
+     * Parameters:
+     * @param player (TracePlayer): The trace to replay, from the player's current position.
+     * @param stepsPerSecond (int): The replay speed.
+     * @param listener (Listener): Receives the changes.
+     *
+     * Returns:
+     * @return void
+     *
+     * Description:
+     * Stops any replay in progress and starts this one on the next frame.
+     */
+    public void play(TracePlayer player, int stepsPerSecond, Listener listener) {
+        stop();
+        if (changedCells.length < player.cellCount()) {
+            changedCells = new int[player.cellCount()];
+            changedValues = new int[player.cellCount()];
+        }
+        this.player = player;
+        this.listener = listener;
+        setStepsPerSecond(stepsPerSecond);
+        choreographer.postFrameCallback(this);
+    }
+
+    public boolean isPlaying() {
+        return player != null;
+    }
+
+    /**
+     * Changes the replay speed from the current position on.
+     */
+    public void setStepsPerSecond(int stepsPerSecond) {
+        if (stepsPerSecond <= 0) {
+            throw new IllegalArgumentException("Replay speed must be positive but was " + stepsPerSecond);
+        }
+        this.stepsPerSecond = stepsPerSecond;
+        reanchor();
+    }
+
+    /**
+     * Example Call:
+     * replayer.seek(player.length());
+     *
+     * Parameters:
+     * @param step (int): The trace position to jump to.
+     *
+     * Description:
+     * Moves the replay to 'step' and delivers the resulting changes at once. Seeking to the end finishes the replay.
+     */
+    public void seek(int step) {
+        if (player == null) {
+            return;
+        }
+        player.seek(step);
+        reanchor();
+        deliverChanges();
+    }
+
+    /**
+     * Stops the replay where it is. No further callbacks are delivered.
+     */
+    public void stop() {
+        choreographer.removeFrameCallback(this);
+        player = null;
+        listener = null;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (player == null) {
+            return;
+        }
+        if (anchorTimeNanos < 0) {
+            anchorTimeNanos = frameTimeNanos;
+        }
+        long due = (frameTimeNanos - anchorTimeNanos) * stepsPerSecond / 1_000_000_000L;
+        player.seek((int) Math.min(anchorStep + due, player.length()));
+        deliverChanges();
+        if (player != null) {
+            choreographer.postFrameCallback(this);
+        }
+    }
+
+    private void reanchor() {
+        if (player != null) {
+            anchorStep = player.position();
+            anchorTimeNanos = -1;
+        }
+    }
+
+    private void deliverChanges() {
+        int count = player.drainChanges(changedCells, changedValues);
+        Listener current = listener;
+        if (count > 0) {
+            current.onCellsChanged(changedCells, changedValues, count);
+        }
+        if (player != null && player.isAtEnd()) {
+            choreographer.removeFrameCallback(this);
+            player = null;
+            listener = null;
+            current.onReplayFinished();
+        }
+    }
+}
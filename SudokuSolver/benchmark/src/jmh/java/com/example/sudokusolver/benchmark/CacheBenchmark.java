@@ -0,0 +1,67 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.CachingSolver;
+import com.example.sudokusolver.solver.SolutionCache;
+import com.example.sudokusolver.solver.SolverType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Class: CacheBenchmark
+ *
+ * Description:
+ * Measures solves that CachingSolver answers from its cache. The cache is filled with the corpus first, then every
+ * invocation solves an equivalent copy of the next puzzle (rotated a quarter turn, digits relabeled), so the score
+ * is the cost of canonicalizing the board and mapping the cached solution back.
+ * Compare with SolveBenchmark for the same corpus to see what a hit saves.
+ */
+@State(Scope.Thread)
+public class CacheBenchmark {
+    @Param({"EASY", "HARD", "SEVENTEEN"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    private CachingSolver solver;
+    private int[][] puzzles;
+    private final int[] board = new int[81];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        solver = new CachingSolver(SolverType.PROPAGATION.create(), new SolutionCache(1 << 20));
+        List<int[]> loaded = corpus.load(seed);
+        puzzles = new int[loaded.size()][];
+        for (int i = 0; i < puzzles.length; i++) {
+            int[] puzzle = loaded.get(i);
+            solver.solve(puzzle.clone());
+            puzzles[i] = equivalent(puzzle);
+        }
+    }
+
+    private static int[] equivalent(int[] puzzle) {
+        int[] copy = new int[81];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int value = puzzle[col * 9 + (8 - row)];
+                copy[row * 9 + col] = value == 0 ? 0 : value % 9 + 1;
+            }
+        }
+        return copy;
+    }
+
+    @Benchmark
+    public boolean hit() {
+        int[] puzzle = puzzles[next];
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        System.arraycopy(puzzle, 0, board, 0, board.length);
+        return solver.solve(board);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.SudokuRules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class: CellSelectionBenchmark
+ *
+ * Description:
+ * Measures picking the next cell to fill on one board.
+ *   1. legacyChooseSpot: The old MainActivity.chooseSpot, collecting the empty cells into a new list and picking
+ *      one at random (seeded here).
+ *   2. minimumRemainingValues: The BitmaskSolver selection, scanning the empty-cell list for the cell with the
+ *      fewest candidates using the row, column and box masks.
+ * Each invocation selects on the next board of the corpus.
+ */
+@State(Scope.Thread)
+public class CellSelectionBenchmark {
+    @Param({"EASY", "HARD", "SEVENTEEN"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    private LegacyBoard[] legacyBoards;
+    private int[][] empties;
+    private int[][] rowMasks;
+    private int[][] colMasks;
+    private int[][] boxMasks;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<int[]> puzzles = corpus.load(seed);
+        legacyBoards = new LegacyBoard[puzzles.size()];
+        empties = new int[puzzles.size()][];
+        rowMasks = new int[puzzles.size()][SudokuRules.SIZE];
+        colMasks = new int[puzzles.size()][SudokuRules.SIZE];
+        boxMasks = new int[puzzles.size()][SudokuRules.SIZE];
+        for (int i = 0; i < puzzles.size(); i++) {
+            int[] grid = puzzles.get(i);
+            legacyBoards[i] = new LegacyBoard(grid, seed);
+            int emptyCount = 0;
+            int[] emptyCells = new int[SudokuRules.CELLS];
+            for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+                if (grid[cell] == 0) {
+                    emptyCells[emptyCount++] = cell;
+                } else {
+                    int bit = SudokuRules.bitOf(grid[cell]);
+                    rowMasks[i][SudokuRules.rowOf(cell)] |= bit;
+                    colMasks[i][SudokuRules.colOf(cell)] |= bit;
+                    boxMasks[i][SudokuRules.boxOf(cell)] |= bit;
+                }
+            }
+            empties[i] = Arrays.copyOf(emptyCells, emptyCount);
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == legacyBoards.length ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Object legacyChooseSpot() {
+        return legacyBoards[nextIndex()].chooseSpot();
+    }
+
+    @Benchmark
+    public int minimumRemainingValues() {
+        int index = nextIndex();
+        int[] cells = empties[index];
+        int[] rows = rowMasks[index];
+        int[] cols = colMasks[index];
+        int[] boxes = boxMasks[index];
+        int best = -1;
+        int bestCount = SudokuRules.SIZE + 1;
+        for (int cell : cells) {
+            int used = rows[SudokuRules.rowOf(cell)] | cols[SudokuRules.colOf(cell)] | boxes[SudokuRules.boxOf(cell)];
+            int count = Integer.bitCount(~used & SudokuRules.ALL_DIGITS);
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+                if (count <= 1) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.Geometry;
+import com.example.sudokusolver.solver.PuzzleText;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Enum: Corpus
+ *
+ * Description:
+ * The puzzle sets bundled with the benchmarks, loaded from src/jmh/resources/corpus.
+ *   1. EASY: Newspaper-grade puzzles with 24-36 clues.
+ *   2. HARD: Well-known hard puzzles that force deep backtracking.
+ *   3. SEVENTEEN: Minimal 17-clue puzzles.
+ *   4. SIXTEEN: 16x16 puzzles made by PuzzleGenerator at EXPERT, about 90 clues each.
+ *   5. TWENTY_FIVE: 25x25 puzzles made by PuzzleGenerator at MEDIUM, about 260 clues each.
+ */
+public enum Corpus {
+    EASY("easy.txt", Geometry.CLASSIC),
+    HARD("hard.txt", Geometry.CLASSIC),
+    SEVENTEEN("seventeen.txt", Geometry.CLASSIC),
+    SIXTEEN("sixteen.txt", Geometry.of(4)),
+    TWENTY_FIVE("twentyfive.txt", Geometry.of(5));
+
+    public final Geometry geometry;
+    private final String resource;
+
+    Corpus(String resource, Geometry geometry) {
+        this.resource = resource;
+        this.geometry = geometry;
+    }
+
+    /**
+     * Example Call:
+     * List<int[]> puzzles = Corpus.HARD.load(seed);
+     *
+     * Parameters:
+     * @param seed (long): Seed for the order the puzzles are returned in, so runs are reproducible.
+     *
+     * Returns:
+     * @return List<int[]> - The puzzles as grids of 'geometry', shuffled with 'seed'.
+     */
+    public List<int[]> load(long seed) {
+        List<int[]> puzzles = new ArrayList<>();
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing corpus resource " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    puzzles.add(PuzzleText.parse(line.trim(), geometry));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Collections.shuffle(puzzles, new Random(seed));
+        return puzzles;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.Difficulty;
+import com.example.sudokusolver.solver.PuzzleGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Class: GeneratorBenchmark
+ *
+ * Description:
+ * Measures how long PuzzleGenerator takes to produce one unique-solution puzzle of each difficulty, including the
+ * retries until the grade matches. Puzzles per second is 1,000,000 divided by the score in microseconds.
+ */
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+    @Param({"EASY", "MEDIUM", "HARD", "EXPERT"})
+    public Difficulty difficulty;
+
+    @Param({"42"})
+    public long seed;
+
+    private PuzzleGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new PuzzleGenerator(seed);
+    }
+
+    @Benchmark
+    public int[] generate() {
+        return generator.generate(difficulty);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.SolverType;
+import com.example.sudokusolver.solver.SudokuSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Class: LargeBoardBenchmark
+ *
+ * Description:
+ * Measures full solves of 16x16 and 25x25 puzzles, the same way SolveBenchmark does for 9x9 ones.
+ * BITMASK is left out: without propagation it does not finish the 16x16 corpus in any reasonable time.
+ */
+@State(Scope.Thread)
+public class LargeBoardBenchmark {
+    @Param({"DANCING_LINKS", "PROPAGATION", "SAT"})
+    public SolverType engine;
+
+    @Param({"SIXTEEN", "TWENTY_FIVE"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    private SudokuSolver solver;
+    private int[][] puzzles;
+    private int[] board;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        solver = engine.create(corpus.geometry);
+        List<int[]> loaded = corpus.load(seed);
+        puzzles = loaded.toArray(new int[0][]);
+        board = new int[corpus.geometry.cells];
+    }
+
+    @Benchmark
+    public boolean solve() {
+        int[] puzzle = puzzles[next];
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        System.arraycopy(puzzle, 0, board, 0, board.length);
+        return solver.solve(board);
+    }
+}
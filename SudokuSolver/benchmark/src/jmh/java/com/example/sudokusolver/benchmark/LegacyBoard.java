@@ -0,0 +1,134 @@
+package com.example.sudokusolver.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class: LegacyBoard
+ *
+ * Description:
+ * The solver that used to live in MainActivity, kept as the baseline the engines are measured against. The board
+ * is a 9x9 array of cell objects, isValidPlacement() scans the row, column and box of the cell and chooseSpot()
+ * collects every empty cell into a new list and picks one at random, both copied as they were. solve() is the
+ * recursive backtracking loop that MainActivity kept commented out below solveNextStep(), not the stack-based
+ * solveNextStep() itself: that one never clears a cell and reports success at the first dead end, so it does not
+ * solve the corpus and has nothing to measure. Two things are changed: the Random is seeded so runs are
+ * reproducible, and solve() gives up after a number of placements, because with a random cell order some puzzles
+ * take it minutes.
+ */
+final class LegacyBoard {
+    static final class Cell {
+        final int row;
+        final int col;
+        int value;
+
+        Cell(int row, int col, int value) {
+            this.row = row;
+            this.col = col;
+            this.value = value;
+        }
+    }
+
+    private final Cell[][] sudokuData = new Cell[9][9];
+    private final Random random;
+    private int placementsLeft;
+
+    LegacyBoard(int[] grid, long seed) {
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                sudokuData[row][col] = new Cell(row, col, grid[row * 9 + col]);
+            }
+        }
+        random = new Random(seed);
+    }
+
+    /**
+     * Example Call:
+     * board.reset(puzzle);
+     *
+     * Parameters:
+     * @param grid (int[]): The 81 cells to load in row-major order, 0 for empty cells.
+     */
+    void reset(int[] grid) {
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                sudokuData[row][col].value = grid[row * 9 + col];
+            }
+        }
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = board.solve(1_000_000);
+     *
+     * Parameters:
+     * @param maxPlacements (int): How many digits the search may place before it gives up.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved, false if it has no solution or the cap was reached. The board
+     * is left part filled when the cap is reached; reset() it before the next solve.
+     */
+    boolean solve(int maxPlacements) {
+        placementsLeft = maxPlacements;
+        return solve();
+    }
+
+    private boolean solve() {
+        Cell cellToFill = chooseSpot();
+        if (cellToFill == null) {
+            return true;
+        }
+        for (int num = 1; num <= 9; num++) {
+            if (isValidPlacement(cellToFill.row, cellToFill.col, num)) {
+                if (placementsLeft <= 0) {
+                    return false;
+                }
+                placementsLeft--;
+                cellToFill.value = num;
+                if (solve()) {
+                    return true;
+                }
+                cellToFill.value = 0;
+            }
+        }
+        return false;
+    }
+
+    Cell chooseSpot() {
+        List<Cell> emptyCells = new ArrayList<>();
+
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                if (sudokuData[row][col].value == 0) {
+                    emptyCells.add(sudokuData[row][col]);
+                }
+            }
+        }
+
+        if (!emptyCells.isEmpty()) {
+            return emptyCells.get(random.nextInt(emptyCells.size()));
+        }
+        return null;
+    }
+
+    boolean isValidPlacement(int row, int col, int num) {
+        for (int i = 0; i < 9; i++) {
+            if (sudokuData[row][i].value == num || sudokuData[i][col].value == num) {
+                return false;
+            }
+        }
+
+        int subGridRow = (row / 3) * 3;
+        int subGridCol = (col / 3) * 3;
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if (sudokuData[subGridRow + i][subGridCol + j].value == num) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+}
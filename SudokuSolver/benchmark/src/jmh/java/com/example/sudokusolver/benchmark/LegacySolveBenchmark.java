@@ -0,0 +1,68 @@
+package com.example.sudokusolver.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Class: LegacySolveBenchmark
+ *
+ * Description:
+ * Measures full solves with the old MainActivity backtracking (LegacyBoard.solve), the baseline for SolveBenchmark.
+ * Only the EASY corpus is run: on HARD and SEVENTEEN the random cell order does not finish. Each invocation reloads
+ * the next puzzle and solves it with at most MAX_PLACEMENTS placements, so one unlucky puzzle cannot stall the run.
+ * The solved and capped counters show how many invocations finished and how many hit the cap; a capped solve counts
+ * its time up to the cap, so the score is a lower bound whenever capped is not zero.
+ */
+@State(Scope.Thread)
+public class LegacySolveBenchmark {
+    static final int MAX_PLACEMENTS = 1_000_000;
+
+    @Param({"EASY"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    /**
+     * Class: Outcomes
+     *
+     * Description:
+     * Counts the invocations that solved their puzzle and those that hit MAX_PLACEMENTS, reported next to the score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long solved;
+        public long capped;
+    }
+
+    private LegacyBoard board;
+    private int[][] puzzles;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<int[]> loaded = corpus.load(seed);
+        puzzles = loaded.toArray(new int[0][]);
+        board = new LegacyBoard(puzzles[0], seed);
+    }
+
+    @Benchmark
+    public boolean solve(Outcomes outcomes) {
+        board.reset(puzzles[next]);
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        boolean solved = board.solve(MAX_PLACEMENTS);
+        if (solved) {
+            outcomes.solved++;
+        } else {
+            outcomes.capped++;
+        }
+        return solved;
+    }
+}
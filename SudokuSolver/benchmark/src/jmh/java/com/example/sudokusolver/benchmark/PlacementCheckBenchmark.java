@@ -0,0 +1,105 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.SudokuRules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Class: PlacementCheckBenchmark
+ *
+ * Description:
+ * Measures checking every digit for every cell of one board, which is what a solver does at each search node.
+ *   1. legacyObjectScan: The old MainActivity.isValidPlacement, scanning 27 cell objects per check.
+ *   2. flatGridScan: SudokuRules.isValidPlacement, the same scan over a flat int grid.
+ *   3. bitmaskLookup: One OR of the row, column and box masks per cell, as BitmaskSolver does.
+ * Each invocation checks the next board of the corpus.
+ */
+@State(Scope.Thread)
+public class PlacementCheckBenchmark {
+    @Param({"EASY", "HARD", "SEVENTEEN"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    private LegacyBoard[] legacyBoards;
+    private int[][] grids;
+    private int[][] rowMasks;
+    private int[][] colMasks;
+    private int[][] boxMasks;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<int[]> puzzles = corpus.load(seed);
+        legacyBoards = new LegacyBoard[puzzles.size()];
+        grids = new int[puzzles.size()][];
+        rowMasks = new int[puzzles.size()][SudokuRules.SIZE];
+        colMasks = new int[puzzles.size()][SudokuRules.SIZE];
+        boxMasks = new int[puzzles.size()][SudokuRules.SIZE];
+        for (int i = 0; i < puzzles.size(); i++) {
+            int[] grid = puzzles.get(i);
+            grids[i] = grid;
+            legacyBoards[i] = new LegacyBoard(grid, seed);
+            for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+                if (grid[cell] != 0) {
+                    int bit = SudokuRules.bitOf(grid[cell]);
+                    rowMasks[i][SudokuRules.rowOf(cell)] |= bit;
+                    colMasks[i][SudokuRules.colOf(cell)] |= bit;
+                    boxMasks[i][SudokuRules.boxOf(cell)] |= bit;
+                }
+            }
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == grids.length ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public void legacyObjectScan(Blackhole blackhole) {
+        LegacyBoard board = legacyBoards[nextIndex()];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                for (int num = 1; num <= 9; num++) {
+                    blackhole.consume(board.isValidPlacement(row, col, num));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void flatGridScan(Blackhole blackhole) {
+        int[] grid = grids[nextIndex()];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                for (int num = 1; num <= 9; num++) {
+                    blackhole.consume(SudokuRules.isValidPlacement(grid, row, col, num));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void bitmaskLookup(Blackhole blackhole) {
+        int index = nextIndex();
+        int[] rows = rowMasks[index];
+        int[] cols = colMasks[index];
+        int[] boxes = boxMasks[index];
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            int used = rows[SudokuRules.rowOf(cell)] | cols[SudokuRules.colOf(cell)] | boxes[SudokuRules.boxOf(cell)];
+            for (int num = 1; num <= 9; num++) {
+                blackhole.consume((used & SudokuRules.bitOf(num)) == 0);
+            }
+        }
+    }
+}
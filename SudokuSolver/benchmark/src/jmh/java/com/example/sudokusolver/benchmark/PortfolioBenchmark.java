@@ -0,0 +1,125 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.PortfolioSolver;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+/**
+ * Class: PortfolioBenchmark
+ *
+ * Description:
+ * Measures PortfolioSolver with 1 to 6 racing strategies from PortfolioSolver.defaultStrategies(). One strategy is
+ * plain PROPAGATION plus the cost of the hand-off to a worker thread. The mean hides most of what racing buys;
+ * run with -bm sample to see the upper percentiles. The wins of each strategy are reported next to the score as
+ * aux counters, one per slot of the default lineup, so they also reach the result files.
+ */
+@State(Scope.Thread)
+public class PortfolioBenchmark {
+    @Param({"1", "3", "6"})
+    public int threads;
+
+    @Param({"HARD", "SEVENTEEN", "SIXTEEN"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    /**
+     * Class: Wins
+     *
+     * Description:
+     * Counts the races each strategy of PortfolioSolver.defaultStrategies(6) won in an iteration, in lineup order:
+     * the three engines on the board as given, then on the copies scrambled with seed 1. Slots beyond 'threads'
+     * stay at zero.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wins {
+        public long propagation;
+        public long sat;
+        public long dancingLinks;
+        public long propagation1;
+        public long sat1;
+        public long dancingLinks1;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            propagation = 0;
+            sat = 0;
+            dancingLinks = 0;
+            propagation1 = 0;
+            sat1 = 0;
+            dancingLinks1 = 0;
+        }
+
+        void record(int strategy) {
+            switch (strategy) {
+                case 0:
+                    propagation++;
+                    break;
+                case 1:
+                    sat++;
+                    break;
+                case 2:
+                    dancingLinks++;
+                    break;
+                case 3:
+                    propagation1++;
+                    break;
+                case 4:
+                    sat1++;
+                    break;
+                default:
+                    dancingLinks1++;
+                    break;
+            }
+        }
+    }
+
+    private PortfolioSolver solver;
+    private long[] seenWins;
+    private int[][] puzzles;
+    private int[] board;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        solver = new PortfolioSolver(corpus.geometry, threads);
+        List<int[]> loaded = corpus.load(seed);
+        puzzles = loaded.toArray(new int[0][]);
+        board = new int[corpus.geometry.cells];
+        seenWins = new long[threads];
+    }
+
+    @TearDown
+    public void tearDown() {
+        solver.close();
+    }
+
+    @Benchmark
+    public boolean solve(Wins wins) {
+        int[] puzzle = puzzles[next];
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        System.arraycopy(puzzle, 0, board, 0, board.length);
+        boolean solved = solver.solve(board);
+        // The strategy whose total moved is the one that won this race
+        int strategy = 0;
+        for (long count : solver.getWins().values()) {
+            if (count != seenWins[strategy]) {
+                seenWins[strategy] = count;
+                wins.record(strategy);
+            }
+            strategy++;
+        }
+        return solved;
+    }
+}
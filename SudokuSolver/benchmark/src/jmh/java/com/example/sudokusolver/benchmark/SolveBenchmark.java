@@ -0,0 +1,53 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.SolverType;
+import com.example.sudokusolver.solver.SudokuSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Class: SolveBenchmark
+ *
+ * Description:
+ * Measures full solves with each engine. Each invocation copies the next puzzle of the corpus into a scratch board
+ * and solves it, so the score is the mean solve time over the corpus.
+ * The old MainActivity backtracking (LegacyBoard.solve) has its own LegacySolveBenchmark: with a random cell order
+ * it only finishes on the easy puzzles, and needs a placement cap even there.
+ */
+@State(Scope.Thread)
+public class SolveBenchmark {
+    @Param({"BITMASK", "DANCING_LINKS", "PROPAGATION", "SAT"})
+    public SolverType engine;
+
+    @Param({"EASY", "HARD", "SEVENTEEN"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    private SudokuSolver solver;
+    private int[][] puzzles;
+    private final int[] board = new int[81];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        solver = engine.create();
+        List<int[]> loaded = corpus.load(seed);
+        puzzles = loaded.toArray(new int[0][]);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        int[] puzzle = puzzles[next];
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        System.arraycopy(puzzle, 0, board, 0, board.length);
+        return solver.solve(board);
+    }
+}
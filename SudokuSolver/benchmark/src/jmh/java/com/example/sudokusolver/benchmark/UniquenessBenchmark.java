@@ -0,0 +1,44 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.SolutionCounter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Class: UniquenessBenchmark
+ *
+ * Description:
+ * Measures SolutionCounter.check, the uniqueness test that runs once per removed clue during generation.
+ * Every corpus puzzle is proper, so each check has to search the whole tree to rule out a second solution.
+ */
+@State(Scope.Thread)
+public class UniquenessBenchmark {
+    @Param({"EASY", "HARD", "SEVENTEEN"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    private final SolutionCounter counter = new SolutionCounter();
+    private int[][] puzzles;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<int[]> loaded = corpus.load(seed);
+        puzzles = loaded.toArray(new int[0][]);
+    }
+
+    @Benchmark
+    public SolutionCounter.Result check() {
+        int[] puzzle = puzzles[next];
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        return counter.check(puzzle);
+    }
+}
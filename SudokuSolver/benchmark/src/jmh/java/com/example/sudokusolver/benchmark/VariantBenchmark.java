@@ -0,0 +1,80 @@
+package com.example.sudokusolver.benchmark;
+
+import com.example.sudokusolver.solver.BitmaskSolver;
+import com.example.sudokusolver.solver.DancingLinksSolver;
+import com.example.sudokusolver.solver.Geometry;
+import com.example.sudokusolver.solver.SudokuSolver;
+import com.example.sudokusolver.solver.Variant;
+import com.example.sudokusolver.solver.VariantSolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Class: VariantBenchmark
+ *
+ * Description:
+ * Measures what the compiled variant tables cost. BITMASK is BitmaskSolver with its fixed row, column and box
+ * units; CLASSIC is VariantSolver on the same rules read from Variant.classic(), so the difference is the price of
+ * the table lookups. KILLER adds cages to each puzzle (every row cut into three cages of three cells, with the sums
+ * of the puzzle's solution) and shows how much the cage combinations prune.
+ */
+@State(Scope.Thread)
+public class VariantBenchmark {
+    @Param({"BITMASK", "CLASSIC", "KILLER"})
+    public String rules;
+
+    @Param({"EASY", "HARD", "SEVENTEEN"})
+    public Corpus corpus;
+
+    @Param({"42"})
+    public long seed;
+
+    private SudokuSolver[] solvers;
+    private int[][] puzzles;
+    private final int[] board = new int[81];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<int[]> loaded = corpus.load(seed);
+        puzzles = loaded.toArray(new int[0][]);
+        solvers = new SudokuSolver[puzzles.length];
+        for (int i = 0; i < puzzles.length; i++) {
+            if ("BITMASK".equals(rules)) {
+                solvers[i] = i == 0 ? new BitmaskSolver() : solvers[0];
+            } else if ("CLASSIC".equals(rules)) {
+                solvers[i] = i == 0 ? new VariantSolver(Variant.classic(Geometry.CLASSIC)) : solvers[0];
+            } else {
+                solvers[i] = new VariantSolver(killer(puzzles[i]));
+            }
+        }
+    }
+
+    private static Variant killer(int[] puzzle) {
+        int[] solution = puzzle.clone();
+        if (!new DancingLinksSolver().solve(solution)) {
+            throw new IllegalStateException("Corpus puzzle without a solution");
+        }
+        int[][] cages = new int[27][];
+        int[] sums = new int[27];
+        for (int cage = 0; cage < 27; cage++) {
+            cages[cage] = new int[] {3 * cage, 3 * cage + 1, 3 * cage + 2};
+            sums[cage] = solution[3 * cage] + solution[3 * cage + 1] + solution[3 * cage + 2];
+        }
+        return Variant.classic(Geometry.CLASSIC).withCages(cages, sums);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        int index = next;
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        System.arraycopy(puzzles[index], 0, board, 0, board.length);
+        return solvers[index].solve(board);
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.sudokusolver.solver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+/**
+ * Class: BatchSolver
+ *
+ * Description:
+ * Headless batch mode for validating puzzle collections outside the app.
+ * Solves a list of 81-character puzzle lines in parallel on a work-stealing ForkJoinPool and keeps the results in
+ * input order. Every puzzle is checked with the same placement rules the app uses (SudokuRules.isValidPlacement),
+ * both for its givens and for the finished solution.
+ *
+ * Usage:
+ * java com.example.sudokusolver.solver.BatchSolver <input> [output] [--engine=DANCING_LINKS] [--threads=N]
+ * or through Gradle: ./gradlew :solver:batchSolve -Pin=puzzles.txt [-Pout=solutions.txt] [-Pengine=BITMASK]
+ *
+ * The output file has one line per puzzle, in input order: the solution, or a '#' comment naming the line and why it failed.
+ * Blank lines and lines starting with # are skipped. A throughput and latency report is printed when the batch is done.
+ */
+public class BatchSolver {
+    private static final int LEAF_SIZE = 32;
+
+    private final SolverType solverType;
+    private final int threads;
+
+    public BatchSolver(SolverType solverType, int threads) {
+        this.solverType = solverType;
+        this.threads = threads;
+    }
+
+    /**
+     * Class: Result
+     *
+     * Description:
+     * The outcome of a batch: one output line and one latency per puzzle, both in input order.
+     */
+    public static class Result {
+        public final String[] output;
+        public final long[] latencyNanos;
+        public final long wallNanos;
+        public final int solved;
+
+        Result(String[] output, long[] latencyNanos, long wallNanos, int solved) {
+            this.output = output;
+            this.latencyNanos = latencyNanos;
+            this.wallNanos = wallNanos;
+            this.solved = solved;
+        }
+
+        public int count() {
+            return output.length;
+        }
+
+        public double puzzlesPerSecond() {
+            return wallNanos == 0 ? 0 : count() * 1e9 / wallNanos;
+        }
+
+        /**
+         * Example Call:
+         * long p99 = result.latencyPercentile(99);
+         *
+         * Parameters:
+         * @param percentile (double): The percentile to return, from 0 to 100.
+         *
+         * Returns:
+         * @return long - The per-puzzle latency in nanoseconds at 'percentile', using the nearest-rank method.
+         */
+        public long latencyPercentile(double percentile) {
+            if (latencyNanos.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencyNanos.clone();
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+
+        public void printReport(PrintStream out) {
+            out.printf(Locale.US, "Solved %d of %d puzzles in %.1f ms (%.0f puzzles/sec)%n",
+                    solved, count(), wallNanos / 1e6, puzzlesPerSecond());
+            out.printf(Locale.US, "Latency us: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                    latencyPercentile(50) / 1e3, latencyPercentile(90) / 1e3, latencyPercentile(99) / 1e3,
+                    latencyPercentile(99.9) / 1e3, latencyPercentile(100) / 1e3);
+        }
+    }
+
+    /**
+     * Example Call:
+     * BatchSolver.Result result = batchSolver.solveAll(lines);
+     *
+     * Parameters:
+     * @param puzzles (List<String>): The puzzle lines, one puzzle per entry.
+     *
+     * Returns:
+     * @return Result - The solutions (or failure comments) and latencies, in the order of 'puzzles'.
+     *
+     * Description:
+     * Splits the list into ranges on a ForkJoinPool; every worker thread reuses one engine of the chosen type.
+     * Failure comments number the puzzles from 1, as if 'puzzles' were the lines of a file.
+     */
+    public Result solveAll(List<String> puzzles) {
+        int[] lineNumbers = new int[puzzles.size()];
+        for (int i = 0; i < lineNumbers.length; i++) {
+            lineNumbers[i] = i + 1;
+        }
+        return solveAll(puzzles, lineNumbers);
+    }
+
+    /**
+     * Example Call:
+     * BatchSolver.Result result = batchSolver.solveAll(puzzles, lineNumbers);
+     *
+     * Parameters:
+     * @param puzzles (List<String>): The puzzle lines, one puzzle per entry.
+     * @param lineNumbers (int[]): The 1-based line of the input file each puzzle was read from, named in its failure
+     * comment.
+     *
+     * Returns:
+     * @return Result - The solutions (or failure comments) and latencies, in the order of 'puzzles'.
+     */
+    public Result solveAll(List<String> puzzles, int[] lineNumbers) {
+        String[] output = new String[puzzles.size()];
+        long[] latencies = new long[puzzles.size()];
+        boolean[] solved = new boolean[puzzles.size()];
+        ThreadLocal<SudokuSolver> solvers = ThreadLocal.withInitial(solverType::create);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new SolveRange(puzzles, lineNumbers, output, latencies, solved, solvers, 0, puzzles.size()));
+        } finally {
+            pool.shutdown();
+        }
+        long wall = System.nanoTime() - start;
+
+        int solvedCount = 0;
+        for (boolean s : solved) {
+            if (s) {
+                solvedCount++;
+            }
+        }
+        return new Result(output, latencies, wall, solvedCount);
+    }
+
+    /**
+     * Class: SolveRange
+     *
+     * Description:
+     * Solves puzzles [from, to) directly when the range is small, otherwise forks both halves.
+     */
+    private static class SolveRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> puzzles;
+        private final int[] lineNumbers;
+        private final String[] output;
+        private final long[] latencies;
+        private final boolean[] solved;
+        private final ThreadLocal<SudokuSolver> solvers;
+        private final int from;
+        private final int to;
+
+        SolveRange(List<String> puzzles, int[] lineNumbers, String[] output, long[] latencies, boolean[] solved,
+                   ThreadLocal<SudokuSolver> solvers, int from, int to) {
+            this.puzzles = puzzles;
+            this.lineNumbers = lineNumbers;
+            this.output = output;
+            this.latencies = latencies;
+            this.solved = solved;
+            this.solvers = solvers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                SudokuSolver solver = solvers.get();
+                for (int i = from; i < to; i++) {
+                    long start = System.nanoTime();
+                    output[i] = solveLine(solver, puzzles.get(i), lineNumbers[i]);
+                    latencies[i] = System.nanoTime() - start;
+                    solved[i] = output[i].charAt(0) != '#';
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SolveRange(puzzles, lineNumbers, output, latencies, solved, solvers, from, mid),
+                    new SolveRange(puzzles, lineNumbers, output, latencies, solved, solvers, mid, to));
+        }
+    }
+
+    private static String solveLine(SudokuSolver solver, String line, int lineNumber) {
+        int[] grid;
+        try {
+            grid = PuzzleText.parse(line);
+        } catch (IllegalArgumentException e) {
+            return "# line " + lineNumber + ": " + e.getMessage();
+        }
+
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            int value = grid[cell];
+            if (value != 0 && !SudokuRules.isValidPlacement(grid, SudokuRules.rowOf(cell), SudokuRules.colOf(cell), value)) {
+                return "# line " + lineNumber + ": conflicting givens at cell " + cell;
+            }
+        }
+
+        if (!solver.solve(grid)) {
+            return "# line " + lineNumber + ": no solution";
+        }
+        if (!SudokuRules.isSolved(grid)) {
+            return "# line " + lineNumber + ": engine returned an invalid solution";
+        }
+        return PuzzleText.format(grid);
+    }
+
+    /**
+     * Example Call:
+     * BatchSolver.main(new String[] {"puzzles.txt", "solutions.txt", "--engine=BITMASK"});
+     *
+     * Parameters:
+     * @param args (String[]): The input file, an optional output file (defaults to '<input>.solved') and options.
+     *
+     * Description:
+     * Reads the input file, solves every puzzle, writes the output file and prints the report to stdout.
+     */
+    public static void main(String[] args) throws IOException {
+        SolverType type = SolverType.DANCING_LINKS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--engine=")) {
+                type = SolverType.valueOf(arg.substring("--engine=".length()).toUpperCase(Locale.US));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else {
+                files.add(arg);
+            }
+        }
+        if (files.isEmpty()) {
+            String engines = Arrays.stream(SolverType.values()).map(Enum::name).collect(Collectors.joining("|"));
+            System.err.println("Usage: BatchSolver <input> [output] [--engine=" + engines + "] [--threads=N]");
+            System.exit(2);
+        }
+
+        Path input = Paths.get(files.get(0));
+        Path output = files.size() > 1 ? Paths.get(files.get(1)) : Paths.get(files.get(0) + ".solved");
+
+        List<String> puzzles = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    puzzles.add(line);
+                    lineNumbers.add(lineNumber);
+                }
+            }
+        }
+
+        Result result = new BatchSolver(type, threads)
+                .solveAll(puzzles, lineNumbers.stream().mapToInt(Integer::intValue).toArray());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            for (String line : result.output) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+
+        System.out.printf(Locale.US, "%s engine, %d threads, output written to %s%n", type, threads, output);
+        result.printReport(System.out);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.sudokusolver.solver;
+
+import java.util.Arrays;
+
+/**
+ * Class: Board
+ *
+ * Description:
+ * Compact board state shared by the UI, the persistence layer and the solvers.
+ * Cell values live in one byte array in row-major order (0 for empty cells) and the cells that belong to the
+ * puzzle itself ("givens") are marked in a bitset of longs. Copies and snapshots are plain array copies.
+ * A board has a fixed Geometry, the classic 9x9 one unless another is passed in. A byte holds every value up to 25,
+ * and the snapshot length tells the geometries apart, so restore() needs no size field.
+ */
+public final class Board {
+    private final Geometry geometry;
+    private final byte[] cells;
+    private final long[] givens;
+
+    public Board() {
+        this(Geometry.CLASSIC);
+    }
+
+    public Board(Geometry geometry) {
+        this.geometry = geometry;
+        this.cells = new byte[geometry.cells];
+        this.givens = new long[(geometry.cells + 63) / 64];
+    }
+
+    /**
+     * Example Call:
+     * Board board = Board.fromValues(grid);
+     *
+     * Parameters:
+     * @param grid (int[]): The cells in row-major order, 0 for empty cells. Its length selects the Geometry.
+     *
+     * Returns:
+     * @return Board - A board holding 'grid', with every filled cell marked as a given.
+     */
+    public static Board fromValues(int[] grid) {
+        Board board = new Board(Geometry.forCells(grid.length));
+        board.setValues(grid);
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (grid[cell] != 0) {
+                board.setGiven(cell, true);
+            }
+        }
+        return board;
+    }
+
+    public Geometry geometry() {
+        return geometry;
+    }
+
+    public int get(int cell) {
+        return cells[cell];
+    }
+
+    public int get(int row, int col) {
+        return cells[row * geometry.size + col];
+    }
+
+    public void set(int cell, int value) {
+        if (value < 0 || value > geometry.size) {
+            throw new IllegalArgumentException("Invalid value " + value + " at cell " + cell);
+        }
+        cells[cell] = (byte) value;
+    }
+
+    public void set(int row, int col, int value) {
+        set(row * geometry.size + col, value);
+    }
+
+    public boolean isGiven(int cell) {
+        return (givens[cell >>> 6] & (1L << (cell & 63))) != 0;
+    }
+
+    public void setGiven(int cell, boolean given) {
+        if (given) {
+            givens[cell >>> 6] |= 1L << (cell & 63);
+        } else {
+            givens[cell >>> 6] &= ~(1L << (cell & 63));
+        }
+    }
+
+    public int filledCount() {
+        int count = 0;
+        for (byte value : cells) {
+            if (value != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies the values of all cells into 'grid', the flat form the solver engines work on.
+     */
+    public void copyValuesTo(int[] grid) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            grid[cell] = cells[cell];
+        }
+    }
+
+    public int[] toValues() {
+        int[] grid = new int[cells.length];
+        copyValuesTo(grid);
+        return grid;
+    }
+
+    /**
+     * Replaces the values of all cells with 'grid'. The given marks are left as they are.
+     */
+    public void setValues(int[] grid) {
+        if (grid.length != cells.length) {
+            throw new IllegalArgumentException("Expected " + cells.length + " cells but got " + grid.length);
+        }
+        for (int cell = 0; cell < cells.length; cell++) {
+            set(cell, grid[cell]);
+        }
+    }
+
+    public Board copy() {
+        Board copy = new Board(geometry);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    public void copyFrom(Board other) {
+        if (other.geometry != geometry) {
+            throw new IllegalArgumentException(
+                    "Cannot copy a " + other.geometry + " board into a " + geometry + " one");
+        }
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.givens, 0, givens, 0, givens.length);
+    }
+
+    /**
+     * Example Call:
+     * byte[] snapshot = board.snapshot();
+     *
+     * Returns:
+     * @return byte[] - The cell values followed by the given bitset (little-endian longs), which restore() reads back.
+     */
+    public byte[] snapshot() {
+        byte[] snapshot = new byte[snapshotLength(geometry)];
+        System.arraycopy(cells, 0, snapshot, 0, cells.length);
+        for (int word = 0; word < givens.length; word++) {
+            for (int b = 0; b < 8; b++) {
+                snapshot[cells.length + word * 8 + b] = (byte) (givens[word] >>> (8 * b));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Example Call:
+     * Board board = Board.restore(snapshot);
+     *
+     * Parameters:
+     * @param snapshot (byte[]): Bytes produced by snapshot().
+     *
+     * Returns:
+     * @return Board - The board the snapshot was taken from, with the same Geometry.
+     */
+    public static Board restore(byte[] snapshot) {
+        Board board = null;
+        for (int boxSize = Geometry.MIN_BOX_SIZE; boxSize <= Geometry.MAX_BOX_SIZE && board == null; boxSize++) {
+            if (snapshot.length == snapshotLength(Geometry.of(boxSize))) {
+                board = new Board(Geometry.of(boxSize));
+            }
+        }
+        if (board == null) {
+            throw new IllegalArgumentException("Invalid board snapshot of " + snapshot.length + " bytes");
+        }
+        int cellCount = board.cells.length;
+        for (int cell = 0; cell < cellCount; cell++) {
+            board.set(cell, snapshot[cell]);
+        }
+        for (int word = 0; word < board.givens.length; word++) {
+            long bits = 0;
+            for (int b = 0; b < 8; b++) {
+                bits |= (snapshot[cellCount + word * 8 + b] & 0xFFL) << (8 * b);
+            }
+            board.givens[word] = bits;
+        }
+        return board;
+    }
+
+    private static int snapshotLength(Geometry geometry) {
+        return geometry.cells + (geometry.cells + 63) / 64 * 8;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Board)) {
+            return false;
+        }
+        Board other = (Board) o;
+        return Arrays.equals(cells, other.cells) && Arrays.equals(givens, other.givens);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(cells) + Arrays.hashCode(givens);
+    }
+
+    @Override
+    public String toString() {
+        return PuzzleText.format(toValues());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: CachingSolver
+ *
+ * Description:
+ * Puts a SolutionCache in front of a solver engine. Every board is first brought into canonical form
+ * (Canonicalizer); if the cache knows the solution of that form, it is mapped back through the board's symmetry and
+ * returned without searching, otherwise the engine solves the board and its solution is added to the cache. A board
+ * that is the same as, or a relabeled, reordered or transposed copy of, one solved before is answered in
+ * microseconds. Boards without a canonical form (too symmetric, such as an empty board) always go to the engine.
+ * A cached answer is reported to the listener as one placement per empty cell, and its stats show no search.
+ * Like every engine, an instance must only be used by one thread at a time; the cache may be shared.
+ */
+public class CachingSolver implements SudokuSolver {
+    private final SudokuSolver engine;
+    private final SolutionCache cache;
+    private final SolverStats stats = new SolverStats();
+    private Canonicalizer canonicalizer;
+    private SolverListener listener;
+    private volatile boolean cancelled;
+    private boolean cacheHit;
+
+    /**
+     * Example Call:
+     * SudokuSolver solver = new CachingSolver(SolverType.PROPAGATION.create(), cache);
+     *
+     * Parameters:
+     * @param engine (SudokuSolver): Solves the boards the cache cannot answer.
+     * @param cache (SolutionCache): The cache to look boards up in and to add solutions to.
+     */
+    public CachingSolver(SudokuSolver engine, SolutionCache cache) {
+        this.engine = engine;
+        this.cache = cache;
+    }
+
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+        engine.setListener(listener);
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns true if the last solve was answered by the cache.
+     */
+    public boolean wasCacheHit() {
+        return cacheHit;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        engine.cancel();
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = solver.solve(grid);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Filled in place when solved.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved, false if the givens conflict or no solution exists.
+     *
+     * Description:
+     * Answers from the cache if it can and asks the engine otherwise. A pending cancel request skips the cache, so
+     * the engine sees the request and returns false.
+     */
+    @Override
+    public boolean solve(int[] board) {
+        boolean solved = false;
+        cacheHit = false;
+        if (SolverStats.ENABLED) {
+            stats.begin();
+        }
+        try {
+            Geometry geometry = Geometry.forCells(board.length);
+            if (canonicalizer == null || canonicalizer.geometry() != geometry) {
+                canonicalizer = new Canonicalizer(geometry);
+            }
+            Canonicalizer.Form form = cancelled ? null : canonicalizer.canonicalize(board);
+            if (form == null) {
+                if (!cancelled) {
+                    cache.recordSkipped();
+                }
+            } else {
+                byte[] cached = cache.get(form.key());
+                if (cached != null) {
+                    fill(board, form, cached);
+                    cacheHit = true;
+                    solved = true;
+                    return true;
+                }
+            }
+
+            solved = engine.solve(board);
+            if (SolverStats.ENABLED) {
+                stats.add(engine.getStats());
+            }
+            if (solved && form != null) {
+                cache.put(form.key(), form.toCanonical(board));
+            }
+            return solved;
+        } finally {
+            cancelled = false;
+            if (SolverStats.ENABLED) {
+                stats.end(solved);
+            }
+        }
+    }
+
+    private void fill(int[] board, Canonicalizer.Form form, byte[] cached) {
+        int[] solution = new int[board.length];
+        form.fromCanonical(cached, solution);
+        for (int cell = 0; cell < board.length; cell++) {
+            if (board[cell] == 0) {
+                board[cell] = solution[cell];
+                if (listener != null) {
+                    listener.onPlaced(cell, solution[cell]);
+                }
+            }
+        }
+    }
+}
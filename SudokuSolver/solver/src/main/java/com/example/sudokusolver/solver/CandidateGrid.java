@@ -0,0 +1,312 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: CandidateGrid
+ *
+ * Description:
+ * A board together with the candidate bitmask of every empty cell, and the deductions that shrink those masks.
+ * propagate() applies the following rules until none of them changes anything (a fixpoint):
+ *   1. Naked single: an empty cell with one candidate left gets that digit.
+ *   2. Hidden single: a digit that fits in only one cell of a row, column or box goes there.
+ *   3. Pointing: if a digit's candidates inside a box all lie on one row or column, the digit is removed from the
+ *      rest of that row or column.
+ *   4. Claiming: if a digit's candidates inside a row or column all lie in one box, the digit is removed from the
+ *      rest of that box.
+ * The cheap single rules are repeated to their own fixpoint before the locked-candidate rules are tried.
+ * Candidates removed after loading are counted in the SolverStats set with setStats(), if any.
+ */
+public final class CandidateGrid {
+    private final Geometry geometry;
+    // Geometry tables copied into fields, the hot loops read them on every pass
+    private final int cells;
+    private final int allDigits;
+    private final int[][] units;
+    private final int[][] peers;
+    private final int[][] shared;
+    private final int[][] boxRest;
+    private final int[][] lineRest;
+
+    final int[] values;
+    final int[] candidates;
+    int filled;
+    private SolverListener listener;
+    private SolverStats stats;
+
+    public CandidateGrid() {
+        this(Geometry.CLASSIC);
+    }
+
+    public CandidateGrid(Geometry geometry) {
+        this.geometry = geometry;
+        this.cells = geometry.cells;
+        this.allDigits = geometry.allDigits;
+        this.units = geometry.units;
+        this.peers = geometry.peers;
+        this.shared = geometry.shared;
+        this.boxRest = geometry.boxRest;
+        this.lineRest = geometry.lineRest;
+        this.values = new int[cells];
+        this.candidates = new int[cells];
+    }
+
+    public Geometry geometry() {
+        return geometry;
+    }
+
+    /**
+     * Example Call:
+     * boolean consistent = candidateGrid.load(board);
+     *
+     * Parameters:
+     * @param board (int[]): The board as geometry().cells cells in row-major order, 0 for empty cells.
+     *
+     * Returns:
+     * @return boolean - False if two givens conflict or a cell is left without candidates.
+     *
+     * Description:
+     * Resets the grid to 'board'. Givens are not reported to the listener.
+     */
+    public boolean load(int[] board) {
+        if (board.length != cells) {
+            throw new IllegalArgumentException("Expected " + cells + " cells but got " + board.length);
+        }
+        SolverListener reporting = listener;
+        SolverStats counting = stats;
+        listener = null;
+        stats = null;
+        try {
+            for (int cell = 0; cell < cells; cell++) {
+                values[cell] = 0;
+                candidates[cell] = allDigits;
+            }
+            filled = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                int value = board[cell];
+                if (value < 0 || value > geometry.size) {
+                    throw new IllegalArgumentException("Invalid value " + value + " at cell " + cell);
+                }
+                if (value != 0 && !assign(cell, value)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            listener = reporting;
+            stats = counting;
+        }
+    }
+
+    void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    void setStats(SolverStats stats) {
+        this.stats = stats;
+    }
+
+    void copyFrom(CandidateGrid other) {
+        System.arraycopy(other.values, 0, values, 0, cells);
+        System.arraycopy(other.candidates, 0, candidates, 0, cells);
+        filled = other.filled;
+    }
+
+    public boolean isSolved() {
+        return filled == cells;
+    }
+
+    public int value(int cell) {
+        return values[cell];
+    }
+
+    /**
+     * Returns the candidate bitmask of 'cell', or 0 if the cell is already filled.
+     */
+    public int candidates(int cell) {
+        return candidates[cell];
+    }
+
+    public void copyValuesTo(int[] board) {
+        System.arraycopy(values, 0, board, 0, cells);
+    }
+
+    /**
+     * Example Call:
+     * boolean consistent = candidateGrid.assign(cell, digit);
+     *
+     * Parameters:
+     * @param cell (int): The empty cell to fill.
+     * @param digit (int): The digit to place. Must be one of the cell's candidates for the result to be consistent.
+     *
+     * Returns:
+     * @return boolean - False if the digit is not a candidate or a peer of the cell is left without candidates.
+     */
+    public boolean assign(int cell, int digit) {
+        int bit = SudokuRules.bitOf(digit);
+        if (values[cell] != 0 || (candidates[cell] & bit) == 0) {
+            return false;
+        }
+        values[cell] = digit;
+        candidates[cell] = 0;
+        filled++;
+        if (listener != null) {
+            listener.onPlaced(cell, digit);
+        }
+
+        boolean consistent = true;
+        int removed = 0;
+        for (int peer : peers[cell]) {
+            if (values[peer] == 0) {
+                int mask = candidates[peer];
+                removed += (mask >>> (digit - 1)) & 1;
+                if ((candidates[peer] = mask & ~bit) == 0) {
+                    consistent = false;
+                }
+            }
+        }
+        if (SolverStats.ENABLED && stats != null) {
+            stats.eliminations += removed;
+        }
+        return consistent;
+    }
+
+    /**
+     * Example Call:
+     * boolean consistent = candidateGrid.propagate();
+     *
+     * Returns:
+     * @return boolean - False if a contradiction was found: an empty cell without candidates, or a digit that no
+     * longer fits anywhere in one of its units.
+     *
+     * Description:
+     * Runs the singles and locked-candidate rules to a fixpoint. See the class description for the rules.
+     */
+    public boolean propagate() {
+        while (true) {
+            int progress = applySingles();
+            if (progress < 0) {
+                return false;
+            }
+            if (filled == cells) {
+                return true;
+            }
+            if (progress == 0 && !applyLockedCandidates()) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Runs only the naked and hidden single rules to a fixpoint. Returns false if a contradiction was found.
+     */
+    boolean propagateSingles() {
+        return applySingles() >= 0;
+    }
+
+    // Returns the number of cells filled, or -1 on a contradiction
+    private int applySingles() {
+        int placed = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int cell = 0; cell < cells; cell++) {
+                if (values[cell] == 0) {
+                    int mask = candidates[cell];
+                    if (mask == 0) {
+                        return -1;
+                    }
+                    if ((mask & (mask - 1)) == 0) {
+                        if (!assign(cell, SudokuRules.digitOf(mask))) {
+                            return -1;
+                        }
+                        placed++;
+                        changed = true;
+                    }
+                }
+            }
+
+            for (int[] unit : units) {
+                int once = 0;
+                int twice = 0;
+                int placedInUnit = 0;
+                for (int cell : unit) {
+                    int mask = values[cell] != 0 ? SudokuRules.bitOf(values[cell]) : candidates[cell];
+                    if (values[cell] != 0) {
+                        placedInUnit |= mask;
+                    }
+                    twice |= once & mask;
+                    once |= mask;
+                }
+                if (once != allDigits) {
+                    return -1;
+                }
+                int singles = once & ~twice & ~placedInUnit;
+                while (singles != 0) {
+                    int bit = singles & -singles;
+                    singles ^= bit;
+                    int target = -1;
+                    for (int cell : unit) {
+                        if ((candidates[cell] & bit) != 0) {
+                            target = cell;
+                            break;
+                        }
+                    }
+                    if (target < 0 || !assign(target, SudokuRules.digitOf(bit))) {
+                        return -1;
+                    }
+                    placed++;
+                    changed = true;
+                }
+            }
+        }
+        return placed;
+    }
+
+    // Returns true if any candidate was removed
+    private boolean applyLockedCandidates() {
+        boolean removed = false;
+        for (int i = 0; i < shared.length; i++) {
+            int inShared = 0;
+            for (int cell : shared[i]) {
+                inShared |= candidates[cell];
+            }
+            if (inShared == 0) {
+                continue;
+            }
+            int inBoxRest = 0;
+            for (int cell : boxRest[i]) {
+                inBoxRest |= candidates[cell];
+            }
+            int inLineRest = 0;
+            for (int cell : lineRest[i]) {
+                inLineRest |= candidates[cell];
+            }
+
+            // Pointing: confined to this line within the box, so the rest of the line loses it
+            int pointing = inShared & ~inBoxRest & inLineRest;
+            if (pointing != 0) {
+                for (int cell : lineRest[i]) {
+                    countRemoved(candidates[cell] & pointing);
+                    candidates[cell] &= ~pointing;
+                }
+                removed = true;
+            }
+            // Claiming: confined to this box within the line, so the rest of the box loses it
+            int claiming = inShared & ~inLineRest & inBoxRest;
+            if (claiming != 0) {
+                for (int cell : boxRest[i]) {
+                    countRemoved(candidates[cell] & claiming);
+                    candidates[cell] &= ~claiming;
+                }
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private void countRemoved(int mask) {
+        if (SolverStats.ENABLED && stats != null) {
+            stats.eliminations += Integer.bitCount(mask);
+        }
+    }
+}
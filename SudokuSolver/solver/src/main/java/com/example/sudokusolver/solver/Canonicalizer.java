@@ -0,0 +1,380 @@
+package com.example.sudokusolver.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class: Canonicalizer
+ *
+ * Description:
+ * Maps a board to a canonical form that every equivalent board shares. Two boards are equivalent when one turns
+ * into the other by the symmetries that keep a Sudoku valid:
+ *   1. Permuting the bands (groups of boxSize rows), and the rows inside each band.
+ *   2. Permuting the stacks (groups of boxSize columns), and the columns inside each stack.
+ *   3. Transposing the board.
+ *   4. Relabeling the digits.
+ * The canonical form is the smallest board, compared cell by cell in row-major order, that these symmetries produce
+ * once the digits are relabeled in order of first appearance. Trying the whole group (3.3 million row and column
+ * orders on a 9x9 board) would take far too long, so only orders that sort rows, columns, bands and stacks by
+ * invariants are tried: clue counts, how the clues spread over the boxes, and how often the clue digits and the
+ * clue columns (rows) occur on the board. None of these change under the symmetries, and ties are enumerated in
+ * full, so every board of a class arrives at the same set of candidates and picks the same minimum. A typical
+ * puzzle leaves a handful of candidates. Boards with so many ties that more than MAX_TRANSFORMS candidates remain
+ * (an empty board, say) are rejected rather than searched.
+ * An instance holds scratch space for one Geometry, so it must not be shared between threads.
+ */
+public final class Canonicalizer {
+    static final int MAX_TRANSFORMS = 20_000;
+    private static final long PRIME = 1_000_003L;
+
+    private final Geometry geometry;
+    private final int size;
+    private final int boxSize;
+    private final int[] oriented;
+    private final int[] best;
+    private final int[] digitMap;
+    private final int[] rowCount;
+    private final int[] colCount;
+    private final int[] digitCount;
+    private final long[] rowKey;
+    private final long[] colKey;
+    private final long[] bandKey;
+    private final long[] stackKey;
+    private final int[] scratch;
+    private final long[] longScratch;
+
+    private boolean found;
+    private boolean bestTransposed;
+    private int[] bestRows;
+    private int[] bestCols;
+
+    /**
+     * Class: Form
+     *
+     * Description:
+     * The canonical form of one board and the symmetry that produced it, so grids can be moved between the board
+     * and its canonical form: canonical cell k holds the relabeled digit of board cell source[k].
+     */
+    public static final class Form {
+        private final String key;
+        private final int[] source;
+        private final int[] toCanonical;
+        private final int[] fromCanonical;
+
+        Form(String key, int[] source, int[] toCanonical, int[] fromCanonical) {
+            this.key = key;
+            this.source = source;
+            this.toCanonical = toCanonical;
+            this.fromCanonical = fromCanonical;
+        }
+
+        /**
+         * Returns the canonical board as one char per cell (char 0 for empty), equal for all equivalent boards.
+         */
+        public String key() {
+            return key;
+        }
+
+        /**
+         * Example Call:
+         * byte[] canonicalSolution = form.toCanonical(solution);
+         *
+         * Parameters:
+         * @param grid (int[]): A grid of the original board's shape, such as its solution. Not modified.
+         *
+         * Returns:
+         * @return byte[] - The grid moved through the board's symmetry into canonical form, one digit per byte.
+         */
+        public byte[] toCanonical(int[] grid) {
+            byte[] canonical = new byte[source.length];
+            for (int cell = 0; cell < source.length; cell++) {
+                canonical[cell] = (byte) toCanonical[grid[source[cell]]];
+            }
+            return canonical;
+        }
+
+        /**
+         * Example Call:
+         * form.fromCanonical(canonicalSolution, solution);
+         *
+         * Parameters:
+         * @param canonical (byte[]): A grid in canonical form, as returned by toCanonical().
+         * @param grid (int[]): Receives the grid moved back through the inverse symmetry.
+         */
+        public void fromCanonical(byte[] canonical, int[] grid) {
+            for (int cell = 0; cell < source.length; cell++) {
+                grid[source[cell]] = fromCanonical[canonical[cell]];
+            }
+        }
+    }
+
+    public Canonicalizer(Geometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.size;
+        this.boxSize = geometry.boxSize;
+        this.oriented = new int[geometry.cells];
+        this.best = new int[geometry.cells];
+        this.digitMap = new int[size + 1];
+        this.rowCount = new int[size];
+        this.colCount = new int[size];
+        this.digitCount = new int[size + 1];
+        this.rowKey = new long[size];
+        this.colKey = new long[size];
+        this.bandKey = new long[boxSize];
+        this.stackKey = new long[boxSize];
+        this.scratch = new int[size];
+        this.longScratch = new long[size];
+    }
+
+    public Geometry geometry() {
+        return geometry;
+    }
+
+    /**
+     * Example Call:
+     * Canonicalizer.Form form = canonicalizer.canonicalize(grid);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Not modified.
+     *
+     * Returns:
+     * @return Form - The canonical form and the symmetry leading to it, or null if the board has too many ties
+     * among its invariants to canonicalize within MAX_TRANSFORMS candidates.
+     */
+    public Form canonicalize(int[] board) {
+        if (board.length != geometry.cells) {
+            throw new IllegalArgumentException("Expected " + geometry.cells + " cells but got " + board.length);
+        }
+        found = false;
+        int tried = 0;
+        for (int orientation = 0; orientation < 2; orientation++) {
+            boolean transposed = orientation == 1;
+            orient(board, transposed);
+            computeKeys();
+            List<int[]> rowOrders = orders(rowKey, bandKey);
+            List<int[]> colOrders = rowOrders == null ? null : orders(colKey, stackKey);
+            if (colOrders == null) {
+                return null;
+            }
+            tried += rowOrders.size() * colOrders.size();
+            if (tried > MAX_TRANSFORMS) {
+                return null;
+            }
+            for (int[] rows : rowOrders) {
+                for (int[] cols : colOrders) {
+                    tryTransform(rows, cols, transposed);
+                }
+            }
+        }
+        return buildForm(board);
+    }
+
+    private void orient(int[] board, boolean transposed) {
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                oriented[row * size + col] = transposed ? board[col * size + row] : board[row * size + col];
+            }
+        }
+    }
+
+    private void computeKeys() {
+        Arrays.fill(rowCount, 0);
+        Arrays.fill(colCount, 0);
+        Arrays.fill(digitCount, 0);
+        for (int cell = 0; cell < oriented.length; cell++) {
+            int value = oriented[cell];
+            if (value != 0) {
+                rowCount[cell / size]++;
+                colCount[cell % size]++;
+                digitCount[value]++;
+            }
+        }
+        for (int line = 0; line < size; line++) {
+            rowKey[line] = lineKey(line * size, 1, colCount);
+            colKey[line] = lineKey(line, size, rowCount);
+        }
+        for (int block = 0; block < boxSize; block++) {
+            bandKey[block] = blockKey(rowKey, block);
+            stackKey[block] = blockKey(colKey, block);
+        }
+    }
+
+    // Hashes the sorted (crossing line count, digit count) pairs of a line's clues, then its per-box clue counts
+    private long lineKey(int first, int step, int[] crossCount) {
+        int clues = 0;
+        for (int i = 0; i < size; i++) {
+            int value = oriented[first + i * step];
+            if (value != 0) {
+                scratch[clues++] = crossCount[i] * (size + 1) + digitCount[value];
+            }
+        }
+        long key = fold(clues, scratch, clues);
+        for (int box = 0; box < boxSize; box++) {
+            int inBox = 0;
+            for (int i = box * boxSize; i < (box + 1) * boxSize; i++) {
+                if (oriented[first + i * step] != 0) {
+                    inBox++;
+                }
+            }
+            scratch[box] = inBox;
+        }
+        return fold(key, scratch, boxSize);
+    }
+
+    private long blockKey(long[] lineKeys, int block) {
+        System.arraycopy(lineKeys, block * boxSize, longScratch, 0, boxSize);
+        Arrays.sort(longScratch, 0, boxSize);
+        long key = 0;
+        for (int i = 0; i < boxSize; i++) {
+            key = key * PRIME + longScratch[i];
+        }
+        return key;
+    }
+
+    private static long fold(long key, int[] values, int count) {
+        Arrays.sort(values, 0, count);
+        for (int i = 0; i < count; i++) {
+            key = key * PRIME + values[i];
+        }
+        return key;
+    }
+
+    // Every line order that sorts the blocks by blockKey and the lines in each block by lineKey, or null if too many
+    private List<int[]> orders(long[] lineKey, long[] blockKey) {
+        List<int[]> blockOrders = orderings(identity(0, boxSize), blockKey);
+        if (blockOrders == null) {
+            return null;
+        }
+        List<List<int[]>> lineOrders = new ArrayList<>(boxSize);
+        long total = blockOrders.size();
+        for (int block = 0; block < boxSize; block++) {
+            List<int[]> inBlock = orderings(identity(block * boxSize, boxSize), lineKey);
+            if (inBlock == null || (total *= inBlock.size()) > MAX_TRANSFORMS) {
+                return null;
+            }
+            lineOrders.add(inBlock);
+        }
+
+        List<int[]> result = new ArrayList<>((int) total);
+        for (int[] blocks : blockOrders) {
+            combine(blocks, lineOrders, 0, new int[size], result);
+        }
+        return result;
+    }
+
+    private void combine(int[] blocks, List<List<int[]>> lineOrders, int position, int[] order, List<int[]> result) {
+        if (position == boxSize) {
+            result.add(order.clone());
+            return;
+        }
+        for (int[] lines : lineOrders.get(blocks[position])) {
+            System.arraycopy(lines, 0, order, position * boxSize, boxSize);
+            combine(blocks, lineOrders, position + 1, order, result);
+        }
+    }
+
+    private static int[] identity(int first, int count) {
+        int[] items = new int[count];
+        for (int i = 0; i < count; i++) {
+            items[i] = first + i;
+        }
+        return items;
+    }
+
+    // All orders of 'items' sorted by key, with items of equal key in every order among themselves
+    private static List<int[]> orderings(int[] items, long[] keys) {
+        int[] sorted = items.clone();
+        for (int i = 1; i < sorted.length; i++) {
+            for (int j = i; j > 0 && keys[sorted[j - 1]] > keys[sorted[j]]; j--) {
+                int swap = sorted[j];
+                sorted[j] = sorted[j - 1];
+                sorted[j - 1] = swap;
+            }
+        }
+        List<int[]> result = new ArrayList<>();
+        permute(sorted, keys, 0, new int[sorted.length], new boolean[sorted.length], result);
+        return result.size() > MAX_TRANSFORMS ? null : result;
+    }
+
+    private static void permute(int[] sorted, long[] keys, int position, int[] order, boolean[] used,
+                                List<int[]> result) {
+        if (position == sorted.length) {
+            result.add(order.clone());
+            return;
+        }
+        for (int i = 0; i < sorted.length && result.size() <= MAX_TRANSFORMS; i++) {
+            if (!used[i] && keys[sorted[i]] == keys[sorted[position]]) {
+                used[i] = true;
+                order[position] = sorted[i];
+                permute(sorted, keys, position + 1, order, used, result);
+                used[i] = false;
+            }
+        }
+    }
+
+    // Relabels the board under this row and column order and keeps it if it is smaller than the best so far
+    private void tryTransform(int[] rows, int[] cols, boolean transposed) {
+        Arrays.fill(digitMap, 0);
+        int nextDigit = 0;
+        boolean better = !found;
+        int cell = 0;
+        for (int row = 0; row < size; row++) {
+            int rowStart = rows[row] * size;
+            for (int col = 0; col < size; col++, cell++) {
+                int value = oriented[rowStart + cols[col]];
+                if (value != 0) {
+                    if (digitMap[value] == 0) {
+                        digitMap[value] = ++nextDigit;
+                    }
+                    value = digitMap[value];
+                }
+                if (!better) {
+                    if (value > best[cell]) {
+                        return;
+                    }
+                    better = value < best[cell];
+                }
+                if (better) {
+                    best[cell] = value;
+                }
+            }
+        }
+        if (better) {
+            found = true;
+            bestTransposed = transposed;
+            bestRows = rows;
+            bestCols = cols;
+        }
+    }
+
+    private Form buildForm(int[] board) {
+        int[] source = new int[geometry.cells];
+        int[] toCanonical = new int[size + 1];
+        int nextDigit = 0;
+        for (int cell = 0; cell < source.length; cell++) {
+            int row = bestRows[cell / size];
+            int col = bestCols[cell % size];
+            source[cell] = bestTransposed ? col * size + row : row * size + col;
+            int value = board[source[cell]];
+            if (value != 0 && toCanonical[value] == 0) {
+                toCanonical[value] = ++nextDigit;
+            }
+        }
+        // Digits missing from the board can take any of the remaining labels
+        for (int digit = 1; digit <= size; digit++) {
+            if (toCanonical[digit] == 0) {
+                toCanonical[digit] = ++nextDigit;
+            }
+        }
+        int[] fromCanonical = new int[size + 1];
+        for (int digit = 1; digit <= size; digit++) {
+            fromCanonical[toCanonical[digit]] = digit;
+        }
+        char[] key = new char[best.length];
+        for (int cell = 0; cell < best.length; cell++) {
+            key[cell] = (char) best[cell];
+        }
+        return new Form(new String(key), source, toCanonical, fromCanonical);
+    }
+}
@@ -0,0 +1,797 @@
+package com.example.sudokusolver.solver;
+
+import java.util.Arrays;
+
+/**
+ * Class: CdclSolver
+ *
+ * Description:
+ * A conflict-driven clause-learning SAT solver with the board encoded as CNF. Variable cell * size + digit - 1 is
+ * true when 'cell' holds 'digit'. Every cell gets one digit, and every row, column and box holds every digit once.
+ * Each "exactly one" is an at-least-one clause plus pairwise at-most-one clauses. Only the candidates left by the
+ * givens are encoded, so a well-filled board makes a small formula.
+ * The search is the usual CDCL loop:
+ *   1. Propagation. Binary clauses live in per-literal implication lists. Longer clauses live in one int arena and are
+ *      watched by two of their literals, so a clause is only visited when a watched literal becomes false.
+ *   2. Decisions. The unassigned variable with the highest VSIDS activity is decided, with its saved phase. Activities
+ *      start out favouring cells with few candidates.
+ *   3. Learning. Each conflict is analysed to its first unique implication point, minimised, learnt and backjumped
+ *      over. Conflicts bump the activity of the variables involved.
+ *   4. Restarts follow the Luby sequence (RESTART_UNIT conflicts per unit).
+ *   5. Clause deletion. At a restart, once the learnt clauses outnumber a growing limit, the half with the highest LBD
+ *      (the number of decision levels in a clause) is deleted, glue clauses excepted. The arena is compacted once
+ *      half of it is garbage.
+ * Unlike backtracking, learnt clauses stop the search from repeating the same dead end in another branch, which is
+ * what makes adversarial and large boards tractable. The listener is told about a cell once its variable is true and
+ * propagated, and again when a backjump clears it.
+ * getStats() counts decisions (nodes), conflicts (backtracks), long clauses visited during propagation (checks) and
+ * candidates ruled out (eliminations). maxDepth is the deepest decision level.
+ */
+public class CdclSolver implements SudokuSolver {
+    static final int RESTART_UNIT = 64;
+    private static final double ACTIVITY_GROWTH = 1 / 0.95;
+    private static final double ACTIVITY_LIMIT = 1e100;
+    private static final int FIRST_REDUCTION = 2000;
+    private static final int REDUCTION_STEP = 300;
+    // Learnt clauses with an LBD up to this are never deleted
+    private static final int GLUE = 2;
+    // Arena clause layout: size, flags and LBD, literals
+    private static final int HEADER = 2;
+    private static final int LEARNT = 1 << 30;
+    private static final int DELETED = 1 << 29;
+    private static final int LBD_MASK = DELETED - 1;
+    // Reasons are arena references, NO_REASON for decisions and level 0, or -2 - l for the binary clause (p, l)
+    private static final int NO_REASON = -1;
+    private static final int NO_CONFLICT = -1;
+    private static final int BINARY_CONFLICT = -2;
+
+    private final Geometry geometry;
+    private final int size;
+    private final int varCount;
+    // Per literal (2 * var, or 2 * var + 1 for its negation): 1 true, -1 false, 0 unassigned
+    private final byte[] value;
+    private final int[] level;
+    private final int[] reason;
+    private final int[] trail;
+    private int trailSize;
+    private int propagated;
+    // levelStart[d] is the trail position where decision level d + 1 starts
+    private int[] levelStart = new int[64];
+    private int decisionLevel;
+    private final boolean[] given;
+    // The digit the listener was last told each cell holds
+    private final int[] shown;
+
+    // Binary clauses: implied[l] lists the literals that become true when l does
+    private final int[][] implied;
+    private final int[] impliedCount;
+    // Long clauses: watches[l] holds (clause, blocker) pairs for the clauses watching l, visited when l becomes false
+    private final int[][] watches;
+    private final int[] watchCount;
+    private int[] arena = new int[1 << 14];
+    private int arenaSize;
+    private int wasted;
+    private int[] learnts = new int[256];
+    private int learntCount;
+    private int maxLearnts;
+    private final int[] conflictPair = new int[2];
+
+    // VSIDS: a max-heap of variables by activity
+    private final double[] activity;
+    private double activityIncrement;
+    private final int[] heap;
+    private final int[] heapIndex;
+    private int heapSize;
+    private final boolean[] phase;
+
+    // Conflict analysis scratch
+    private final boolean[] seen;
+    private int[] learnt = new int[64];
+    private int learntSize;
+    private int[] levelStamp = new int[64];
+    private int stamp;
+
+    private final SolverStats stats = new SolverStats();
+    private SolverListener listener;
+    private volatile boolean cancelled;
+
+    public CdclSolver() {
+        this(Geometry.CLASSIC);
+    }
+
+    public CdclSolver(Geometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.size;
+        this.varCount = geometry.cells * size;
+        this.value = new byte[2 * varCount];
+        this.level = new int[varCount];
+        this.reason = new int[varCount];
+        this.trail = new int[varCount];
+        this.given = new boolean[geometry.cells];
+        this.shown = new int[geometry.cells];
+        this.implied = new int[2 * varCount][];
+        this.impliedCount = new int[2 * varCount];
+        this.watches = new int[2 * varCount][];
+        this.watchCount = new int[2 * varCount];
+        this.activity = new double[varCount];
+        this.heap = new int[varCount];
+        this.heapIndex = new int[varCount];
+        this.phase = new boolean[varCount];
+        this.seen = new boolean[varCount];
+    }
+
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = solver.solve(grid);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Filled in place when solved.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved, false if the givens conflict, no solution exists or the solve
+     * was cancelled.
+     *
+     * Description:
+     * Encodes the board, propagates the givens and runs the CDCL search until every variable is assigned without a
+     * conflict, or a conflict is found at decision level 0 (unsatisfiable).
+     */
+    @Override
+    public boolean solve(int[] board) {
+        boolean solved = false;
+        if (SolverStats.ENABLED) {
+            stats.begin();
+        }
+        try {
+            geometry.checkBoard(board);
+            if (!load(board) || !search()) {
+                return false;
+            }
+            for (int var = 0; var < varCount; var++) {
+                if (value[2 * var] > 0) {
+                    board[var / size] = var % size + 1;
+                }
+            }
+            solved = true;
+            return true;
+        } finally {
+            cancelled = false;
+            if (SolverStats.ENABLED) {
+                stats.end(solved);
+            }
+        }
+    }
+
+    // Encodes the board into clauses and assigns what the givens decide. Returns false on a conflict.
+    private boolean load(int[] board) {
+        Arrays.fill(value, (byte) 0);
+        Arrays.fill(impliedCount, 0);
+        Arrays.fill(watchCount, 0);
+        Arrays.fill(activity, 0);
+        Arrays.fill(phase, true);
+        Arrays.fill(shown, 0);
+        arenaSize = 0;
+        wasted = 0;
+        learntCount = 0;
+        maxLearnts = FIRST_REDUCTION;
+        trailSize = 0;
+        propagated = 0;
+        decisionLevel = 0;
+        activityIncrement = 1;
+
+        int[] unitMask = new int[geometry.unitCount];
+        for (int cell = 0; cell < geometry.cells; cell++) {
+            given[cell] = board[cell] != 0;
+            if (given[cell]) {
+                int bit = SudokuRules.bitOf(board[cell]);
+                int row = geometry.rowOf(cell);
+                int col = size + geometry.colOf(cell);
+                int box = 2 * size + geometry.boxOf(cell);
+                if (((unitMask[row] | unitMask[col] | unitMask[box]) & bit) != 0) {
+                    return false;
+                }
+                unitMask[row] |= bit;
+                unitMask[col] |= bit;
+                unitMask[box] |= bit;
+            }
+        }
+
+        // The givens, and every candidate they rule out, are facts at level 0
+        int[] candidates = new int[geometry.cells];
+        for (int cell = 0; cell < geometry.cells; cell++) {
+            int mask = given[cell] ? SudokuRules.bitOf(board[cell]) : ~(unitMask[geometry.rowOf(cell)]
+                    | unitMask[size + geometry.colOf(cell)] | unitMask[2 * size + geometry.boxOf(cell)])
+                    & geometry.allDigits;
+            if (mask == 0) {
+                return false;
+            }
+            candidates[cell] = mask;
+            for (int digit = 1; digit <= size; digit++) {
+                int var = cell * size + digit - 1;
+                if ((mask & SudokuRules.bitOf(digit)) == 0) {
+                    assign(2 * var + 1, NO_REASON);
+                } else if (given[cell]) {
+                    assign(2 * var, NO_REASON);
+                } else {
+                    // Cells with few candidates are decided first, like minimum remaining values
+                    activity[var] = 1.0 / Integer.bitCount(mask);
+                }
+            }
+        }
+
+        int[] literals = new int[size];
+        for (int cell = 0; cell < geometry.cells; cell++) {
+            if (given[cell]) {
+                continue;
+            }
+            int count = 0;
+            for (int digit = 1; digit <= size; digit++) {
+                if ((candidates[cell] & SudokuRules.bitOf(digit)) != 0) {
+                    literals[count++] = 2 * (cell * size + digit - 1);
+                }
+            }
+            if (!addExactlyOne(literals, count, -1)) {
+                return false;
+            }
+        }
+        for (int unit = 0; unit < geometry.unitCount; unit++) {
+            for (int digit = 1; digit <= size; digit++) {
+                int bit = SudokuRules.bitOf(digit);
+                if ((unitMask[unit] & bit) != 0) {
+                    continue;
+                }
+                int count = 0;
+                for (int i = 0; i < size; i++) {
+                    int cell = geometry.unitCell(unit, i);
+                    if ((candidates[cell] & bit) != 0) {
+                        literals[count++] = 2 * (cell * size + digit - 1);
+                    }
+                }
+                // Pairs of a box that share a row or column already got their clause from that line
+                if (!addExactlyOne(literals, count, unit >= 2 * size ? unit : -1)) {
+                    return false;
+                }
+            }
+        }
+
+        heapSize = 0;
+        Arrays.fill(heapIndex, -1);
+        for (int var = 0; var < varCount; var++) {
+            if (value[2 * var] == 0) {
+                heapInsert(var);
+            }
+        }
+        return propagate() == NO_CONFLICT;
+    }
+
+    // Adds "at least one of 'literals'" and pairwise "at most one". 'box' >= 0 skips pairs in the same row or column.
+    private boolean addExactlyOne(int[] literals, int count, int box) {
+        if (count == 0) {
+            return false;
+        }
+        if (count == 1) {
+            return enqueueFact(literals[0]);
+        }
+        if (count == 2) {
+            addBinary(literals[0], literals[1]);
+        } else {
+            addClause(literals, count, false, 0);
+        }
+        for (int i = 0; i < count; i++) {
+            int a = literals[i] >> 1;
+            for (int j = i + 1; j < count; j++) {
+                int b = literals[j] >> 1;
+                if (box >= 0 && a / size != b / size && (geometry.rowOf(a / size) == geometry.rowOf(b / size)
+                        || geometry.colOf(a / size) == geometry.colOf(b / size))) {
+                    continue;
+                }
+                addBinary(literals[i] ^ 1, literals[j] ^ 1);
+            }
+        }
+        return true;
+    }
+
+    private boolean enqueueFact(int literal) {
+        if (value[literal] == 0) {
+            assign(literal, NO_REASON);
+        }
+        return value[literal] > 0;
+    }
+
+    // The clause (a or b)
+    private void addBinary(int a, int b) {
+        addImplied(a ^ 1, b);
+        addImplied(b ^ 1, a);
+    }
+
+    private void addImplied(int literal, int implication) {
+        int[] list = implied[literal];
+        int count = impliedCount[literal];
+        if (list == null || count == list.length) {
+            implied[literal] = list = list == null ? new int[4] : Arrays.copyOf(list, 2 * count);
+        }
+        list[count] = implication;
+        impliedCount[literal] = count + 1;
+    }
+
+    // Stores a clause of three or more literals and watches its first two. Returns its arena reference.
+    private int addClause(int[] literals, int count, boolean isLearnt, int lbd) {
+        if (arenaSize + HEADER + count > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(2 * arena.length, arenaSize + HEADER + count));
+        }
+        int ref = arenaSize;
+        arena[ref] = count;
+        arena[ref + 1] = (isLearnt ? LEARNT : 0) | lbd;
+        System.arraycopy(literals, 0, arena, ref + HEADER, count);
+        arenaSize += HEADER + count;
+        addWatch(literals[0], ref, literals[1]);
+        addWatch(literals[1], ref, literals[0]);
+        if (isLearnt) {
+            if (learntCount == learnts.length) {
+                learnts = Arrays.copyOf(learnts, 2 * learntCount);
+            }
+            learnts[learntCount++] = ref;
+        }
+        return ref;
+    }
+
+    private void addWatch(int literal, int ref, int blocker) {
+        int[] list = watches[literal];
+        int count = watchCount[literal];
+        if (list == null || count == list.length) {
+            watches[literal] = list = list == null ? new int[8] : Arrays.copyOf(list, 2 * count);
+        }
+        list[count] = ref;
+        list[count + 1] = blocker;
+        watchCount[literal] = count + 2;
+    }
+
+    private void assign(int literal, int why) {
+        value[literal] = 1;
+        value[literal ^ 1] = -1;
+        int var = literal >> 1;
+        level[var] = decisionLevel;
+        reason[var] = why;
+        trail[trailSize++] = literal;
+        if ((literal & 1) != 0 && SolverStats.ENABLED) {
+            stats.eliminations++;
+        }
+    }
+
+    private boolean search() {
+        int restarts = 1;
+        long restartLimit = (long) luby(restarts) * RESTART_UNIT;
+        long conflicts = 0;
+        while (true) {
+            if (cancelled) {
+                return false;
+            }
+            int conflict = propagate();
+            if (conflict != NO_CONFLICT) {
+                if (SolverStats.ENABLED) {
+                    stats.backtracks++;
+                }
+                if (decisionLevel == 0) {
+                    return false;
+                }
+                learn(conflict);
+                conflicts++;
+                continue;
+            }
+            if (conflicts >= restartLimit) {
+                cancelUntil(0);
+                conflicts = 0;
+                restartLimit = (long) luby(++restarts) * RESTART_UNIT;
+                if (learntCount >= maxLearnts) {
+                    reduceLearnts();
+                }
+                continue;
+            }
+            int var = nextVariable();
+            if (var < 0) {
+                return true;
+            }
+            if (decisionLevel == levelStart.length) {
+                levelStart = Arrays.copyOf(levelStart, 2 * decisionLevel);
+            }
+            levelStart[decisionLevel++] = trailSize;
+            if (SolverStats.ENABLED) {
+                stats.enter(decisionLevel);
+            }
+            assign(phase[var] ? 2 * var : 2 * var + 1, NO_REASON);
+        }
+    }
+
+    // Returns NO_CONFLICT, BINARY_CONFLICT (the clause is in conflictPair) or the arena reference of a false clause
+    private int propagate() {
+        while (propagated < trailSize) {
+            int literal = trail[propagated++];
+            int[] list = implied[literal];
+            int count = impliedCount[literal];
+            for (int i = 0; i < count; i++) {
+                int next = list[i];
+                if (value[next] == 0) {
+                    assign(next, -2 - (literal ^ 1));
+                } else if (value[next] < 0) {
+                    conflictPair[0] = next;
+                    conflictPair[1] = literal ^ 1;
+                    return BINARY_CONFLICT;
+                }
+            }
+            // Only now are the cell's other digits false, so the listener never sees two digits in one cell
+            if ((literal & 1) == 0 && listener != null && !given[(literal >> 1) / size]) {
+                int var = literal >> 1;
+                shown[var / size] = var % size + 1;
+                listener.onPlaced(var / size, var % size + 1);
+            }
+
+            int falseLiteral = literal ^ 1;
+            int[] ws = watches[falseLiteral];
+            count = watchCount[falseLiteral];
+            int kept = 0;
+            for (int i = 0; i < count; i += 2) {
+                int ref = ws[i];
+                int blocker = ws[i + 1];
+                if (value[blocker] > 0) {
+                    ws[kept++] = ref;
+                    ws[kept++] = blocker;
+                    continue;
+                }
+                if ((arena[ref + 1] & DELETED) != 0) {
+                    continue;
+                }
+                if (SolverStats.ENABLED) {
+                    stats.checks++;
+                }
+                int start = ref + HEADER;
+                // Keep the false literal second
+                if (arena[start] == falseLiteral) {
+                    arena[start] = arena[start + 1];
+                    arena[start + 1] = falseLiteral;
+                }
+                int first = arena[start];
+                if (value[first] > 0) {
+                    ws[kept++] = ref;
+                    ws[kept++] = first;
+                    continue;
+                }
+                boolean moved = false;
+                int end = start + arena[ref];
+                for (int k = start + 2; k < end; k++) {
+                    int other = arena[k];
+                    if (value[other] >= 0) {
+                        arena[start + 1] = other;
+                        arena[k] = falseLiteral;
+                        addWatch(other, ref, first);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+                ws[kept++] = ref;
+                ws[kept++] = first;
+                if (value[first] < 0) {
+                    for (i += 2; i < count; i++) {
+                        ws[kept++] = ws[i];
+                    }
+                    watchCount[falseLiteral] = kept;
+                    return ref;
+                }
+                assign(first, ref);
+            }
+            watchCount[falseLiteral] = kept;
+        }
+        return NO_CONFLICT;
+    }
+
+    // Analyses a conflict to its first unique implication point, learns the clause and backjumps
+    private void learn(int conflict) {
+        learntSize = 1;
+        int pathCount = 0;
+        int literal = -1;
+        int index = trailSize - 1;
+        int clause = conflict;
+        while (true) {
+            if (literal < 0 && clause == BINARY_CONFLICT) {
+                pathCount += visit(conflictPair[0]) + visit(conflictPair[1]);
+            } else if (clause <= -2) {
+                pathCount += visit(-2 - clause);
+            } else {
+                int start = clause + HEADER;
+                int end = start + arena[clause];
+                // The implied literal is first in its reason; a conflicting clause has none
+                for (int k = literal < 0 ? start : start + 1; k < end; k++) {
+                    pathCount += visit(arena[k]);
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            literal = trail[index--];
+            seen[literal >> 1] = false;
+            if (--pathCount == 0) {
+                break;
+            }
+            clause = reason[literal >> 1];
+        }
+        learnt[0] = literal ^ 1;
+
+        // Drop literals implied by the others, keeping the originals to clear 'seen' afterwards
+        int originalSize = learntSize;
+        int[] original = Arrays.copyOf(learnt, originalSize);
+        int kept = 1;
+        for (int i = 1; i < learntSize; i++) {
+            if (!isRedundant(learnt[i])) {
+                learnt[kept++] = learnt[i];
+            }
+        }
+        learntSize = kept;
+        for (int i = 1; i < originalSize; i++) {
+            seen[original[i] >> 1] = false;
+        }
+
+        // The literal of the highest remaining level goes second, so it is watched and backjumped to
+        int backjump = 0;
+        for (int i = 1; i < learntSize; i++) {
+            if (level[learnt[i] >> 1] > level[learnt[1] >> 1]) {
+                int swap = learnt[1];
+                learnt[1] = learnt[i];
+                learnt[i] = swap;
+            }
+        }
+        if (learntSize > 1) {
+            backjump = level[learnt[1] >> 1];
+        }
+        int lbd = lbd();
+        cancelUntil(backjump);
+        if (learntSize == 1) {
+            assign(learnt[0], NO_REASON);
+        } else if (learntSize == 2) {
+            addBinary(learnt[0], learnt[1]);
+            assign(learnt[0], -2 - learnt[1]);
+        } else {
+            assign(learnt[0], addClause(learnt, learntSize, true, lbd));
+        }
+        activityIncrement *= ACTIVITY_GROWTH;
+    }
+
+    // Marks a literal of a clause being resolved. Returns 1 if it is on the conflict level and must be resolved.
+    private int visit(int literal) {
+        int var = literal >> 1;
+        if (seen[var] || level[var] == 0) {
+            return 0;
+        }
+        seen[var] = true;
+        bump(var);
+        if (level[var] == decisionLevel) {
+            return 1;
+        }
+        if (learntSize == learnt.length) {
+            learnt = Arrays.copyOf(learnt, 2 * learntSize);
+        }
+        learnt[learntSize++] = literal;
+        return 0;
+    }
+
+    // True if every other literal of the reason of 'literal' is already in the learnt clause or fixed at level 0
+    private boolean isRedundant(int literal) {
+        int why = reason[literal >> 1];
+        if (why == NO_REASON) {
+            return false;
+        }
+        if (why <= -2) {
+            int other = -2 - why;
+            return seen[other >> 1] || level[other >> 1] == 0;
+        }
+        int start = why + HEADER;
+        int end = start + arena[why];
+        for (int k = start + 1; k < end; k++) {
+            int var = arena[k] >> 1;
+            if (!seen[var] && level[var] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lbd() {
+        if (levelStamp.length <= decisionLevel) {
+            levelStamp = new int[2 * decisionLevel + 1];
+            stamp = 0;
+        }
+        stamp++;
+        int levels = 0;
+        for (int i = 0; i < learntSize; i++) {
+            int l = level[learnt[i] >> 1];
+            if (levelStamp[l] != stamp) {
+                levelStamp[l] = stamp;
+                levels++;
+            }
+        }
+        return Math.min(levels, LBD_MASK);
+    }
+
+    private void cancelUntil(int target) {
+        if (decisionLevel <= target) {
+            return;
+        }
+        int start = levelStart[target];
+        for (int i = trailSize - 1; i >= start; i--) {
+            int literal = trail[i];
+            int var = literal >> 1;
+            value[literal] = 0;
+            value[literal ^ 1] = 0;
+            phase[var] = (literal & 1) == 0;
+            if ((literal & 1) == 0 && shown[var / size] == var % size + 1) {
+                shown[var / size] = 0;
+                listener.onCleared(var / size);
+            }
+            heapInsert(var);
+        }
+        trailSize = start;
+        propagated = start;
+        decisionLevel = target;
+    }
+
+    // Deletes the worse half of the learnt clauses by LBD, at level 0 where no clause is the reason of a decision
+    private void reduceLearnts() {
+        long[] byLbd = new long[learntCount];
+        for (int i = 0; i < learntCount; i++) {
+            byLbd[i] = (long) (arena[learnts[i] + 1] & LBD_MASK) << 32 | learnts[i];
+        }
+        Arrays.sort(byLbd);
+        int kept = 0;
+        for (int i = 0; i < byLbd.length; i++) {
+            int ref = (int) byLbd[i];
+            if (i < byLbd.length / 2 || byLbd[i] >>> 32 <= GLUE) {
+                learnts[kept++] = ref;
+            } else {
+                arena[ref + 1] |= DELETED;
+                wasted += HEADER + arena[ref];
+            }
+        }
+        learntCount = kept;
+        maxLearnts += REDUCTION_STEP;
+        if (wasted > arenaSize / 2) {
+            compactArena();
+        }
+    }
+
+    // Copies the live clauses to a fresh arena and rewatches them. Only called at level 0.
+    private void compactArena() {
+        int[] fresh = new int[Math.max(1 << 14, 2 * (arenaSize - wasted))];
+        int freshSize = 0;
+        Arrays.fill(watchCount, 0);
+        learntCount = 0;
+        for (int ref = 0; ref < arenaSize; ref += HEADER + arena[ref]) {
+            int count = arena[ref];
+            if ((arena[ref + 1] & DELETED) != 0) {
+                continue;
+            }
+            System.arraycopy(arena, ref, fresh, freshSize, HEADER + count);
+            addWatch(fresh[freshSize + HEADER], freshSize, fresh[freshSize + HEADER + 1]);
+            addWatch(fresh[freshSize + HEADER + 1], freshSize, fresh[freshSize + HEADER]);
+            if ((fresh[freshSize + 1] & LEARNT) != 0) {
+                learnts[learntCount++] = freshSize;
+            }
+            freshSize += HEADER + count;
+        }
+        arena = fresh;
+        arenaSize = freshSize;
+        wasted = 0;
+        // Level 0 assignments are never resolved on, so their reasons may point nowhere
+        for (int i = 0; i < trailSize; i++) {
+            reason[trail[i] >> 1] = NO_REASON;
+        }
+    }
+
+    private int nextVariable() {
+        while (heapSize > 0) {
+            int var = heapRemoveMax();
+            if (value[2 * var] == 0) {
+                return var;
+            }
+        }
+        return -1;
+    }
+
+    private void bump(int var) {
+        if ((activity[var] += activityIncrement) > ACTIVITY_LIMIT) {
+            for (int v = 0; v < varCount; v++) {
+                activity[v] /= ACTIVITY_LIMIT;
+            }
+            activityIncrement /= ACTIVITY_LIMIT;
+        }
+        if (heapIndex[var] >= 0) {
+            siftUp(heapIndex[var]);
+        }
+    }
+
+    private void heapInsert(int var) {
+        if (heapIndex[var] < 0) {
+            heap[heapSize] = var;
+            heapIndex[var] = heapSize;
+            siftUp(heapSize++);
+        }
+    }
+
+    private int heapRemoveMax() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            heapIndex[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        int var = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >> 1;
+            if (activity[heap[parent]] >= activity[var]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            heapIndex[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = var;
+        heapIndex[var] = position;
+    }
+
+    private void siftDown(int position) {
+        int var = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) {
+                child++;
+            }
+            if (activity[heap[child]] <= activity[var]) {
+                break;
+            }
+            heap[position] = heap[child];
+            heapIndex[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = var;
+        heapIndex[var] = position;
+    }
+
+    /**
+     * Returns the i-th term (from 1) of the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...
+     */
+    static int luby(int i) {
+        while (true) {
+            int k = 1;
+            while ((1 << k) - 1 < i) {
+                k++;
+            }
+            if (i == (1 << k) - 1) {
+                return 1 << (k - 1);
+            }
+            i -= (1 << (k - 1)) - 1;
+        }
+    }
+}
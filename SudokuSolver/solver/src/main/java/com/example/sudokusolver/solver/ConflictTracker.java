@@ -0,0 +1,186 @@
+package com.example.sudokusolver.solver;
+
+import java.util.Arrays;
+
+/**
+ * Class: ConflictTracker
+ *
+ * Description:
+ * Incremental bookkeeping for a board that is edited by hand, where conflicting digits are allowed to exist.
+ * For every row, column and box it keeps how often each digit occurs, plus a bitmask of the digits present.
+ * setValue() touches only the three units of the cell, and every query reads at most three units, so valid-digit
+ * and conflict lookups are constant time and allocate nothing.
+ */
+public final class ConflictTracker {
+    private final Geometry geometry;
+    private final int size;
+    private final int[] values;
+    // Occurrences of digit d in unit u live at [u * size + d - 1]
+    private final int[] unitCounts;
+    private final int[] unitMasks;
+
+    public ConflictTracker() {
+        this(Geometry.CLASSIC);
+    }
+
+    public ConflictTracker(Geometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.size;
+        this.values = new int[geometry.cells];
+        this.unitCounts = new int[geometry.unitCount * size];
+        this.unitMasks = new int[geometry.unitCount];
+    }
+
+    public ConflictTracker(int[] board) {
+        this(Geometry.forCells(board.length));
+        load(board);
+    }
+
+    public Geometry geometry() {
+        return geometry;
+    }
+
+    /**
+     * Example Call:
+     * tracker.load(board);
+     *
+     * Parameters:
+     * @param board (int[]): The board as geometry().cells cells in row-major order, 0 for empty cells.
+     *
+     * Description:
+     * Replaces the tracked board with 'board'.
+     */
+    public void load(int[] board) {
+        if (board.length != values.length) {
+            throw new IllegalArgumentException("Expected " + values.length + " cells but got " + board.length);
+        }
+        clear();
+        for (int cell = 0; cell < values.length; cell++) {
+            setValue(cell, board[cell]);
+        }
+    }
+
+    /**
+     * Replaces the tracked board with the values of 'board'.
+     */
+    public void load(Board board) {
+        if (board.geometry() != geometry) {
+            throw new IllegalArgumentException("Expected a " + geometry + " board but got " + board.geometry());
+        }
+        clear();
+        for (int cell = 0; cell < values.length; cell++) {
+            setValue(cell, board.get(cell));
+        }
+    }
+
+    public int value(int cell) {
+        return values[cell];
+    }
+
+    /**
+     * Example Call:
+     * int previous = tracker.setValue(cell, 5);
+     *
+     * Parameters:
+     * @param cell (int): The cell index, row * size + col.
+     * @param value (int): The new value, 0 to clear the cell.
+     *
+     * Returns:
+     * @return int - The value the cell held before.
+     */
+    public int setValue(int cell, int value) {
+        if (value < 0 || value > size) {
+            throw new IllegalArgumentException("Invalid value " + value + " at cell " + cell);
+        }
+        int previous = values[cell];
+        if (previous == value) {
+            return previous;
+        }
+        int row = geometry.rowOf[cell];
+        int col = size + geometry.colOf[cell];
+        int box = 2 * size + geometry.boxOf[cell];
+        if (previous != 0) {
+            remove(row, previous);
+            remove(col, previous);
+            remove(box, previous);
+        }
+        if (value != 0) {
+            add(row, value);
+            add(col, value);
+            add(box, value);
+        }
+        values[cell] = value;
+        return previous;
+    }
+
+    /**
+     * Example Call:
+     * int mask = tracker.validDigits(cell);
+     *
+     * Parameters:
+     * @param cell (int): The cell index, row * size + col.
+     *
+     * Returns:
+     * @return int - Bitmask of the digits that can go in 'cell' without repeating a digit of its row, column or
+     * box. The cell's own current value does not count against itself.
+     */
+    public int validDigits(int cell) {
+        int used = unitMasks[geometry.rowOf[cell]]
+                | unitMasks[size + geometry.colOf[cell]]
+                | unitMasks[2 * size + geometry.boxOf[cell]];
+        int value = values[cell];
+        if (value != 0 && conflictCount(cell) == 0) {
+            used &= ~SudokuRules.bitOf(value);
+        }
+        return ~used & geometry.allDigits;
+    }
+
+    public boolean canPlace(int cell, int digit) {
+        return (validDigits(cell) & SudokuRules.bitOf(digit)) != 0;
+    }
+
+    /**
+     * Example Call:
+     * int conflicts = tracker.conflictCount(cell);
+     *
+     * Parameters:
+     * @param cell (int): The cell index, row * size + col.
+     *
+     * Returns:
+     * @return int - How many other occurrences of the cell's digit there are across its row, column and box.
+     * A peer that shares both a line and the box with the cell is counted once per shared unit. 0 for empty cells.
+     */
+    public int conflictCount(int cell) {
+        int value = values[cell];
+        if (value == 0) {
+            return 0;
+        }
+        int digit = value - 1;
+        return unitCounts[geometry.rowOf[cell] * size + digit]
+                + unitCounts[(size + geometry.colOf[cell]) * size + digit]
+                + unitCounts[(2 * size + geometry.boxOf[cell]) * size + digit]
+                - 3;
+    }
+
+    public boolean isConflicting(int cell) {
+        return conflictCount(cell) > 0;
+    }
+
+    private void clear() {
+        Arrays.fill(values, 0);
+        Arrays.fill(unitCounts, 0);
+        Arrays.fill(unitMasks, 0);
+    }
+
+    private void add(int unit, int digit) {
+        if (unitCounts[unit * size + digit - 1]++ == 0) {
+            unitMasks[unit] |= SudokuRules.bitOf(digit);
+        }
+    }
+
+    private void remove(int unit, int digit) {
+        if (--unitCounts[unit * size + digit - 1] == 0) {
+            unitMasks[unit] &= ~SudokuRules.bitOf(digit);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: DancingLinksSolver
+ *
+ * Description:
+ * Solves the board as an exact-cover problem with Knuth's Algorithm X, using Dancing Links.
+ * The matrix has one row per (cell, digit) candidate (729 rows on a 9x9 board) and one column per constraint
+ * (324 columns):
+ *   1. Cell: every cell holds exactly one digit.
+ *   2. Row: every row holds each digit exactly once.
+ *   3. Column: every column holds each digit exactly once.
+ *   4. Box: every box holds each digit exactly once.
+ * The links live in flat int arrays and are built once per instance. Every solve covers the givens, searches by
+ * always branching on the column with the fewest remaining rows, and then uncovers everything again, so the matrix
+ * is back in its initial state for the next call.
+ * getStats() counts search nodes, rows tried and taken back (backtracks), column sizes compared (checks) and the
+ * matrix rows unlinked by covering during the search (eliminations).
+ */
+public class DancingLinksSolver implements SudokuSolver {
+    private static final int ROOT = 0;
+
+    private final Geometry geometry;
+    private final int cells;
+    private final int digits;
+    private final int constraints;
+
+    // Node arrays. Index 0 is the root, 1..constraints are the column headers, the rest are matrix nodes.
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] candidateOf;
+    private final int[] size;
+    private final int[] firstNode;
+
+    private final int[] solution;
+    private final int[] result;
+    private final int[] givenRows;
+    private final SolverStats stats = new SolverStats();
+    private SolverListener listener;
+    private volatile boolean cancelled;
+
+    public DancingLinksSolver() {
+        this(Geometry.CLASSIC);
+    }
+
+    public DancingLinksSolver(Geometry geometry) {
+        this.geometry = geometry;
+        this.cells = geometry.cells;
+        this.digits = geometry.size;
+        this.constraints = 4 * cells;
+        int candidates = cells * digits;
+        size = new int[constraints + 1];
+        firstNode = new int[candidates];
+        solution = new int[cells];
+        result = new int[cells];
+        givenRows = new int[cells];
+        int nodes = 1 + constraints + candidates * 4;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        candidateOf = new int[nodes];
+        build();
+    }
+
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    private void build() {
+        for (int header = 0; header <= constraints; header++) {
+            left[header] = header == 0 ? constraints : header - 1;
+            right[header] = header == constraints ? 0 : header + 1;
+            up[header] = header;
+            down[header] = header;
+            column[header] = header;
+        }
+
+        int node = constraints + 1;
+        for (int cell = 0; cell < cells; cell++) {
+            int row = geometry.rowOf(cell);
+            int col = geometry.colOf(cell);
+            int box = geometry.boxOf(cell);
+            for (int d = 0; d < digits; d++) {
+                int candidate = cell * digits + d;
+                int first = node;
+                firstNode[candidate] = first;
+                int[] headers = {
+                        1 + cell,
+                        1 + cells + row * digits + d,
+                        1 + 2 * cells + col * digits + d,
+                        1 + 3 * cells + box * digits + d
+                };
+                for (int i = 0; i < headers.length; i++) {
+                    int header = headers[i];
+                    column[node] = header;
+                    candidateOf[node] = candidate;
+                    // Append to the bottom of the column
+                    up[node] = up[header];
+                    down[node] = header;
+                    down[up[header]] = node;
+                    up[header] = node;
+                    size[header]++;
+                    // Link into the circular row list
+                    left[node] = i == 0 ? first + headers.length - 1 : node - 1;
+                    right[node] = i == headers.length - 1 ? first : node + 1;
+                    node++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = solver.solve(grid);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Filled in place when solved.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved, false if the givens conflict or no solution exists.
+     *
+     * Description:
+     * Selects the matrix row of every given, then runs Algorithm X on the remaining columns.
+     */
+    @Override
+    public boolean solve(int[] board) {
+        boolean solved = false;
+        if (SolverStats.ENABLED) {
+            stats.begin();
+        }
+        try {
+            solved = solveGivens(board);
+            return solved;
+        } finally {
+            cancelled = false;
+            if (SolverStats.ENABLED) {
+                stats.end(solved);
+            }
+        }
+    }
+
+    private boolean solveGivens(int[] board) {
+        if (board.length != cells) {
+            throw new IllegalArgumentException("Expected " + cells + " cells but got " + board.length);
+        }
+
+        int givens = 0;
+        boolean consistent = true;
+        for (int cell = 0; cell < cells && consistent; cell++) {
+            int value = board[cell];
+            if (value < 0 || value > digits) {
+                uncoverGivens(givens);
+                throw new IllegalArgumentException("Invalid value " + value + " at cell " + cell);
+            }
+            if (value != 0) {
+                int rowNode = firstNode[cell * digits + value - 1];
+                if (isRemoved(rowNode)) {
+                    // A previous given already satisfies one of this row's constraints
+                    consistent = false;
+                } else {
+                    givenRows[givens++] = rowNode;
+                    coverRow(rowNode);
+                }
+            }
+        }
+
+        if (SolverStats.ENABLED) {
+            // Rows removed by the givens are not search work
+            stats.eliminations = 0;
+        }
+        boolean solved = consistent && search(0);
+        uncoverGivens(givens);
+
+        if (solved) {
+            for (int cell = 0; cell < cells; cell++) {
+                if (board[cell] == 0) {
+                    board[cell] = result[cell];
+                }
+            }
+        }
+        return solved;
+    }
+
+    private boolean search(int depth) {
+        if (SolverStats.ENABLED) {
+            stats.enter(depth);
+        }
+        if (right[ROOT] == ROOT) {
+            for (int cell = 0; cell < cells; cell++) {
+                result[cell] = 0;
+            }
+            for (int i = 0; i < depth; i++) {
+                int candidate = solution[i];
+                result[candidate / digits] = candidate % digits + 1;
+            }
+            return true;
+        }
+
+        int chosen = right[ROOT];
+        int compared = 0;
+        for (int header = right[chosen]; header != ROOT; header = right[header]) {
+            compared++;
+            if (size[header] < size[chosen]) {
+                chosen = header;
+                if (size[chosen] <= 1) {
+                    break;
+                }
+            }
+        }
+        if (SolverStats.ENABLED) {
+            stats.checks += compared;
+        }
+        if (size[chosen] == 0 || cancelled) {
+            return false;
+        }
+
+        cover(chosen);
+        boolean found = false;
+        for (int rowNode = down[chosen]; rowNode != chosen && !found; rowNode = down[rowNode]) {
+            int candidate = candidateOf[rowNode];
+            solution[depth] = candidate;
+            for (int node = right[rowNode]; node != rowNode; node = right[node]) {
+                cover(column[node]);
+            }
+            if (listener != null) {
+                listener.onPlaced(candidate / digits, candidate % digits + 1);
+            }
+            found = search(depth + 1);
+            if (SolverStats.ENABLED && !found) {
+                stats.backtracks++;
+            }
+            if (!found && listener != null) {
+                listener.onCleared(candidate / digits);
+            }
+            for (int node = left[rowNode]; node != rowNode; node = left[node]) {
+                uncover(column[node]);
+            }
+        }
+        uncover(chosen);
+        return found;
+    }
+
+    private boolean isRemoved(int rowNode) {
+        int node = rowNode;
+        do {
+            int header = column[node];
+            // Either the node was unlinked from its column or the whole column was covered
+            if (down[up[node]] != node || right[left[header]] != header) {
+                return true;
+            }
+            node = right[node];
+        } while (node != rowNode);
+        return false;
+    }
+
+    private void coverRow(int rowNode) {
+        int node = rowNode;
+        do {
+            cover(column[node]);
+            node = right[node];
+        } while (node != rowNode);
+    }
+
+    private void uncoverRow(int rowNode) {
+        int node = left[rowNode];
+        while (true) {
+            uncover(column[node]);
+            if (node == rowNode) {
+                break;
+            }
+            node = left[node];
+        }
+    }
+
+    private void uncoverGivens(int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            uncoverRow(givenRows[i]);
+        }
+    }
+
+    private void cover(int header) {
+        right[left[header]] = right[header];
+        left[right[header]] = left[header];
+        int rows = 0;
+        for (int rowNode = down[header]; rowNode != header; rowNode = down[rowNode]) {
+            rows++;
+            for (int node = right[rowNode]; node != rowNode; node = right[node]) {
+                down[up[node]] = down[node];
+                up[down[node]] = up[node];
+                size[column[node]]--;
+            }
+        }
+        if (SolverStats.ENABLED) {
+            stats.eliminations += rows;
+        }
+    }
+
+    private void uncover(int header) {
+        for (int rowNode = up[header]; rowNode != header; rowNode = up[rowNode]) {
+            for (int node = left[rowNode]; node != rowNode; node = left[node]) {
+                size[column[node]]++;
+                down[up[node]] = node;
+                up[down[node]] = node;
+            }
+        }
+        right[left[header]] = header;
+        left[right[header]] = header;
+    }
+}
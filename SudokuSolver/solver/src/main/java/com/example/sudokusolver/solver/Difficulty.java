@@ -0,0 +1,39 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Enum: Difficulty
+ *
+ * Description:
+ * How hard a puzzle is for a human, judged by the techniques needed to solve it (see PuzzleGenerator.grade).
+ *   1. EASY: Naked and hidden singles are enough.
+ *   2. MEDIUM: Also needs pointing or claiming (locked candidates), but never a guess.
+ *   3. HARD: The deductions stall; a few guesses are needed.
+ *   4. EXPERT: Many guesses are needed.
+ * 'minClues' is how far the generator thins a 9x9 grid out for the level: easy puzzles keep more clues.
+ */
+public enum Difficulty {
+    EASY(36),
+    MEDIUM(28),
+    HARD(17),
+    EXPERT(17);
+
+    public final int minClues;
+
+    Difficulty(int minClues) {
+        this.minClues = minClues;
+    }
+
+    /**
+     * Example Call:
+     * int minClues = Difficulty.HARD.minClues(Geometry.of(4));
+     *
+     * Parameters:
+     * @param geometry (Geometry): The board size the puzzle is generated for.
+     *
+     * Returns:
+     * @return int - 'minClues' scaled from 81 cells to the cells of 'geometry', rounded up.
+     */
+    public int minClues(Geometry geometry) {
+        return (minClues * geometry.cells + SudokuRules.CELLS - 1) / SudokuRules.CELLS;
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.sudokusolver.solver;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Class: EditJournal
+ *
+ * Description:
+ * An append-only write-ahead log of board changes, kept as numbered segment files ('journal-<n>.log') in one
+ * directory. Every change is one small record: a cell edit (slot, cell, value, play time) takes 19 bytes, a whole
+ * board (a new game or an explicit save) carries the board's snapshot(). Each record ends with a CRC32 of its bytes.
+ * Records are appended to the newest segment with a single unbuffered write, so an edit is in the file system as
+ * soon as appendCell() returns and survives the process being killed. The records hold absolute values, so replaying
+ * a segment twice, or over a store that already contains some of its changes, gives the same result; a store is
+ * brought up to date by replaying the closed segments over it in order and then deleting them (compaction).
+ * rotate() finishes the segment being written and starts the next one, so compaction never reads a file that is still
+ * growing. A record cut short by a crash, or one whose checksum does not match, ends the replay of its segment.
+ * Appending is not thread-safe; replay() and delete() only touch closed segments and may run on another thread.
+ */
+public final class EditJournal implements Closeable {
+    /**
+     * Interface: Handler
+     *
+     * Description:
+     * Receives the records of a replay in the order they were appended.
+     */
+    public interface Handler {
+        void onBoard(int slot, Board board, long elapsedMillis);
+
+        void onCell(int slot, int cell, int value, long elapsedMillis);
+    }
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+    private static final byte TYPE_BOARD = 1;
+    private static final byte TYPE_CELL = 2;
+    // type, slot, payload length
+    private static final int HEADER_BYTES = 4;
+    private static final int CRC_BYTES = 4;
+    private static final int CELL_PAYLOAD_BYTES = 11;
+
+    private final File directory;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer cellRecord = ByteBuffer.allocate(HEADER_BYTES + CELL_PAYLOAD_BYTES + CRC_BYTES);
+    private int segment;
+    private FileOutputStream out;
+    private long size;
+
+    private EditJournal(File directory, int segment) throws IOException {
+        this.directory = directory;
+        this.segment = segment;
+        out = new FileOutputStream(segmentFile(directory, segment), true);
+    }
+
+    /**
+     * Example Call:
+     * EditJournal journal = EditJournal.open(new File(filesDir, "journal"));
+     *
+     * Parameters:
+     * @param directory (File): The directory of the segments, created if needed.
+     *
+     * Returns:
+     * @return EditJournal - A journal appending to a new segment after every existing one. The existing segments are
+     * left to be replayed: all of them lie below activeSegment().
+     */
+    public static EditJournal open(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create journal directory " + directory);
+        }
+        List<Integer> existing = segments(directory, Integer.MAX_VALUE);
+        int next = existing.isEmpty() ? 0 : existing.get(existing.size() - 1) + 1;
+        return new EditJournal(directory, next);
+    }
+
+    /**
+     * Returns the number of the segment being appended to. Every segment below it is closed.
+     */
+    public int activeSegment() {
+        return segment;
+    }
+
+    /**
+     * Returns how many bytes have been appended to the active segment.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Example Call:
+     * journal.appendBoard(slot, board, elapsedMillis);
+     *
+     * Parameters:
+     * @param slot (int): The save slot the board replaces, 0 to 255.
+     * @param board (Board): The whole board, givens included.
+     * @param elapsedMillis (long): The play time stored with the board.
+     */
+    public void appendBoard(int slot, Board board, long elapsedMillis) throws IOException {
+        byte[] snapshot = board.snapshot();
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + 8 + snapshot.length + CRC_BYTES);
+        record.put(TYPE_BOARD).put((byte) slot).putShort((short) (8 + snapshot.length));
+        record.putLong(elapsedMillis).put(snapshot);
+        write(record);
+    }
+
+    /**
+     * Example Call:
+     * journal.appendCell(slot, cell, value, elapsedMillis);
+     *
+     * Parameters:
+     * @param slot (int): The save slot of the board that changed, 0 to 255.
+     * @param cell (int): The cell that changed.
+     * @param value (int): Its new value, 0 if it was cleared.
+     * @param elapsedMillis (long): The play time at the change.
+     */
+    public void appendCell(int slot, int cell, int value, long elapsedMillis) throws IOException {
+        cellRecord.clear();
+        cellRecord.put(TYPE_CELL).put((byte) slot).putShort((short) CELL_PAYLOAD_BYTES);
+        cellRecord.putShort((short) cell).put((byte) value).putLong(elapsedMillis);
+        write(cellRecord);
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+        crc.reset();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        out.write(record.array(), 0, record.position());
+        size += record.position();
+    }
+
+    /**
+     * Example Call:
+     * Closeable finished = journal.rotate();
+     * int below = journal.activeSegment();
+     *
+     * Returns:
+     * @return Closeable - The segment that was being written. Closing it flushes it to the storage device, which can
+     * block, so callers on a UI thread close it on a background thread, before its segment is replayed.
+     *
+     * Description:
+     * Starts the next segment. Every segment below the new activeSegment() is then finished and may be replayed and
+     * deleted once its Closeable is closed.
+     */
+    public Closeable rotate() throws IOException {
+        FileOutputStream finished = out;
+        out = new FileOutputStream(segmentFile(directory, segment + 1), true);
+        segment++;
+        size = 0;
+        return () -> {
+            try {
+                finished.getFD().sync();
+            } finally {
+                finished.close();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Example Call:
+     * int records = EditJournal.replay(directory, below, handler);
+     *
+     * Parameters:
+     * @param directory (File): The directory of the segments.
+     * @param below (int): Only segments numbered below this are replayed, usually activeSegment() after rotate().
+     * @param handler (Handler): Receives the records.
+     *
+     * Returns:
+     * @return int - How many records were replayed. Records after a damaged one in the same segment are skipped.
+     */
+    public static int replay(File directory, int below, Handler handler) throws IOException {
+        int records = 0;
+        CRC32 crc = new CRC32();
+        for (int number : segments(directory, below)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(segmentFile(directory, number))))) {
+                byte[] record = new byte[HEADER_BYTES];
+                while (true) {
+                    int type = in.read();
+                    if (type < 0) {
+                        break;
+                    }
+                    int slot;
+                    int length;
+                    try {
+                        slot = in.readUnsignedByte();
+                        length = in.readUnsignedShort();
+                        if (record.length < HEADER_BYTES + length) {
+                            record = new byte[HEADER_BYTES + length];
+                        }
+                        in.readFully(record, HEADER_BYTES, length);
+                        record[0] = (byte) type;
+                        record[1] = (byte) slot;
+                        record[2] = (byte) (length >>> 8);
+                        record[3] = (byte) length;
+                        crc.reset();
+                        crc.update(record, 0, HEADER_BYTES + length);
+                        if (in.readInt() != (int) crc.getValue()) {
+                            break;
+                        }
+                    } catch (EOFException e) {
+                        // The tail of a segment that was being written when the process died
+                        break;
+                    }
+                    if (!dispatch(type, slot, ByteBuffer.wrap(record, HEADER_BYTES, length), handler)) {
+                        break;
+                    }
+                    records++;
+                }
+            }
+        }
+        return records;
+    }
+
+    // Returns false for a record this version cannot read
+    private static boolean dispatch(int type, int slot, ByteBuffer payload, Handler handler) {
+        if (type == TYPE_CELL && payload.remaining() == CELL_PAYLOAD_BYTES) {
+            int cell = payload.getShort() & 0xffff;
+            int value = payload.get();
+            handler.onCell(slot, cell, value, payload.getLong());
+            return true;
+        }
+        if (type == TYPE_BOARD && payload.remaining() > 8) {
+            long elapsedMillis = payload.getLong();
+            byte[] snapshot = new byte[payload.remaining()];
+            payload.get(snapshot);
+            try {
+                handler.onBoard(slot, Board.restore(snapshot), elapsedMillis);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deletes every segment numbered below 'below', once its records are safely in the store.
+     */
+    public static void delete(File directory, int below) throws IOException {
+        for (int number : segments(directory, below)) {
+            File file = segmentFile(directory, number);
+            if (!file.delete() && file.exists()) {
+                throw new IOException("Cannot delete journal segment " + file);
+            }
+        }
+    }
+
+    // The numbers of the segments below 'below', in ascending order
+    private static List<Integer> segments(File directory, int below) {
+        List<Integer> numbers = new ArrayList<>();
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    try {
+                        int number = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                        if (number < below) {
+                            numbers.add(number);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Not a segment
+                    }
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    private static File segmentFile(File directory, int number) {
+        return new File(directory, PREFIX + number + SUFFIX);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: FallbackSolver
+ *
+ * Description:
+ * Runs a primary engine on a budget and hands the board to a fallback engine when the budget runs out. The budget
+ * is a number of placements (search nodes, as the listener sees them) and a time limit, checked every
+ * TIME_CHECK_INTERVAL placements. Backtracking engines solve ordinary boards fastest, but an adversarial or large
+ * board can send them into an exponential search; the fallback, usually a CdclSolver, then takes over from the
+ * original board. Placements the primary left on the board are reported to the listener as cleared before the
+ * fallback starts, so a recorded trace stays consistent. The stats add up both engines.
+ */
+public class FallbackSolver implements SudokuSolver {
+    static final int TIME_CHECK_INTERVAL = 1024;
+
+    private final SudokuSolver primary;
+    private final SudokuSolver fallback;
+    private final long placementBudget;
+    private final long timeBudgetNanos;
+    private final SolverStats stats = new SolverStats();
+    private SolverListener listener;
+    private volatile boolean cancelled;
+    private volatile boolean inFallback;
+    private boolean usedFallback;
+
+    // The budget of the running primary solve, and the board as its listener saw it
+    private long placements;
+    private long deadline;
+    private boolean overBudget;
+    private int[] shown;
+
+    /**
+     * Example Call:
+     * SudokuSolver solver = new FallbackSolver(new BitmaskSolver(), new CdclSolver(), 100_000, 1000);
+     *
+     * Parameters:
+     * @param primary (SudokuSolver): The engine tried first.
+     * @param fallback (SudokuSolver): The engine that solves the board if the primary runs out of its budget.
+     * @param placementBudget (long): How many placements the primary may make.
+     * @param timeBudgetMillis (long): How long the primary may search.
+     */
+    public FallbackSolver(SudokuSolver primary, SudokuSolver fallback, long placementBudget, long timeBudgetMillis) {
+        this.primary = primary;
+        this.fallback = fallback;
+        this.placementBudget = placementBudget;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+        primary.setListener(new SolverListener() {
+            @Override
+            public void onPlaced(int cell, int digit) {
+                shown[cell] = digit;
+                if (listener != null) {
+                    listener.onPlaced(cell, digit);
+                }
+                placements++;
+                if (!overBudget && (placements > placementBudget
+                        || placements % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline)) {
+                    overBudget = true;
+                    FallbackSolver.this.primary.cancel();
+                }
+            }
+
+            @Override
+            public void onCleared(int cell) {
+                shown[cell] = 0;
+                if (listener != null) {
+                    listener.onCleared(cell);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+        fallback.setListener(listener);
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns true if the primary ran out of its budget in the last solve and the fallback was asked.
+     */
+    public boolean wasFallbackUsed() {
+        return usedFallback;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        if (inFallback) {
+            fallback.cancel();
+        } else {
+            primary.cancel();
+        }
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = solver.solve(grid);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Filled in place when solved.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved by either engine, false if the givens conflict, no solution
+     * exists or the solve was cancelled.
+     */
+    @Override
+    public boolean solve(int[] board) {
+        boolean solved = false;
+        usedFallback = false;
+        if (SolverStats.ENABLED) {
+            stats.begin();
+        }
+        try {
+            shown = board.clone();
+            placements = 0;
+            overBudget = false;
+            deadline = System.nanoTime() + timeBudgetNanos;
+            solved = primary.solve(board);
+            if (SolverStats.ENABLED) {
+                stats.add(primary.getStats());
+            }
+            if (solved || !overBudget) {
+                return solved;
+            }
+
+            // Take back what the cancelled search left on the board, then start over with the fallback
+            if (listener != null) {
+                for (int cell = 0; cell < board.length; cell++) {
+                    if (shown[cell] != board[cell]) {
+                        listener.onCleared(cell);
+                    }
+                }
+            }
+            usedFallback = true;
+            inFallback = true;
+            if (cancelled) {
+                // A cancel that came in while switching engines
+                fallback.cancel();
+            }
+            solved = fallback.solve(board);
+            if (SolverStats.ENABLED) {
+                stats.add(fallback.getStats());
+            }
+            return solved;
+        } finally {
+            inFallback = false;
+            cancelled = false;
+            if (SolverStats.ENABLED) {
+                stats.end(solved);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: GameClock
+ *
+ * Description:
+ * Play time of one game, measured against a monotonic time source supplied by the caller (on Android,
+ * SystemClock.elapsedRealtime()), so changes to the wall clock never move it. The clock only stores where it was
+ * when it last started or paused; nothing has to run while time passes, and a display only needs waking once per
+ * second, at the moment millisUntilNextTick() says the shown value changes.
+ */
+public final class GameClock {
+    public static final long TICK_MILLIS = 1000;
+
+    private long accumulated;
+    private long runningSince;
+    private boolean running;
+
+    /**
+     * Resets the clock to zero and starts it at 'now'.
+     */
+    public void start(long now) {
+        accumulated = 0;
+        runningSince = now;
+        running = true;
+    }
+
+    /**
+     * Stops the clock at 'now', keeping the time counted so far. Does nothing if the clock is not running.
+     */
+    public void pause(long now) {
+        if (running) {
+            accumulated += now - runningSince;
+            running = false;
+        }
+    }
+
+    /**
+     * Continues counting from 'now'. Does nothing if the clock is already running.
+     */
+    public void resume(long now) {
+        if (!running) {
+            runningSince = now;
+            running = true;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Example Call:
+     * clock.setElapsedMillis(savedMillis, SystemClock.elapsedRealtime());
+     *
+     * Parameters:
+     * @param elapsedMillis (long): The play time to continue from, e.g. the time stored with a saved game.
+     * @param now (long): The current reading of the time source.
+     *
+     * Description:
+     * Sets the counted time without changing whether the clock is running.
+     */
+    public void setElapsedMillis(long elapsedMillis, long now) {
+        if (elapsedMillis < 0) {
+            throw new IllegalArgumentException("Negative elapsed time " + elapsedMillis);
+        }
+        accumulated = elapsedMillis;
+        runningSince = now;
+    }
+
+    public long elapsedMillis(long now) {
+        return running ? accumulated + (now - runningSince) : accumulated;
+    }
+
+    /**
+     * Example Call:
+     * handler.postDelayed(tick, clock.millisUntilNextTick(now));
+     *
+     * Returns:
+     * @return long - The time until the elapsed time reaches the next whole second, between 1 and TICK_MILLIS.
+     */
+    public long millisUntilNextTick(long now) {
+        return TICK_MILLIS - elapsedMillis(now) % TICK_MILLIS;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: Geometry
+ *
+ * Description:
+ * The shape of an N x N board with boxes of boxSize x boxSize cells, for box sizes MIN_BOX_SIZE to MAX_BOX_SIZE
+ * (4x4 up to 25x25 boards). Cells are numbered row-major from 0, digits run from 1 to size, and a set of digits is an
+ * int bitmask where bit (digit - 1) stands for the digit, which fits every supported size.
+ * All lookup tables (row, column and box of each cell, the cells of each unit, the peers of each cell) are built
+ * once per geometry, so use the shared instances from of() rather than building new ones.
+ * SudokuRules keeps the classic 9x9 geometry available as compile-time constants.
+ */
+public final class Geometry {
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 5;
+
+    private static final Geometry[] INSTANCES = new Geometry[MAX_BOX_SIZE + 1];
+
+    static {
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+            INSTANCES[boxSize] = new Geometry(boxSize);
+        }
+    }
+
+    public static final Geometry CLASSIC = INSTANCES[3];
+
+    public final int boxSize;
+    public final int size;
+    public final int cells;
+    public final int allDigits;
+    public final int peerCount;
+    // Units 0..size-1 are the rows, then the columns, then the boxes
+    public final int unitCount;
+
+    final int[] rowOf;
+    final int[] colOf;
+    final int[] boxOf;
+    final int[][] units;
+    final int[][] peers;
+    // Every box/line intersection: the boxSize shared cells, the other cells of the box and the other cells of the line
+    final int intersections;
+    final int[][] shared;
+    final int[][] boxRest;
+    final int[][] lineRest;
+
+    private Geometry(int boxSize) {
+        this.boxSize = boxSize;
+        this.size = boxSize * boxSize;
+        this.cells = size * size;
+        this.allDigits = (int) ((1L << size) - 1);
+        this.peerCount = 3 * (size - 1) - 2 * (boxSize - 1);
+        this.unitCount = 3 * size;
+        this.rowOf = new int[cells];
+        this.colOf = new int[cells];
+        this.boxOf = new int[cells];
+        this.units = new int[unitCount][size];
+        this.peers = new int[cells][];
+
+        int[] unitFill = new int[unitCount];
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            int box = (row / boxSize) * boxSize + (col / boxSize);
+            rowOf[cell] = row;
+            colOf[cell] = col;
+            boxOf[cell] = box;
+            units[row][unitFill[row]++] = cell;
+            units[size + col][unitFill[size + col]++] = cell;
+            units[2 * size + box][unitFill[2 * size + box]++] = cell;
+        }
+
+        for (int cell = 0; cell < cells; cell++) {
+            int[] cellPeers = new int[peerCount];
+            int count = 0;
+            for (int other = 0; other < cells; other++) {
+                if (other != cell && (rowOf[other] == rowOf[cell] || colOf[other] == colOf[cell]
+                        || boxOf[other] == boxOf[cell])) {
+                    cellPeers[count++] = other;
+                }
+            }
+            peers[cell] = cellPeers;
+        }
+
+        this.intersections = 2 * size * boxSize;
+        this.shared = new int[intersections][boxSize];
+        this.boxRest = new int[intersections][size - boxSize];
+        this.lineRest = new int[intersections][size - boxSize];
+        int index = 0;
+        for (int box = 0; box < size; box++) {
+            for (int line = 0; line < 2 * boxSize; line++) {
+                int lineUnit = line < boxSize
+                        ? (box / boxSize) * boxSize + line
+                        : size + (box % boxSize) * boxSize + (line - boxSize);
+                int[] boxCells = units[2 * size + box];
+                int[] lineCells = units[lineUnit];
+                int sharedCount = 0;
+                int boxRestCount = 0;
+                int lineRestCount = 0;
+                for (int cell : boxCells) {
+                    if (contains(lineCells, cell)) {
+                        shared[index][sharedCount++] = cell;
+                    } else {
+                        boxRest[index][boxRestCount++] = cell;
+                    }
+                }
+                for (int cell : lineCells) {
+                    if (!contains(boxCells, cell)) {
+                        lineRest[index][lineRestCount++] = cell;
+                    }
+                }
+                index++;
+            }
+        }
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int c : cells) {
+            if (c == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Example Call:
+     * Geometry geometry = Geometry.of(4);
+     *
+     * Parameters:
+     * @param boxSize (int): The width of a box, from MIN_BOX_SIZE to MAX_BOX_SIZE. 4 gives a 16x16 board.
+     *
+     * Returns:
+     * @return Geometry - The shared geometry for that box size.
+     */
+    public static Geometry of(int boxSize) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Unsupported box size " + boxSize);
+        }
+        return INSTANCES[boxSize];
+    }
+
+    /**
+     * Example Call:
+     * Geometry geometry = Geometry.forCells(board.length);
+     *
+     * Parameters:
+     * @param cells (int): The number of cells of a board.
+     *
+     * Returns:
+     * @return Geometry - The geometry whose boards have exactly that many cells.
+     */
+    public static Geometry forCells(int cells) {
+        for (int boxSize = MIN_BOX_SIZE; boxSize <= MAX_BOX_SIZE; boxSize++) {
+            if (INSTANCES[boxSize].cells == cells) {
+                return INSTANCES[boxSize];
+            }
+        }
+        throw new IllegalArgumentException("No supported board has " + cells + " cells");
+    }
+
+    public int rowOf(int cell) {
+        return rowOf[cell];
+    }
+
+    public int colOf(int cell) {
+        return colOf[cell];
+    }
+
+    public int boxOf(int cell) {
+        return boxOf[cell];
+    }
+
+    /**
+     * Returns the index-th of the peerCount cells that share a row, column or box with 'cell'.
+     */
+    public int peerOf(int cell, int index) {
+        return peers[cell][index];
+    }
+
+    /**
+     * Returns the index-th cell of 'unit' (rows first, then columns, then boxes).
+     */
+    public int unitCell(int unit, int index) {
+        return units[unit][index];
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = geometry.isSolved(grid);
+     *
+     * Parameters:
+     * @param grid (int[]): The board as 'cells' values in row-major order.
+     *
+     * Returns:
+     * @return boolean - True if every cell is filled and no row, column or box repeats a digit.
+     */
+    public boolean isSolved(int[] grid) {
+        if (grid.length != cells) {
+            return false;
+        }
+        for (int[] unit : units) {
+            int seen = 0;
+            for (int cell : unit) {
+                int value = grid[cell];
+                if (value < 1 || value > size) {
+                    return false;
+                }
+                seen |= 1 << (value - 1);
+            }
+            if (seen != allDigits) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Throws IllegalArgumentException unless 'board' has this geometry's cell count and only values 0 to size.
+     */
+    public void checkBoard(int[] board) {
+        if (board.length != cells) {
+            throw new IllegalArgumentException("Expected " + cells + " cells but got " + board.length);
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            if (board[cell] < 0 || board[cell] > size) {
+                throw new IllegalArgumentException("Invalid value " + board[cell] + " at cell " + cell);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size;
+    }
+}
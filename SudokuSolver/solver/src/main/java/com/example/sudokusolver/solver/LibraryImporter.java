@@ -0,0 +1,177 @@
+package com.example.sudokusolver.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Class: LibraryImporter
+ *
+ * Description:
+ * Turns a puzzle collection in the common text format (one puzzle per line, one character per cell, '.' or '0' for
+ * empty cells) into a PuzzleLibrary. Lines are read, checked and written one at a time, so a file of millions of
+ * puzzles never has to fit in memory. Every puzzle must have exactly one solution (checked with SolutionCounter);
+ * the others are rejected and counted. Accepted puzzles are graded with PuzzleGenerator.grade() and written in
+ * input order, so line n of the input that was accepted becomes the next ordinal. The index is built at the end.
+ * The board size is taken from the first puzzle line; lines of another length are rejected.
+ *
+ * Usage:
+ * java com.example.sudokusolver.solver.LibraryImporter <input> [library]
+ * or through Gradle: ./gradlew :solver:importLibrary -Pin=puzzles.txt [-Pout=puzzles.sdkl]
+ */
+public final class LibraryImporter {
+    /**
+     * Class: Report
+     *
+     * Description:
+     * What an import did: how many puzzle lines were read, accepted and rejected, and how many of each grade.
+     */
+    public static final class Report {
+        public int read;
+        public int imported;
+        public int rejected;
+        public final int[] byDifficulty = new int[Difficulty.values().length];
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(Locale.US,
+                    "%d puzzles read, %d imported, %d rejected", read, imported, rejected));
+            for (Difficulty difficulty : Difficulty.values()) {
+                text.append(", ").append(byDifficulty[difficulty.ordinal()]).append(' ').append(difficulty);
+            }
+            return text.toString();
+        }
+    }
+
+    private LibraryImporter() {
+    }
+
+    /**
+     * Example Call:
+     * LibraryImporter.Report report = LibraryImporter.importText(reader, new File(dir, "library.sdkl"));
+     *
+     * Parameters:
+     * @param in (BufferedReader): The puzzle lines. Blank lines and lines starting with # are skipped.
+     * @param library (File): The library to write, replaced if it exists. Its index is written next to it.
+     *
+     * Returns:
+     * @return Report - The counts of the import.
+     */
+    public static Report importText(BufferedReader in, File library) throws IOException {
+        Report report = new Report();
+        Geometry geometry = null;
+        SolutionCounter counter = null;
+        byte[] record = null;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(library)))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                report.read++;
+                if (geometry == null) {
+                    try {
+                        geometry = Geometry.forCells(line.length());
+                    } catch (IllegalArgumentException e) {
+                        report.rejected++;
+                        continue;
+                    }
+                    counter = new SolutionCounter(geometry);
+                    record = new byte[PuzzleLibrary.recordSize(geometry)];
+                    writeHeader(out, geometry);
+                }
+                int[] puzzle;
+                try {
+                    puzzle = line.length() == geometry.cells ? PuzzleText.parse(line, geometry) : null;
+                } catch (IllegalArgumentException e) {
+                    puzzle = null;
+                }
+                if (puzzle == null || counter.check(puzzle) != SolutionCounter.Result.UNIQUE) {
+                    report.rejected++;
+                    continue;
+                }
+                Difficulty difficulty = PuzzleGenerator.grade(puzzle);
+                pack(puzzle, difficulty, geometry, record);
+                out.write(record);
+                report.imported++;
+                report.byDifficulty[difficulty.ordinal()]++;
+            }
+            if (geometry == null) {
+                throw new IOException("No puzzles to import");
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(library, "rw")) {
+            file.seek(16);
+            file.writeInt(report.imported);
+        }
+        PuzzleLibrary.buildIndex(library);
+        return report;
+    }
+
+    private static void writeHeader(DataOutputStream out, Geometry geometry) throws IOException {
+        out.writeInt(PuzzleLibrary.MAGIC);
+        out.writeInt(PuzzleLibrary.VERSION);
+        out.writeInt(geometry.boxSize);
+        out.writeInt(PuzzleLibrary.recordSize(geometry));
+        out.writeInt(0); // record count, written once the import is done
+        out.writeInt(0); // generation
+        out.write(new byte[PuzzleLibrary.HEADER_BYTES - 24]);
+    }
+
+    private static void pack(int[] puzzle, Difficulty difficulty, Geometry geometry, byte[] record) {
+        int clues = 0;
+        for (int value : puzzle) {
+            if (value != 0) {
+                clues++;
+            }
+        }
+        record[0] = (byte) difficulty.ordinal();
+        record[1] = (byte) (clues >>> 8);
+        record[2] = (byte) clues;
+        int base = PuzzleLibrary.RECORD_META_BYTES;
+        if (geometry.size < 16) {
+            for (int cell = 0; cell < puzzle.length; cell += 2) {
+                int low = cell + 1 < puzzle.length ? puzzle[cell + 1] : 0;
+                record[base + cell / 2] = (byte) (puzzle[cell] << 4 | low);
+            }
+        } else {
+            for (int cell = 0; cell < puzzle.length; cell++) {
+                record[base + cell] = (byte) puzzle[cell];
+            }
+        }
+    }
+
+    /**
+     * Example Call:
+     * LibraryImporter.main(new String[] {"puzzles.txt", "puzzles.sdkl"});
+     *
+     * Parameters:
+     * @param args (String[]): The input file and an optional library file (defaults to '<input>.sdkl').
+     *
+     * Description:
+     * Imports the input file and prints the report to stdout.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: LibraryImporter <input> [library]");
+            System.exit(2);
+        }
+        File library = new File(args.length > 1 ? args[1] : args[0] + ".sdkl");
+        long start = System.nanoTime();
+        Report report;
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            report = importText(in, library);
+        }
+        System.out.printf(Locale.US, "%s in %.1f s, written to %s%n", report, (System.nanoTime() - start) / 1e9,
+                library);
+    }
+}
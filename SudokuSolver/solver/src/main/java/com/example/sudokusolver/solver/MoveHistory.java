@@ -0,0 +1,332 @@
+package com.example.sudokusolver.solver;
+
+import java.util.Arrays;
+
+/**
+ * Class: MoveHistory
+ *
+ * Description:
+ * Undo and redo for a board. Every edit is packed into one int, cell << 10 | old value << 5 | new value (the same
+ * layout SolveTrace uses), and kept in a ring buffer of fixed capacity, so a session of any length uses the same
+ * memory: once the ring is full, the oldest moves are dropped and can no longer be undone.
+ * Edits recorded between beginGroup() and endGroup(), or by recordChanges(), form one step that is undone and
+ * redone as a whole, so a solver filling 60 cells is taken back with a single undo. Recording a new edit after an
+ * undo discards the moves that could have been redone.
+ * The history keeps its own copy of the board, and a snapshot of it every SNAPSHOT_INTERVAL moves in a second
+ * ring. seek() jumps to any kept position by starting from the nearest snapshot instead of replaying or undoing the
+ * whole way, so even the far end of a long history is at most SNAPSHOT_INTERVAL moves away.
+ * Undo, redo and seek report the cells that changed and their new values, for the caller to apply to its board.
+ * Not thread-safe.
+ */
+public final class MoveHistory {
+    public static final int DEFAULT_CAPACITY = 4096;
+    static final int SNAPSHOT_INTERVAL = 64;
+    private static final int VALUE_MASK = 0x1f;
+    // Set on every move of a group but the first
+    private static final int CONTINUES = 1 << 20;
+
+    private final Geometry geometry;
+    private final int capacity;
+    private final int[] moves;
+    private final byte[] board;
+    private final byte[][] snapshots;
+    private final long[] snapshotAt;
+    // Scratch for collecting the net changes of one operation
+    private final int[] origin;
+    private final int[] touchedIn;
+    private final int[] touched;
+    private int touchedCount;
+    private int operation;
+
+    // Absolute move numbers: moves first..end-1 are kept, the first 'position' of them are applied
+    private long first;
+    private long end;
+    private long position;
+    private boolean grouping;
+    private boolean groupStarted;
+
+    public MoveHistory(Geometry geometry) {
+        this(geometry, DEFAULT_CAPACITY);
+    }
+
+    public MoveHistory(Geometry geometry, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive but was " + capacity);
+        }
+        this.geometry = geometry;
+        this.capacity = capacity;
+        this.moves = new int[capacity];
+        this.board = new byte[geometry.cells];
+        this.snapshots = new byte[capacity / SNAPSHOT_INTERVAL + 1][];
+        this.snapshotAt = new long[snapshots.length];
+        this.origin = new int[geometry.cells];
+        this.touchedIn = new int[geometry.cells];
+        this.touched = new int[geometry.cells];
+        Arrays.fill(snapshotAt, -1);
+    }
+
+    public Geometry geometry() {
+        return geometry;
+    }
+
+    /**
+     * Example Call:
+     * history.reset(board.toValues());
+     *
+     * Parameters:
+     * @param values (int[]): The board the history starts from, geometry().cells cells in row-major order.
+     *
+     * Description:
+     * Forgets every move and snapshot.
+     */
+    public void reset(int[] values) {
+        if (values.length != board.length) {
+            throw new IllegalArgumentException("Expected " + board.length + " cells but got " + values.length);
+        }
+        for (int cell = 0; cell < board.length; cell++) {
+            board[cell] = (byte) values[cell];
+        }
+        first = 0;
+        end = 0;
+        position = 0;
+        grouping = false;
+        Arrays.fill(snapshotAt, -1);
+        takeSnapshot();
+    }
+
+    /**
+     * Example Call:
+     * history.record(cell, value);
+     *
+     * Parameters:
+     * @param cell (int): The cell that was changed.
+     * @param value (int): Its new value, 0 if it was cleared. The old value is taken from the history's copy.
+     */
+    public void record(int cell, int value) {
+        int previous = board[cell];
+        if (previous == value) {
+            return;
+        }
+        int flags = 0;
+        if (grouping) {
+            if (groupStarted) {
+                flags = CONTINUES;
+            }
+            groupStarted = true;
+        }
+        if (end != position) {
+            // A new edit makes the undone moves unreachable
+            end = position;
+            for (int i = 0; i < snapshotAt.length; i++) {
+                if (snapshotAt[i] > position) {
+                    snapshotAt[i] = -1;
+                }
+            }
+        }
+        if (end - first == capacity) {
+            first++;
+        }
+        moves[(int) (end % capacity)] = flags | cell << 10 | previous << 5 | value;
+        end++;
+        position = end;
+        board[cell] = (byte) value;
+        if (position % SNAPSHOT_INTERVAL == 0) {
+            takeSnapshot();
+        }
+    }
+
+    /**
+     * Starts a group: the moves recorded until endGroup() are undone and redone as one step.
+     */
+    public void beginGroup() {
+        grouping = true;
+        groupStarted = false;
+    }
+
+    public void endGroup() {
+        grouping = false;
+    }
+
+    /**
+     * Example Call:
+     * history.recordChanges(board.toValues());
+     *
+     * Parameters:
+     * @param values (int[]): The board after a batch of edits the history has not seen, such as a finished solve.
+     *
+     * Description:
+     * Records every cell that differs from the history's copy as one group.
+     */
+    public void recordChanges(int[] values) {
+        beginGroup();
+        for (int cell = 0; cell < board.length; cell++) {
+            record(cell, values[cell]);
+        }
+        endGroup();
+    }
+
+    public boolean canUndo() {
+        return position > first;
+    }
+
+    public boolean canRedo() {
+        return position < end;
+    }
+
+    /**
+     * Returns the number of moves applied since the history started, counting dropped ones.
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Returns the earliest position seek() can reach. Older moves have been dropped from the ring.
+     */
+    public long oldestPosition() {
+        return first;
+    }
+
+    /**
+     * Returns the latest position seek() can reach.
+     */
+    public long newestPosition() {
+        return end;
+    }
+
+    /**
+     * Example Call:
+     * int count = history.undo(cells, values);
+     *
+     * Parameters:
+     * @param cells (int[]): Receives the changed cells. Needs room for geometry().cells entries.
+     * @param values (int[]): Receives the value each changed cell must get.
+     *
+     * Returns:
+     * @return int - How many cells changed, 0 if there is nothing to undo. A whole group is undone at once.
+     */
+    public int undo(int[] cells, int[] values) {
+        startOperation();
+        while (position > first) {
+            int move = moves[(int) (--position % capacity)];
+            apply(move >>> 10 & 0x3ff, move >>> 5 & VALUE_MASK);
+            if ((move & CONTINUES) == 0) {
+                break;
+            }
+        }
+        return finishOperation(cells, values);
+    }
+
+    /**
+     * Example Call:
+     * int count = history.redo(cells, values);
+     *
+     * Parameters:
+     * @param cells (int[]): Receives the changed cells. Needs room for geometry().cells entries.
+     * @param values (int[]): Receives the value each changed cell must get.
+     *
+     * Returns:
+     * @return int - How many cells changed, 0 if there is nothing to redo. A whole group is redone at once.
+     */
+    public int redo(int[] cells, int[] values) {
+        startOperation();
+        if (position < end) {
+            redoMove();
+            while (position < end && (moves[(int) (position % capacity)] & CONTINUES) != 0) {
+                redoMove();
+            }
+        }
+        return finishOperation(cells, values);
+    }
+
+    /**
+     * Example Call:
+     * int count = history.seek(history.oldestPosition(), cells, values);
+     *
+     * Parameters:
+     * @param target (long): The position to move to, clamped to oldestPosition()..newestPosition().
+     * @param cells (int[]): Receives the changed cells. Needs room for geometry().cells entries.
+     * @param values (int[]): Receives the value each changed cell must get.
+     *
+     * Returns:
+     * @return int - How many cells changed.
+     *
+     * Description:
+     * Starts from the nearest snapshot at or before 'target' when that is closer than the current position, then
+     * undoes or redoes the remaining moves one by one. Groups are not kept together, any position can be reached.
+     */
+    public int seek(long target, int[] cells, int[] values) {
+        target = Math.max(first, Math.min(end, target));
+        startOperation();
+        int slot = nearestSnapshot(target);
+        if (slot >= 0 && target - snapshotAt[slot] < Math.abs(target - position)) {
+            byte[] snapshot = snapshots[slot];
+            for (int cell = 0; cell < board.length; cell++) {
+                if (board[cell] != snapshot[cell]) {
+                    apply(cell, snapshot[cell]);
+                }
+            }
+            position = snapshotAt[slot];
+        }
+        while (position > target) {
+            int move = moves[(int) (--position % capacity)];
+            apply(move >>> 10 & 0x3ff, move >>> 5 & VALUE_MASK);
+        }
+        while (position < target) {
+            redoMove();
+        }
+        return finishOperation(cells, values);
+    }
+
+    private void redoMove() {
+        int move = moves[(int) (position++ % capacity)];
+        apply(move >>> 10 & 0x3ff, move & VALUE_MASK);
+    }
+
+    private void takeSnapshot() {
+        int slot = (int) (position / SNAPSHOT_INTERVAL % snapshots.length);
+        if (snapshots[slot] == null) {
+            snapshots[slot] = new byte[board.length];
+        }
+        System.arraycopy(board, 0, snapshots[slot], 0, board.length);
+        snapshotAt[slot] = position;
+    }
+
+    private int nearestSnapshot(long target) {
+        int best = -1;
+        for (int slot = 0; slot < snapshotAt.length; slot++) {
+            long at = snapshotAt[slot];
+            if (at >= first && at <= target && (best < 0 || at > snapshotAt[best])) {
+                best = slot;
+            }
+        }
+        return best;
+    }
+
+    private void startOperation() {
+        operation++;
+        touchedCount = 0;
+    }
+
+    private void apply(int cell, int value) {
+        if (touchedIn[cell] != operation) {
+            touchedIn[cell] = operation;
+            origin[cell] = board[cell];
+            touched[touchedCount++] = cell;
+        }
+        board[cell] = (byte) value;
+    }
+
+    private int finishOperation(int[] cells, int[] values) {
+        int count = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int cell = touched[i];
+            if (board[cell] != origin[cell]) {
+                cells[count] = cell;
+                values[count] = board[cell];
+                count++;
+            }
+        }
+        return count;
+    }
+}
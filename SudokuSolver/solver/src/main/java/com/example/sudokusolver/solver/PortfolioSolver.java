@@ -0,0 +1,441 @@
+package com.example.sudokusolver.solver;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Class: PortfolioSolver
+ *
+ * Description:
+ * Races several strategies on the same board, one thread each, and takes the first answer. A strategy is an engine
+ * type plus a seed: seed 0 solves the board as given, any other seed solves a copy scrambled by a random symmetry
+ * (bands, rows, stacks and columns shuffled, possibly transposed, digits relabeled; see Canonicalizer). The copy is
+ * the same puzzle, but the engine meets its cells and digits in another order, and on hard boards the search time
+ * of one order can differ from another's by orders of magnitude. Racing them trades spare cores for the tail of
+ * that distribution: a solve takes as long as the luckiest strategy.
+ * The first strategy to return, solved or proven unsolvable, wins; the others are cancelled, and the race ends once
+ * all of them have stopped. Engines that were cancelled are replaced with new ones, since an engine that returned
+ * just before its cancel arrived would otherwise stop its next solve at once.
+ * getWins() counts how often each strategy won, so a lineup can be tuned to the boards it actually sees.
+ * A listener is not called while the strategies race. Each strategy records into its own SolveTrace, and the
+ * winner's steps are reported afterwards on the calling thread, mapped back to the original board. If the winner's
+ * trace ran out of room, only the cells of the answer are reported.
+ * The stats hold the winner's counters. Close the solver to stop its threads.
+ */
+public final class PortfolioSolver implements SudokuSolver, Closeable {
+    /**
+     * Class: Strategy
+     *
+     * Description:
+     * One entry of the lineup: an engine type and the seed of the symmetry its copy of the board is scrambled with.
+     */
+    public static final class Strategy {
+        public final String name;
+        public final SolverType type;
+        public final long seed;
+
+        public Strategy(String name, SolverType type, long seed) {
+            this.name = name;
+            this.type = type;
+            this.seed = seed;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final Geometry geometry;
+    private final Racer[] racers;
+    private final ExecutorService executor;
+    private final AtomicLongArray wins;
+    private final SolverStats stats = new SolverStats();
+    private SolverListener listener;
+    // Guarded by 'racers'
+    private boolean racing;
+    private boolean cancelled;
+
+    /**
+     * Example Call:
+     * PortfolioSolver solver = new PortfolioSolver(Geometry.CLASSIC, Runtime.getRuntime().availableProcessors());
+     *
+     * Parameters:
+     * @param geometry (Geometry): The board size the strategies will solve.
+     * @param threads (int): How many strategies to race, taken from defaultStrategies().
+     */
+    public PortfolioSolver(Geometry geometry, int threads) {
+        this(geometry, defaultStrategies(threads));
+    }
+
+    /**
+     * Example Call:
+     * PortfolioSolver solver = new PortfolioSolver(Geometry.CLASSIC, strategies);
+     *
+     * Parameters:
+     * @param geometry (Geometry): The board size the strategies will solve.
+     * @param strategies (List<Strategy>): The lineup, one thread per strategy.
+     */
+    public PortfolioSolver(Geometry geometry, List<Strategy> strategies) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("A portfolio needs at least one strategy");
+        }
+        this.geometry = geometry;
+        this.racers = new Racer[strategies.size()];
+        for (int i = 0; i < racers.length; i++) {
+            racers[i] = new Racer(strategies.get(i), i);
+        }
+        this.wins = new AtomicLongArray(racers.length);
+        this.executor = Executors.newFixedThreadPool(racers.length, runnable -> {
+            Thread thread = new Thread(runnable, "PortfolioSolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Example Call:
+     * List<PortfolioSolver.Strategy> strategies = PortfolioSolver.defaultStrategies(4);
+     *
+     * Parameters:
+     * @param count (int): How many strategies to return.
+     *
+     * Returns:
+     * @return List<Strategy> - PROPAGATION, SAT and DANCING_LINKS on the board as given, then the same engines again
+     * on scrambled copies (seeds 1, 2, ...) until 'count' strategies are listed. BITMASK is left out: without
+     * deductions it cannot keep up on hard or large boards.
+     */
+    public static List<Strategy> defaultStrategies(int count) {
+        SolverType[] types = {SolverType.PROPAGATION, SolverType.SAT, SolverType.DANCING_LINKS};
+        List<Strategy> strategies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SolverType type = types[i % types.length];
+            long seed = i / types.length;
+            strategies.add(new Strategy(seed == 0 ? type.name() : type.name() + "#" + seed, type, seed));
+        }
+        return strategies;
+    }
+
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    public List<Strategy> getStrategies() {
+        List<Strategy> strategies = new ArrayList<>(racers.length);
+        for (Racer racer : racers) {
+            strategies.add(racer.strategy);
+        }
+        return Collections.unmodifiableList(strategies);
+    }
+
+    /**
+     * Returns how many races each strategy has won, by strategy name in lineup order. May be called from any thread.
+     */
+    public Map<String, Long> getWins() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < racers.length; i++) {
+            counts.put(racers[i].strategy.name, wins.get(i));
+        }
+        return counts;
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (racers) {
+            cancelled = true;
+            if (racing) {
+                for (Racer racer : racers) {
+                    racer.cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the threads. A race still running is cancelled first.
+     */
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdown();
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = solver.solve(grid);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Filled in place when solved.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved, false if the winning strategy found the givens conflicting or
+     * no solution, or the solve was cancelled.
+     *
+     * Description:
+     * Hands every strategy its own copy of the board, waits for the first to return, cancels the rest and waits
+     * for them to stop.
+     */
+    @Override
+    public boolean solve(int[] board) {
+        boolean solved = false;
+        if (SolverStats.ENABLED) {
+            stats.begin();
+        }
+        try {
+            if (board.length != geometry.cells) {
+                throw new IllegalArgumentException("Expected " + geometry.cells + " cells but got " + board.length);
+            }
+            synchronized (racers) {
+                if (cancelled) {
+                    return false;
+                }
+                racing = true;
+            }
+            Racer winner = race(board);
+            if (winner == null) {
+                return false;
+            }
+            wins.incrementAndGet(winner.index);
+            if (SolverStats.ENABLED) {
+                stats.add(winner.solver.getStats());
+            }
+            if (listener != null) {
+                winner.report(board, listener);
+            }
+            if (winner.solved) {
+                winner.copyTo(board);
+                solved = true;
+            }
+            return solved;
+        } finally {
+            synchronized (racers) {
+                racing = false;
+                cancelled = false;
+                for (Racer racer : racers) {
+                    racer.finishRace();
+                }
+            }
+            if (SolverStats.ENABLED) {
+                stats.end(solved);
+            }
+        }
+    }
+
+    // Returns the first racer to finish without being cancelled, or null if every racer was cancelled
+    private Racer race(int[] board) {
+        CompletionService<Racer> finished = new ExecutorCompletionService<>(executor);
+        for (Racer racer : racers) {
+            racer.load(board, listener != null);
+            finished.submit(racer::run, racer);
+        }
+        Racer winner = null;
+        RuntimeException failure = null;
+        boolean interrupted = false;
+        int running = racers.length;
+        while (running > 0) {
+            Future<Racer> done;
+            try {
+                done = finished.take();
+            } catch (InterruptedException e) {
+                // Stop the race, but still wait for the racers so their engines are free for the next one
+                interrupted = true;
+                cancel();
+                continue;
+            }
+            running--;
+            Racer racer;
+            try {
+                racer = done.get();
+            } catch (ExecutionException | InterruptedException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause() : new IllegalStateException(e);
+                }
+                cancel();
+                continue;
+            }
+            synchronized (racers) {
+                if (winner == null && failure == null && !racer.cancelRequested) {
+                    winner = racer;
+                    for (Racer other : racers) {
+                        if (other != winner) {
+                            other.cancel();
+                        }
+                    }
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return winner;
+    }
+
+    /**
+     * Class: Racer
+     *
+     * Description:
+     * The state of one strategy: its engine, its symmetry and its copy of the board. The symmetry maps cell i of the
+     * copy to cell source[i] of the board, and digit d of the board to digitTo[d] of the copy.
+     */
+    private final class Racer {
+        final Strategy strategy;
+        final int index;
+        final int[] source;
+        final int[] digitTo;
+        final int[] digitFrom;
+        final int[] copy;
+        SudokuSolver solver;
+        SolveTrace trace;
+        boolean solved;
+        // Guarded by 'racers'
+        boolean cancelRequested;
+
+        Racer(Strategy strategy, int index) {
+            this.strategy = strategy;
+            this.index = index;
+            int size = geometry.size;
+            this.source = new int[geometry.cells];
+            this.digitTo = new int[size + 1];
+            this.digitFrom = new int[size + 1];
+            this.copy = new int[geometry.cells];
+            this.solver = strategy.type.create(geometry);
+
+            int[] rows = identity(size);
+            int[] cols = identity(size);
+            int[] digits = identity(size + 1);
+            boolean transpose = false;
+            if (strategy.seed != 0) {
+                Random random = new Random(strategy.seed);
+                rows = shuffledLines(random);
+                cols = shuffledLines(random);
+                shuffle(random, digits, 1, size + 1);
+                transpose = random.nextBoolean();
+            }
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int from = transpose ? rows[col] * size + cols[row] : rows[row] * size + cols[col];
+                    source[row * size + col] = from;
+                }
+            }
+            for (int digit = 0; digit <= size; digit++) {
+                digitTo[digit] = digits[digit];
+                digitFrom[digits[digit]] = digit;
+            }
+        }
+
+        void load(int[] board, boolean recording) {
+            for (int cell = 0; cell < copy.length; cell++) {
+                int value = board[source[cell]];
+                copy[cell] = value >= 0 && value < digitTo.length ? digitTo[value] : value;
+            }
+            solved = false;
+            if (recording) {
+                if (trace == null) {
+                    trace = new SolveTrace();
+                }
+                trace.reset(copy);
+                solver.setListener(trace);
+            } else {
+                solver.setListener(null);
+            }
+        }
+
+        void run() {
+            solved = solver.solve(copy);
+        }
+
+        void cancel() {
+            cancelRequested = true;
+            solver.cancel();
+        }
+
+        void finishRace() {
+            if (cancelRequested) {
+                solver = strategy.type.create(geometry);
+                cancelRequested = false;
+            }
+        }
+
+        void copyTo(int[] board) {
+            for (int cell = 0; cell < copy.length; cell++) {
+                board[source[cell]] = digitFrom[copy[cell]];
+            }
+        }
+
+        void report(int[] board, SolverListener listener) {
+            if (!trace.isTruncated()) {
+                for (int step = 0; step < trace.size(); step++) {
+                    int cell = source[trace.cellAt(step)];
+                    int value = trace.valueAt(step);
+                    if (value == 0) {
+                        listener.onCleared(cell);
+                    } else {
+                        listener.onPlaced(cell, digitFrom[value]);
+                    }
+                }
+            } else if (solved) {
+                for (int cell = 0; cell < copy.length; cell++) {
+                    if (board[source[cell]] == 0) {
+                        listener.onPlaced(source[cell], digitFrom[copy[cell]]);
+                    }
+                }
+            }
+        }
+
+        // The order of the board's rows (or columns) in the copy: the bands shuffled, then the rows inside each band
+        private int[] shuffledLines(Random random) {
+            int box = geometry.boxSize;
+            int[] bands = identity(box);
+            shuffle(random, bands, 0, box);
+            int[] lines = new int[geometry.size];
+            for (int band = 0; band < box; band++) {
+                int[] inner = identity(box);
+                shuffle(random, inner, 0, box);
+                for (int i = 0; i < box; i++) {
+                    lines[band * box + i] = bands[band] * box + inner[i];
+                }
+            }
+            return lines;
+        }
+    }
+
+    private static int[] identity(int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+
+    // Fisher-Yates over values[from..to-1]
+    private static void shuffle(Random random, int[] values, int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
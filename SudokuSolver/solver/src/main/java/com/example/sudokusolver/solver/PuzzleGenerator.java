@@ -0,0 +1,267 @@
+package com.example.sudokusolver.solver;
+
+import java.util.Random;
+
+/**
+ * Class: PuzzleGenerator
+ *
+ * Description:
+ * Builds puzzles with exactly one solution.
+ *   1. A random full grid is found by a depth-first search over row, column and box bitmasks that tries the
+ *      candidates of the most constrained cell in random order.
+ *   2. Clues are removed in random order. A removal is kept only if the board still has a single solution, which
+ *      is checked by a SolutionCounter that stops at the second one.
+ *   3. The result is graded, and the whole process is repeated until the grade matches the requested difficulty.
+ * Works for every Geometry; the clue targets of Difficulty are scaled to the board (Difficulty.minClues(Geometry)).
+ * The grades are calibrated on 9x9 puzzles, so other sizes return the first puzzle at the scaled clue count instead
+ * of retrying for a grade, and their uniqueness checks run under a node limit: a removal whose check runs out of
+ * nodes is treated as unsafe and the clue stays, which bounds the time a 25x25 puzzle takes.
+ * An instance holds its working state and random source, so it must not be shared between threads.
+ */
+public final class PuzzleGenerator {
+    // Grids are thrown away after this many failed attempts and the closest match is returned instead
+    private static final int MAX_ATTEMPTS = 200;
+    private static final int HARD_MAX_GUESSES = 10;
+    private static final long LARGE_BOARD_NODE_LIMIT = 200;
+
+    private final Geometry geometry;
+    private final Random random;
+    private final SolutionCounter counter;
+    private final int[] grid;
+    private final int[] rowMask;
+    private final int[] colMask;
+    private final int[] boxMask;
+    private final int[] order;
+    private final int[][] digitOrder;
+
+    public PuzzleGenerator() {
+        this(Geometry.CLASSIC, new Random());
+    }
+
+    public PuzzleGenerator(long seed) {
+        this(Geometry.CLASSIC, new Random(seed));
+    }
+
+    public PuzzleGenerator(Geometry geometry) {
+        this(geometry, new Random());
+    }
+
+    public PuzzleGenerator(Geometry geometry, long seed) {
+        this(geometry, new Random(seed));
+    }
+
+    private PuzzleGenerator(Geometry geometry, Random random) {
+        this.geometry = geometry;
+        this.random = random;
+        this.counter = new SolutionCounter(geometry);
+        if (geometry != Geometry.CLASSIC) {
+            counter.setNodeLimit(LARGE_BOARD_NODE_LIMIT);
+        }
+        this.grid = new int[geometry.cells];
+        this.rowMask = new int[geometry.size];
+        this.colMask = new int[geometry.size];
+        this.boxMask = new int[geometry.size];
+        this.order = new int[geometry.cells];
+        this.digitOrder = new int[geometry.cells + 1][geometry.size];
+    }
+
+    /**
+     * Example Call:
+     * int[] puzzle = generator.generate(Difficulty.MEDIUM);
+     *
+     * Parameters:
+     * @param difficulty (Difficulty): The grade the puzzle should have.
+     *
+     * Returns:
+     * @return int[] - A puzzle of geometry.cells cells in row-major order (0 for empty) with exactly one solution.
+     * If no puzzle of the requested grade turns up within MAX_ATTEMPTS tries, the hardest one found below it is
+     * returned.
+     */
+    public int[] generate(Difficulty difficulty) {
+        int minClues = difficulty.minClues(geometry);
+        int[] best = null;
+        Difficulty bestGrade = null;
+        if (geometry != Geometry.CLASSIC) {
+            return removeClues(fullGrid(), minClues);
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int[] puzzle = removeClues(fullGrid(), minClues);
+            Difficulty grade = grade(puzzle);
+            if (grade == difficulty) {
+                return puzzle;
+            }
+            if (grade.compareTo(difficulty) < 0 && (bestGrade == null || grade.compareTo(bestGrade) > 0)) {
+                best = puzzle;
+                bestGrade = grade;
+            }
+        }
+        return best != null ? best : removeClues(fullGrid(), minClues);
+    }
+
+    /**
+     * Example Call:
+     * int[] solution = generator.fullGrid();
+     *
+     * Returns:
+     * @return int[] - A random, completely filled valid grid.
+     */
+    public int[] fullGrid() {
+        clear();
+        fillRandom(0);
+        return grid.clone();
+    }
+
+    /**
+     * Example Call:
+     * int[] puzzle = generator.removeClues(solution, 24);
+     *
+     * Parameters:
+     * @param solution (int[]): A completely filled valid grid. Not modified.
+     * @param minClues (int): Removal stops once the puzzle is down to this many clues.
+     *
+     * Returns:
+     * @return int[] - The thinned-out puzzle, whose only solution is 'solution'.
+     */
+    public int[] removeClues(int[] solution, int minClues) {
+        load(solution);
+        int cells = geometry.cells;
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+        shuffle(order, cells);
+
+        int clues = cells;
+        for (int i = 0; i < cells && clues > minClues; i++) {
+            int cell = order[i];
+            int digit = grid[cell];
+            unplace(cell, digit);
+            if (counter.count(grid, 2) == 1 && !counter.hitNodeLimit()) {
+                clues--;
+            } else {
+                place(cell, digit);
+            }
+        }
+        return grid.clone();
+    }
+
+    /**
+     * Example Call:
+     * Difficulty difficulty = PuzzleGenerator.grade(puzzle);
+     *
+     * Parameters:
+     * @param puzzle (int[]): A puzzle with a single solution. Not modified. Its length selects the Geometry.
+     *
+     * Returns:
+     * @return Difficulty - EASY if singles solve it, MEDIUM if locked candidates are also needed, otherwise HARD or
+     * EXPERT by the number of guesses the propagating solver needs.
+     */
+    public static Difficulty grade(int[] puzzle) {
+        Geometry geometry = Geometry.forCells(puzzle.length);
+        CandidateGrid singles = new CandidateGrid(geometry);
+        if (singles.load(puzzle) && singles.propagateSingles() && singles.isSolved()) {
+            return Difficulty.EASY;
+        }
+        PropagatingSolver solver = new PropagatingSolver(geometry);
+        solver.solve(puzzle.clone());
+        int guesses = solver.getGuessCount();
+        if (guesses == 0) {
+            return Difficulty.MEDIUM;
+        }
+        return guesses <= HARD_MAX_GUESSES ? Difficulty.HARD : Difficulty.EXPERT;
+    }
+
+    // Fills the empty cells of 'grid' with a random completion. 'depth' picks the scratch digit order for this level.
+    private boolean fillRandom(int depth) {
+        int cell = -1;
+        int cellMask = 0;
+        int best = geometry.size + 1;
+        for (int i = 0; i < grid.length; i++) {
+            if (grid[i] == 0) {
+                int mask = candidates(i);
+                int count = Integer.bitCount(mask);
+                if (count < best) {
+                    if (count == 0) {
+                        return false;
+                    }
+                    cell = i;
+                    cellMask = mask;
+                    best = count;
+                }
+            }
+        }
+        if (cell < 0) {
+            return true;
+        }
+
+        int[] digits = digitOrder[depth];
+        int count = 0;
+        while (cellMask != 0) {
+            int bit = cellMask & -cellMask;
+            cellMask ^= bit;
+            digits[count++] = SudokuRules.digitOf(bit);
+        }
+        shuffle(digits, count);
+        for (int i = 0; i < count; i++) {
+            place(cell, digits[i]);
+            if (fillRandom(depth + 1)) {
+                return true;
+            }
+            unplace(cell, digits[i]);
+        }
+        return false;
+    }
+
+    private int candidates(int cell) {
+        return ~(rowMask[geometry.rowOf[cell]] | colMask[geometry.colOf[cell]] | boxMask[geometry.boxOf[cell]])
+                & geometry.allDigits;
+    }
+
+    private void place(int cell, int digit) {
+        int bit = SudokuRules.bitOf(digit);
+        grid[cell] = digit;
+        rowMask[geometry.rowOf[cell]] |= bit;
+        colMask[geometry.colOf[cell]] |= bit;
+        boxMask[geometry.boxOf[cell]] |= bit;
+    }
+
+    private void unplace(int cell, int digit) {
+        int bit = ~SudokuRules.bitOf(digit);
+        grid[cell] = 0;
+        rowMask[geometry.rowOf[cell]] &= bit;
+        colMask[geometry.colOf[cell]] &= bit;
+        boxMask[geometry.boxOf[cell]] &= bit;
+    }
+
+    private void clear() {
+        for (int cell = 0; cell < grid.length; cell++) {
+            grid[cell] = 0;
+        }
+        for (int unit = 0; unit < geometry.size; unit++) {
+            rowMask[unit] = 0;
+            colMask[unit] = 0;
+            boxMask[unit] = 0;
+        }
+    }
+
+    private void load(int[] solution) {
+        if (solution.length != grid.length) {
+            throw new IllegalArgumentException("Expected " + grid.length + " cells but got " + solution.length);
+        }
+        clear();
+        for (int cell = 0; cell < grid.length; cell++) {
+            if (solution[cell] < 1 || solution[cell] > geometry.size) {
+                throw new IllegalArgumentException("Expected a full grid but cell " + cell + " is " + solution[cell]);
+            }
+            place(cell, solution[cell]);
+        }
+    }
+
+    private void shuffle(int[] values, int count) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.sudokusolver.solver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Class: PuzzleLibrary
+ *
+ * Description:
+ * A puzzle collection on disk: a file of fixed-size records and a side index next to it (the same name plus
+ * INDEX_SUFFIX). Both are memory-mapped, so opening a library of millions of puzzles reads nothing but the headers,
+ * and any puzzle is found by its ordinal with one multiplication.
+ *
+ * Library file: a HEADER_BYTES header (MAGIC, VERSION, box size, record size, record count, generation, all
+ * big-endian ints),
+ * then one record per puzzle:
+ *   1. Flags byte: the Difficulty ordinal in the low bits, FLAG_SOLVED once the puzzle has been played through.
+ *   2. Clue count as a short.
+ *   3. The cells in row-major order, two per byte (high nibble first) on boards up to 9x9, one per byte above.
+ * A 9x9 record takes 44 bytes.
+ *
+ * Index file: a HEADER_BYTES header (INDEX_MAGIC, VERSION, record count, generation), then
+ *   1. Per difficulty: the start of its bucket in the difficulty ordinals and how many of them are unsolved.
+ *   2. Per clue count 0..cells + 1: the start of its run in the clue ordinals.
+ *   3. Difficulty ordinals: all ordinals grouped by difficulty, the unsolved ones first in every bucket.
+ *   4. Positions: where each ordinal sits in the difficulty ordinals.
+ *   5. Clue ordinals: all ordinals sorted by clue count.
+ * So the k-th unsolved puzzle of a difficulty, or the k-th puzzle with a given clue count, is two reads away.
+ * markSolved() keeps the buckets exact by swapping the ordinal across its bucket's unsolved boundary. It bumps the
+ * library's generation before touching either file and copies it to the index last, so if the process dies between
+ * the writes the two generations differ and open() recreates the index with buildIndex().
+ *
+ * Reads may come from any thread. Writes (markSolved) must come from one thread at a time.
+ *
+ * @see LibraryImporter: Builds a library from the common one-line-per-puzzle text format.
+ */
+public final class PuzzleLibrary implements Closeable {
+    public static final String INDEX_SUFFIX = ".idx";
+    static final int MAGIC = 0x53444b4c; // "SDKL"
+    static final int INDEX_MAGIC = 0x53444b49; // "SDKI"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    private static final int GENERATION = 20;
+    private static final int INDEX_GENERATION = 12;
+    static final int RECORD_META_BYTES = 3;
+    private static final int FLAG_SOLVED = 0x80;
+    private static final int DIFFICULTY_MASK = 0x07;
+    private static final int DIFFICULTIES = Difficulty.values().length;
+
+    private final RandomAccessFile recordFile;
+    private final RandomAccessFile indexFile;
+    private final MappedByteBuffer records;
+    private final MappedByteBuffer index;
+    private final Geometry geometry;
+    private final int count;
+    private final int recordSize;
+    private final boolean nibbles;
+    private final int clueTable;
+    private final int byDifficulty;
+    private final int positions;
+    private final int byClues;
+
+    private PuzzleLibrary(File library, boolean writable) throws IOException {
+        String mode = writable ? "rw" : "r";
+        FileChannel.MapMode mapMode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        recordFile = new RandomAccessFile(library, mode);
+        RandomAccessFile openedIndex = null;
+        try {
+            records = map(recordFile, mapMode);
+            if (records.getInt(0) != MAGIC || records.getInt(4) != VERSION) {
+                throw new IOException(library + " is not a version " + VERSION + " puzzle library");
+            }
+            geometry = Geometry.of(records.getInt(8));
+            recordSize = records.getInt(12);
+            count = records.getInt(16);
+            nibbles = geometry.size < 16;
+            if (recordSize != recordSize(geometry) || records.capacity() < HEADER_BYTES + (long) count * recordSize) {
+                throw new IOException(library + " is truncated or has a bad record size");
+            }
+
+            openedIndex = new RandomAccessFile(indexFile(library), mode);
+            index = map(openedIndex, mapMode);
+            if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != VERSION || index.getInt(8) != count) {
+                throw new IOException(indexFile(library) + " does not match " + library + ", rebuild it");
+            }
+            clueTable = HEADER_BYTES + 8 * DIFFICULTIES;
+            byDifficulty = clueTable + 4 * (geometry.cells + 2);
+            positions = byDifficulty + 4 * count;
+            byClues = positions + 4 * count;
+            indexFile = openedIndex;
+        } catch (IOException | RuntimeException e) {
+            recordFile.close();
+            if (openedIndex != null) {
+                openedIndex.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Example Call:
+     * PuzzleLibrary library = PuzzleLibrary.open(new File(dir, "library.sdkl"), true);
+     *
+     * Parameters:
+     * @param library (File): The library file. Its index must sit next to it.
+     * @param writable (boolean): True to allow markSolved().
+     *
+     * Returns:
+     * @return PuzzleLibrary - The mapped library. Close it when done.
+     *
+     * Description:
+     * Rebuilds the index first if an interrupted markSolved() left it behind the library. Throws IOException if
+     * either file is missing, of another format or the two do not belong together.
+     */
+    public static PuzzleLibrary open(File library, boolean writable) throws IOException {
+        if (indexIsStale(library)) {
+            buildIndex(library);
+        }
+        return new PuzzleLibrary(library, writable);
+    }
+
+    // True when the index belongs to the library but has a different generation; anything else is left to the
+    // constructor to report
+    private static boolean indexIsStale(File library) throws IOException {
+        File indexFile = indexFile(library);
+        if (!library.exists() || !indexFile.exists()) {
+            return false;
+        }
+        try (RandomAccessFile records = new RandomAccessFile(library, "r");
+             RandomAccessFile index = new RandomAccessFile(indexFile, "r")) {
+            if (records.length() < HEADER_BYTES || index.length() < HEADER_BYTES) {
+                return false;
+            }
+            records.seek(16);
+            int count = records.readInt();
+            int generation = records.readInt();
+            return index.readInt() == INDEX_MAGIC && index.readInt() == VERSION && index.readInt() == count
+                    && index.readInt() != generation;
+        }
+    }
+
+    public static File indexFile(File library) {
+        return new File(library.getPath() + INDEX_SUFFIX);
+    }
+
+    static int recordSize(Geometry geometry) {
+        return RECORD_META_BYTES + (geometry.size < 16 ? (geometry.cells + 1) / 2 : geometry.cells);
+    }
+
+    private static MappedByteBuffer map(RandomAccessFile file, FileChannel.MapMode mode) throws IOException {
+        long length = file.length();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Library files are limited to 2 GB but got " + length + " bytes");
+        }
+        return file.getChannel().map(mode, 0, length);
+    }
+
+    public Geometry geometry() {
+        return geometry;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Example Call:
+     * library.read(ordinal, grid);
+     *
+     * Parameters:
+     * @param ordinal (int): The puzzle to read, from 0 to size() - 1.
+     * @param board (int[]): Receives the puzzle as geometry().cells cells in row-major order, 0 for empty cells.
+     */
+    public void read(int ordinal, int[] board) {
+        int base = recordOffset(ordinal) + RECORD_META_BYTES;
+        if (nibbles) {
+            for (int cell = 0; cell < geometry.cells; cell++) {
+                int packed = records.get(base + cell / 2);
+                board[cell] = (cell & 1) == 0 ? (packed >>> 4) & 0x0f : packed & 0x0f;
+            }
+        } else {
+            for (int cell = 0; cell < geometry.cells; cell++) {
+                board[cell] = records.get(base + cell);
+            }
+        }
+    }
+
+    public int[] read(int ordinal) {
+        int[] board = new int[geometry.cells];
+        read(ordinal, board);
+        return board;
+    }
+
+    public Difficulty difficulty(int ordinal) {
+        return Difficulty.values()[records.get(recordOffset(ordinal)) & DIFFICULTY_MASK];
+    }
+
+    public int clues(int ordinal) {
+        return records.getShort(recordOffset(ordinal) + 1);
+    }
+
+    public boolean isSolved(int ordinal) {
+        return (records.get(recordOffset(ordinal)) & FLAG_SOLVED) != 0;
+    }
+
+    /**
+     * Returns how many puzzles of 'difficulty' have not been marked as solved.
+     */
+    public int unsolvedCount(Difficulty difficulty) {
+        return index.getInt(HEADER_BYTES + 8 * difficulty.ordinal() + 4);
+    }
+
+    /**
+     * Returns how many puzzles of 'difficulty' there are, solved or not.
+     */
+    public int count(Difficulty difficulty) {
+        return bucketEnd(difficulty.ordinal()) - bucketStart(difficulty.ordinal());
+    }
+
+    /**
+     * Example Call:
+     * int ordinal = library.unsolved(Difficulty.HARD, random.nextInt(library.unsolvedCount(Difficulty.HARD)));
+     *
+     * Parameters:
+     * @param difficulty (Difficulty): The grade to pick from.
+     * @param k (int): Which of its unsolved puzzles to return, from 0 to unsolvedCount(difficulty) - 1.
+     *
+     * Returns:
+     * @return int - The ordinal of that puzzle. The order changes when puzzles are marked as solved.
+     */
+    public int unsolved(Difficulty difficulty, int k) {
+        if (k < 0 || k >= unsolvedCount(difficulty)) {
+            throw new IndexOutOfBoundsException("No unsolved " + difficulty + " puzzle " + k);
+        }
+        return index.getInt(byDifficulty + 4 * (bucketStart(difficulty.ordinal()) + k));
+    }
+
+    /**
+     * Returns how many puzzles have exactly 'clues' clues.
+     */
+    public int countWithClues(int clues) {
+        if (clues < 0 || clues > geometry.cells) {
+            return 0;
+        }
+        return clueStart(clues + 1) - clueStart(clues);
+    }
+
+    /**
+     * Returns the ordinal of the k-th puzzle with exactly 'clues' clues, k from 0 to countWithClues(clues) - 1.
+     */
+    public int withClues(int clues, int k) {
+        if (k < 0 || k >= countWithClues(clues)) {
+            throw new IndexOutOfBoundsException("No puzzle " + k + " with " + clues + " clues");
+        }
+        return index.getInt(byClues + 4 * (clueStart(clues) + k));
+    }
+
+    /**
+     * Example Call:
+     * library.markSolved(ordinal, true);
+     *
+     * Parameters:
+     * @param ordinal (int): The puzzle to update.
+     * @param solved (boolean): Its new status.
+     *
+     * Description:
+     * Updates the record's flag and moves the ordinal across its bucket's unsolved boundary in the index, between
+     * bumping the library's generation and copying it to the index. Both writes go to the mapped files; the operating
+     * system writes them back, or close() forces them out.
+     * Throws ReadOnlyBufferException if the library was opened read-only.
+     */
+    public synchronized void markSolved(int ordinal, boolean solved) {
+        int offset = recordOffset(ordinal);
+        int flags = records.get(offset);
+        if (((flags & FLAG_SOLVED) != 0) == solved) {
+            return;
+        }
+        int generation = records.getInt(GENERATION) + 1;
+        records.putInt(GENERATION, generation);
+        records.put(offset, (byte) (solved ? flags | FLAG_SOLVED : flags & ~FLAG_SOLVED));
+
+        int difficulty = flags & DIFFICULTY_MASK;
+        int unsolvedSlot = HEADER_BYTES + 8 * difficulty + 4;
+        int unsolved = index.getInt(unsolvedSlot);
+        int boundary = bucketStart(difficulty) + unsolved;
+        int position = index.getInt(positions + 4 * ordinal);
+        if (solved) {
+            swap(position, boundary - 1);
+            index.putInt(unsolvedSlot, unsolved - 1);
+        } else {
+            swap(position, boundary);
+            index.putInt(unsolvedSlot, unsolved + 1);
+        }
+        index.putInt(INDEX_GENERATION, generation);
+    }
+
+    private void swap(int i, int j) {
+        int a = index.getInt(byDifficulty + 4 * i);
+        int b = index.getInt(byDifficulty + 4 * j);
+        index.putInt(byDifficulty + 4 * i, b);
+        index.putInt(byDifficulty + 4 * j, a);
+        index.putInt(positions + 4 * a, j);
+        index.putInt(positions + 4 * b, i);
+    }
+
+    private int recordOffset(int ordinal) {
+        if (ordinal < 0 || ordinal >= count) {
+            throw new IndexOutOfBoundsException("No puzzle " + ordinal + " in a library of " + count);
+        }
+        return HEADER_BYTES + ordinal * recordSize;
+    }
+
+    private int bucketStart(int difficulty) {
+        return index.getInt(HEADER_BYTES + 8 * difficulty);
+    }
+
+    private int bucketEnd(int difficulty) {
+        return difficulty + 1 < DIFFICULTIES ? bucketStart(difficulty + 1) : count;
+    }
+
+    private int clueStart(int clues) {
+        return index.getInt(clueTable + 4 * clues);
+    }
+
+    /**
+     * Forces any marked puzzles out to disk and closes both files.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!records.isReadOnly()) {
+            records.force();
+            index.force();
+        }
+        try {
+            recordFile.close();
+        } finally {
+            indexFile.close();
+        }
+    }
+
+    /**
+     * Example Call:
+     * PuzzleLibrary.buildIndex(new File(dir, "library.sdkl"));
+     *
+     * Parameters:
+     * @param library (File): The library file. Its index is written next to it, replacing any old one.
+     *
+     * Description:
+     * Reads the flags and clue counts of every record once and writes the index with two counting sorts, so the
+     * time grows linearly with the library and no puzzle is decoded.
+     */
+    public static void buildIndex(File library) throws IOException {
+        MappedByteBuffer records;
+        Geometry geometry;
+        int count;
+        int recordSize;
+        try (RandomAccessFile file = new RandomAccessFile(library, "r")) {
+            records = map(file, FileChannel.MapMode.READ_ONLY);
+            if (records.getInt(0) != MAGIC || records.getInt(4) != VERSION) {
+                throw new IOException(library + " is not a version " + VERSION + " puzzle library");
+            }
+            geometry = Geometry.of(records.getInt(8));
+            recordSize = records.getInt(12);
+            count = records.getInt(16);
+        }
+
+        int[] bucketSize = new int[DIFFICULTIES];
+        int[] unsolved = new int[DIFFICULTIES];
+        int[] clueStart = new int[geometry.cells + 2];
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            int offset = HEADER_BYTES + ordinal * recordSize;
+            int flags = records.get(offset);
+            bucketSize[flags & DIFFICULTY_MASK]++;
+            if ((flags & FLAG_SOLVED) == 0) {
+                unsolved[flags & DIFFICULTY_MASK]++;
+            }
+            clueStart[records.getShort(offset + 1) + 1]++;
+        }
+        for (int clues = 1; clues < clueStart.length; clues++) {
+            clueStart[clues] += clueStart[clues - 1];
+        }
+
+        int clueTable = HEADER_BYTES + 8 * DIFFICULTIES;
+        int byDifficulty = clueTable + 4 * clueStart.length;
+        int positions = byDifficulty + 4 * count;
+        int byClues = positions + 4 * count;
+        File indexFile = indexFile(library);
+        if (indexFile.exists() && !indexFile.delete()) {
+            throw new IOException("Cannot replace " + indexFile);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+            MappedByteBuffer index = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    byClues + 4L * count);
+            index.putInt(0, INDEX_MAGIC);
+            index.putInt(4, VERSION);
+            index.putInt(8, count);
+            index.putInt(INDEX_GENERATION, records.getInt(GENERATION));
+
+            int[] nextUnsolved = new int[DIFFICULTIES];
+            int[] nextSolved = new int[DIFFICULTIES];
+            int start = 0;
+            for (int difficulty = 0; difficulty < DIFFICULTIES; difficulty++) {
+                index.putInt(HEADER_BYTES + 8 * difficulty, start);
+                index.putInt(HEADER_BYTES + 8 * difficulty + 4, unsolved[difficulty]);
+                nextUnsolved[difficulty] = start;
+                nextSolved[difficulty] = start + unsolved[difficulty];
+                start += bucketSize[difficulty];
+            }
+            for (int clues = 0; clues < clueStart.length; clues++) {
+                index.putInt(clueTable + 4 * clues, clueStart[clues]);
+            }
+
+            int[] nextClue = clueStart.clone();
+            for (int ordinal = 0; ordinal < count; ordinal++) {
+                int offset = HEADER_BYTES + ordinal * recordSize;
+                int flags = records.get(offset);
+                int difficulty = flags & DIFFICULTY_MASK;
+                int position = (flags & FLAG_SOLVED) == 0 ? nextUnsolved[difficulty]++ : nextSolved[difficulty]++;
+                index.putInt(byDifficulty + 4 * position, ordinal);
+                index.putInt(positions + 4 * ordinal, position);
+                index.putInt(byClues + 4 * nextClue[records.getShort(offset + 1)]++, ordinal);
+            }
+            index.force();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: PuzzleText
+ *
+ * Description:
+ * Converts boards to and from the common 81-character puzzle line format: one character per cell in row-major
+ * order, '1'-'9' for givens and '0' or '.' for empty cells. Anything after the 81st character is ignored, so lines
+ * carrying trailing comments or ratings are accepted.
+ * Larger boards use the same format with one character per cell, writing 10 to 25 as 'A' to 'P'.
+ */
+public final class PuzzleText {
+    private PuzzleText() {
+    }
+
+    /**
+     * Example Call:
+     * int[] grid = PuzzleText.parse(line);
+     *
+     * Parameters:
+     * @param line (String): A puzzle line of at least 81 characters.
+     *
+     * Returns:
+     * @return int[] - The board as 81 cells in row-major order, 0 for empty cells.
+     *
+     * Description:
+     * Throws IllegalArgumentException when the line is too short or contains a character that is not a cell.
+     */
+    public static int[] parse(String line) {
+        return parse(line, Geometry.CLASSIC);
+    }
+
+    /**
+     * Example Call:
+     * int[] grid = PuzzleText.parse(line, Geometry.of(4));
+     *
+     * Parameters:
+     * @param line (String): A puzzle line of at least geometry.cells characters.
+     * @param geometry (Geometry): The size of the board the line describes.
+     *
+     * Returns:
+     * @return int[] - The board as geometry.cells cells in row-major order, 0 for empty cells.
+     */
+    public static int[] parse(String line, Geometry geometry) {
+        if (line.length() < geometry.cells) {
+            throw new IllegalArgumentException("Expected " + geometry.cells + " cells but got " + line.length());
+        }
+        int[] grid = new int[geometry.cells];
+        for (int cell = 0; cell < geometry.cells; cell++) {
+            char c = line.charAt(cell);
+            int value = valueOf(c);
+            if (value < 0 || value > geometry.size) {
+                throw new IllegalArgumentException("Invalid character '" + c + "' at cell " + cell);
+            }
+            grid[cell] = value;
+        }
+        return grid;
+    }
+
+    /**
+     * Example Call:
+     * String line = PuzzleText.format(grid);
+     *
+     * Parameters:
+     * @param grid (int[]): The board in row-major order. Its length selects the geometry.
+     *
+     * Returns:
+     * @return String - The one-character-per-cell line, using '.' for empty cells.
+     */
+    public static String format(int[] grid) {
+        char[] line = new char[grid.length];
+        for (int cell = 0; cell < grid.length; cell++) {
+            line[cell] = charOf(grid[cell]);
+        }
+        return new String(line);
+    }
+
+    /**
+     * Returns the character a cell value is written as: '.' for 0, '1'-'9', then 'A' for 10 up to 'P' for 25.
+     */
+    public static char charOf(int value) {
+        if (value == 0) {
+            return '.';
+        }
+        return value <= 9 ? (char) ('0' + value) : (char) ('A' + value - 10);
+    }
+
+    // Returns the value of a cell character, or -1 if it is not one
+    private static int valueOf(char c) {
+        if (c == '.' || c == '0') {
+            return 0;
+        }
+        if (c >= '1' && c <= '9') {
+            return c - '0';
+        }
+        char upper = Character.toUpperCase(c);
+        if (upper >= 'A' && upper <= 'P') {
+            return upper - 'A' + 10;
+        }
+        return -1;
+    }
+}
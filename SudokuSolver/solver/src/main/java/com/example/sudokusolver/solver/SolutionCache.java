@@ -0,0 +1,147 @@
+package com.example.sudokusolver.solver;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Class: SolutionCache
+ *
+ * Description:
+ * Solutions of solved boards, keyed by the board's canonical form (Canonicalizer.Form.key) and stored in canonical
+ * form, so a board answers for every board equivalent to it. Entries are evicted least recently used first once
+ * their estimated size exceeds the memory budget: ENTRY_OVERHEAD_BYTES plus two bytes per key char and one byte per
+ * solution cell, about 340 bytes for a 9x9 board. The hit, miss and skip counts report how well the cache works.
+ * Thread-safe; each method takes the instance lock once.
+ *
+ * @see CachingSolver: Puts the cache in front of a solver engine.
+ */
+public final class SolutionCache {
+    // Map entry, String and array headers, rounded up
+    static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long skipped;
+    private long evictions;
+
+    /**
+     * Example Call:
+     * SolutionCache cache = new SolutionCache(1 << 20);
+     *
+     * Parameters:
+     * @param maxBytes (long): The memory budget of the entries, estimated as described in the class description.
+     */
+    public SolutionCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Budget must be positive but was " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the canonical solution stored for 'key' and marks it as recently used, or null on a miss.
+     */
+    public synchronized byte[] get(String key) {
+        byte[] solution = entries.get(key);
+        if (solution != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return solution;
+    }
+
+    /**
+     * Example Call:
+     * cache.put(form.key(), form.toCanonical(solution));
+     *
+     * Parameters:
+     * @param key (String): The canonical form of the solved board.
+     * @param solution (byte[]): Its solution in canonical form. Kept by the cache, so it must not be changed later.
+     *
+     * Description:
+     * Stores the solution and evicts the least recently used entries until the cache fits its budget again.
+     * An entry larger than the whole budget is not stored.
+     */
+    public synchronized void put(String key, byte[] solution) {
+        long bytes = sizeOf(key, solution);
+        if (bytes > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, solution);
+        if (previous != null) {
+            usedBytes -= sizeOf(key, previous);
+        }
+        usedBytes += bytes;
+        Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes) {
+            Map.Entry<String, byte[]> entry = eldest.next();
+            usedBytes -= sizeOf(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Counts a board that could not be looked up because it has no canonical form (see Canonicalizer).
+     */
+    public synchronized void recordSkipped() {
+        skipped++;
+    }
+
+    private static long sizeOf(String key, byte[] solution) {
+        return ENTRY_OVERHEAD_BYTES + 2L * key.length() + solution.length;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the share of lookups that hit, from 0 to 1. Skipped boards count as lookups that missed.
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses + skipped;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Removes every entry. The counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "cache: %d entries, %d of %d bytes, %d hits, %d misses, %d skipped, %d evictions, hit rate %.1f%%",
+                entries.size(), usedBytes, maxBytes, hits, misses, skipped, evictions, 100 * getHitRate());
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.sudokusolver.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class: SolutionCounter
+ *
+ * Description:
+ * Counts the solutions of a board instead of stopping at the first one, which is what tells a proper puzzle (exactly
+ * one solution) apart from a broken one. The search is the one of PropagatingSolver: constraint propagation to a
+ * fixpoint at every node, then a branch on the most constrained cell. Propagation keeps the tree small even when the
+ * whole of it has to be searched, as it does to rule out a second solution. The search stops as soon as 'limit'
+ * solutions have been seen, so a uniqueness check (limit 2) costs little more than one solve.
+ * For exhaustive counts on sparse boards, countParallel() splits the top SPLIT_DEPTH levels of the search tree into
+ * fork/join tasks that share one running total, so every task stops once the limit is reached.
+ * setNodeLimit() bounds the work of one count, which keeps uniqueness checks on open 16x16 and 25x25 boards from
+ * running away; a count that hits the limit reports it through hitNodeLimit().
+ * An instance holds its working state, so it is cheap to reuse but must not be shared between threads.
+ */
+public final class SolutionCounter {
+    /**
+     * Enum: Result
+     *
+     * Description:
+     * The outcome of a uniqueness check: no solution, exactly one, or two or more.
+     */
+    public enum Result {
+        NONE,
+        UNIQUE,
+        MULTIPLE
+    }
+
+    private static final int SPLIT_DEPTH = 3;
+
+    private final Geometry geometry;
+    private final CandidateGrid[] levels;
+    private long limit;
+    private long found;
+    private AtomicLong shared;
+    private long nodeLimit;
+    private long nodes;
+
+    public SolutionCounter() {
+        this(Geometry.CLASSIC);
+    }
+
+    public SolutionCounter(Geometry geometry) {
+        this.geometry = geometry;
+        this.levels = new CandidateGrid[geometry.cells + 1];
+        levels[0] = new CandidateGrid(geometry);
+    }
+
+    /**
+     * Example Call:
+     * counter.setNodeLimit(50_000);
+     *
+     * Parameters:
+     * @param nodeLimit (long): How many search nodes a count may visit before it gives up, 0 for no limit.
+     *
+     * Description:
+     * A count that gives up returns the solutions found so far, and hitNodeLimit() reports true until the next count.
+     * Only applies to count() and check(); countParallel() always searches to the end.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        if (nodeLimit < 0) {
+            throw new IllegalArgumentException("Negative node limit " + nodeLimit);
+        }
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Returns true if the last count stopped at the node limit, so its result is only a lower bound.
+     */
+    public boolean hitNodeLimit() {
+        return nodeLimit != 0 && nodes > nodeLimit;
+    }
+
+    /**
+     * Example Call:
+     * SolutionCounter.Result result = counter.check(board);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Not modified.
+     *
+     * Returns:
+     * @return Result - NONE if the givens conflict or cannot be completed, UNIQUE or MULTIPLE otherwise.
+     */
+    public Result check(int[] board) {
+        long count = count(board, 2);
+        return count == 0 ? Result.NONE : count == 1 ? Result.UNIQUE : Result.MULTIPLE;
+    }
+
+    /**
+     * Example Call:
+     * long solutions = counter.count(board, 1000);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Not modified.
+     * @param limit (long): The search stops once this many solutions have been found. Must be at least 1.
+     *
+     * Returns:
+     * @return long - The number of solutions, capped at 'limit'. 0 if the givens conflict.
+     */
+    public long count(int[] board, long limit) {
+        checkLimit(limit);
+        found = 0;
+        nodes = 0;
+        if (levels[0].load(board)) {
+            this.limit = limit;
+            this.shared = null;
+            search(0);
+        }
+        return found;
+    }
+
+    /**
+     * Example Call:
+     * long solutions = SolutionCounter.countParallel(board, 1_000_000, ForkJoinPool.commonPool());
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Its length selects the Geometry.
+     * @param limit (long): The search stops once this many solutions have been found. Must be at least 1.
+     * @param pool (ForkJoinPool): The pool the subtrees are searched on.
+     *
+     * Returns:
+     * @return long - The number of solutions, capped at 'limit'. 0 if the givens conflict.
+     */
+    public static long countParallel(int[] board, long limit, ForkJoinPool pool) {
+        checkLimit(limit);
+        Geometry geometry = Geometry.forCells(board.length);
+        AtomicLong total = new AtomicLong();
+        pool.invoke(new CountTask(geometry, board.clone(), 0, total, limit));
+        return Math.min(total.get(), limit);
+    }
+
+    // Returns true once the limit has been reached
+    private boolean search(int depth) {
+        if (nodeLimit != 0 && ++nodes > nodeLimit) {
+            return true;
+        }
+        CandidateGrid grid = levels[depth];
+        if (!grid.propagate()) {
+            return false;
+        }
+        if (grid.isSolved()) {
+            return shared != null ? shared.incrementAndGet() >= limit : ++found >= limit;
+        }
+        int cell = pickCell(grid);
+        CandidateGrid next = levels[depth + 1];
+        if (next == null) {
+            next = new CandidateGrid(geometry);
+            levels[depth + 1] = next;
+        }
+        int mask = grid.candidates[cell];
+        while (mask != 0) {
+            int bit = mask & -mask;
+            mask ^= bit;
+            next.copyFrom(grid);
+            if (next.assign(cell, SudokuRules.digitOf(bit)) && search(depth + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the empty cell with the fewest candidates. Only called on a consistent grid that is not yet solved.
+    private static int pickCell(CandidateGrid grid) {
+        Geometry geometry = grid.geometry();
+        int cell = -1;
+        int best = geometry.size + 1;
+        for (int i = 0; i < geometry.cells; i++) {
+            if (grid.values[i] == 0) {
+                int count = Integer.bitCount(grid.candidates[i]);
+                if (count < best) {
+                    cell = i;
+                    best = count;
+                    if (count <= 2) {
+                        break;
+                    }
+                }
+            }
+        }
+        return cell;
+    }
+
+    private static void checkLimit(long limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1 but was " + limit);
+        }
+    }
+
+    /**
+     * Class: CountTask
+     *
+     * Description:
+     * One subtree of a parallel count: the board with the guesses made on the way down already placed. Above
+     * SPLIT_DEPTH it forks one subtask per candidate of the most constrained cell; below it counts sequentially
+     * into the shared total.
+     */
+    private static final class CountTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // One counter per worker thread and box size
+        private static final ThreadLocal<SolutionCounter[]> COUNTERS = new ThreadLocal<SolutionCounter[]>() {
+            @Override
+            protected SolutionCounter[] initialValue() {
+                return new SolutionCounter[Geometry.MAX_BOX_SIZE + 1];
+            }
+        };
+
+        private final Geometry geometry;
+        private final int[] board;
+        private final int depth;
+        private final AtomicLong total;
+        private final long limit;
+
+        CountTask(Geometry geometry, int[] board, int depth, AtomicLong total, long limit) {
+            this.geometry = geometry;
+            this.board = board;
+            this.depth = depth;
+            this.total = total;
+            this.limit = limit;
+        }
+
+        @Override
+        protected void compute() {
+            if (total.get() >= limit) {
+                return;
+            }
+            SolutionCounter[] counters = COUNTERS.get();
+            SolutionCounter counter = counters[geometry.boxSize];
+            if (counter == null) {
+                counter = new SolutionCounter(geometry);
+                counters[geometry.boxSize] = counter;
+            }
+            CandidateGrid grid = counter.levels[0];
+            if (!grid.load(board)) {
+                return;
+            }
+            if (depth >= SPLIT_DEPTH) {
+                counter.limit = limit;
+                counter.shared = total;
+                counter.search(0);
+                return;
+            }
+
+            if (!grid.propagate()) {
+                return;
+            }
+            if (grid.isSolved()) {
+                total.incrementAndGet();
+                return;
+            }
+            int[] values = new int[geometry.cells];
+            grid.copyValuesTo(values);
+            int cell = pickCell(grid);
+            List<CountTask> subtasks = new ArrayList<>();
+            int mask = grid.candidates[cell];
+            while (mask != 0) {
+                int bit = mask & -mask;
+                mask ^= bit;
+                int[] child = values.clone();
+                child[cell] = SudokuRules.digitOf(bit);
+                subtasks.add(new CountTask(geometry, child, depth + 1, total, limit));
+            }
+            invokeAll(subtasks);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: SolveTrace
+ *
+ * Description:
+ * Records a solve as the sequence of cell changes the engine reports, so it can be replayed at any speed afterwards
+ * (see TracePlayer). Each step is packed into one int: the cell, the value it held before and the value it holds
+ * after, so a step can be undone as cheaply as it is applied. Recording appends to a growing int array and
+ * allocates nothing per step.
+ * Set the trace as the engine's listener after reset(); steps beyond 'maxSteps' are counted but not stored.
+ * Values take 5 bits and cells the rest, which covers every Geometry up to 25x25.
+ */
+public final class SolveTrace implements SolverListener {
+    public static final int DEFAULT_MAX_STEPS = 1 << 20;
+
+    private static final int VALUE_BITS = 5;
+    private static final int VALUE_MASK = (1 << VALUE_BITS) - 1;
+
+    private final int maxSteps;
+    private int[] start = new int[SudokuRules.CELLS];
+    private int[] current = new int[SudokuRules.CELLS];
+    private int[] steps = new int[256];
+    private int size;
+    private long totalSteps;
+
+    public SolveTrace() {
+        this(DEFAULT_MAX_STEPS);
+    }
+
+    public SolveTrace(int maxSteps) {
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("Negative step limit " + maxSteps);
+        }
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Example Call:
+     * trace.reset(board);
+     *
+     * Parameters:
+     * @param board (int[]): The board the solve starts from, in row-major order, 0 for empty cells.
+     *
+     * Description:
+     * Forgets all recorded steps and makes 'board' the starting position. The board may have any Geometry's size.
+     */
+    public void reset(int[] board) {
+        Geometry.forCells(board.length).checkBoard(board);
+        if (start.length != board.length) {
+            start = new int[board.length];
+            current = new int[board.length];
+        }
+        System.arraycopy(board, 0, start, 0, board.length);
+        System.arraycopy(board, 0, current, 0, board.length);
+        size = 0;
+        totalSteps = 0;
+    }
+
+    @Override
+    public void onPlaced(int cell, int digit) {
+        record(cell, digit);
+    }
+
+    @Override
+    public void onCleared(int cell) {
+        record(cell, 0);
+    }
+
+    private void record(int cell, int value) {
+        int previous = current[cell];
+        if (previous == value) {
+            return;
+        }
+        current[cell] = value;
+        totalSteps++;
+        if (size == maxSteps) {
+            return;
+        }
+        if (size == steps.length) {
+            int[] grown = new int[(int) Math.min((long) steps.length * 2, maxSteps)];
+            System.arraycopy(steps, 0, grown, 0, size);
+            steps = grown;
+        }
+        steps[size++] = (cell << (2 * VALUE_BITS)) | (previous << VALUE_BITS) | value;
+    }
+
+    /**
+     * Returns the number of stored steps.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the solve made more changes than could be stored. The stored steps are the first ones.
+     */
+    public boolean isTruncated() {
+        return totalSteps > size;
+    }
+
+    public int cellAt(int step) {
+        return steps[step] >>> (2 * VALUE_BITS);
+    }
+
+    public int previousAt(int step) {
+        return (steps[step] >>> VALUE_BITS) & VALUE_MASK;
+    }
+
+    public int valueAt(int step) {
+        return steps[step] & VALUE_MASK;
+    }
+
+    /**
+     * Returns the number of cells of the recorded board.
+     */
+    public int cellCount() {
+        return start.length;
+    }
+
+    /**
+     * Copies the starting board into 'board'.
+     */
+    public void copyStartTo(int[] board) {
+        System.arraycopy(start, 0, board, 0, start.length);
+    }
+}
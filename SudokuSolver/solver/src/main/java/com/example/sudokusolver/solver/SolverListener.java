@@ -0,0 +1,20 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Interface: SolverListener
+ *
+ * Description:
+ * Receives every placement and undo made by a solver while it searches. Callbacks run on the solving thread,
+ * inside the search loop, so implementations must be cheap and must not block.
+ */
+public interface SolverListener {
+    /**
+     * Called when the solver places 'digit' in 'cell'. Givens are never reported.
+     */
+    void onPlaced(int cell, int digit);
+
+    /**
+     * Called when the solver takes back its placement in 'cell' while backtracking.
+     */
+    void onCleared(int cell);
+}
@@ -0,0 +1,101 @@
+package com.example.sudokusolver.solver;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Class: SolverMetrics
+ *
+ * Description:
+ * Collects the SolverStats of many solves, grouped by a name such as the engine's SolverType. Every group keeps a
+ * wall-time LatencyHistogram and the totals of the counters, so the memory use does not grow with the number of
+ * solves. All methods are synchronized; recording takes the lock once per solve, not per search node.
+ */
+public final class SolverMetrics {
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private static final class Entry {
+        final LatencyHistogram wall = new LatencyHistogram();
+        final LatencyHistogram cpu = new LatencyHistogram();
+        long solved;
+        long nodes;
+        long backtracks;
+        long checks;
+        long eliminations;
+        int maxDepth;
+    }
+
+    /**
+     * Example Call:
+     * metrics.record(type.name(), solver.getStats());
+     *
+     * Parameters:
+     * @param name (String): The group to add the solve to.
+     * @param stats (SolverStats): The counters of a finished solve. Only read.
+     */
+    public synchronized void record(String name, SolverStats stats) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(name, entry);
+        }
+        entry.wall.record(stats.getWallNanos());
+        entry.cpu.record(stats.getCpuNanos());
+        if (stats.isSolved()) {
+            entry.solved++;
+        }
+        entry.nodes += stats.getNodes();
+        entry.backtracks += stats.getBacktracks();
+        entry.checks += stats.getChecks();
+        entry.eliminations += stats.getEliminations();
+        entry.maxDepth = Math.max(entry.maxDepth, stats.getMaxDepth());
+    }
+
+    /**
+     * Returns the number of solves recorded under 'name'.
+     */
+    public synchronized long count(String name) {
+        Entry entry = entries.get(name);
+        return entry == null ? 0 : entry.wall.getCount();
+    }
+
+    /**
+     * Returns the wall-time p-th percentile of the solves recorded under 'name' in nanoseconds, 0 if there are none.
+     */
+    public synchronized long percentileNanos(String name, double fraction) {
+        Entry entry = entries.get(name);
+        return entry == null ? 0 : entry.wall.percentileNanos(fraction);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Example Call:
+     * metrics.dump(writer);
+     *
+     * Parameters:
+     * @param out (Appendable): Receives two lines per group: the wall and CPU time percentiles, then the mean of
+     * every counter per solve.
+     *
+     * Description:
+     * Writes the groups in the order they were first recorded. Failures of 'out' are passed on as IOException.
+     */
+    public synchronized void dump(Appendable out) throws IOException {
+        for (Map.Entry<String, Entry> named : entries.entrySet()) {
+            Entry entry = named.getValue();
+            long count = entry.wall.getCount();
+            out.append(named.getKey()).append(" wall: ").append(entry.wall.toString())
+                    .append(" | cpu: ").append(entry.cpu.toString()).append('\n');
+            out.append(String.format(Locale.US,
+                    "%s per solve: %d/%d solved, %.1f nodes, %.1f backtracks, %.1f checks, %.1f eliminations, "
+                            + "max depth %d%n",
+                    named.getKey(), entry.solved, count, (double) entry.nodes / count,
+                    (double) entry.backtracks / count, (double) entry.checks / count,
+                    (double) entry.eliminations / count, entry.maxDepth));
+        }
+    }
+}
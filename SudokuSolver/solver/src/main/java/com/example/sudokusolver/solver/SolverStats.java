@@ -0,0 +1,166 @@
+package com.example.sudokusolver.solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Class: SolverStats
+ *
+ * Description:
+ * Counters for one solve, filled in by the engine that owns them and reset when its next solve starts:
+ *   1. nodes: Search-tree nodes visited.
+ *   2. backtracks: Guesses that were taken back.
+ *   3. checks: Candidate evaluations: a cell's digit mask computed (BITMASK), a cell scanned for the most
+ *      constrained one (PROPAGATION) or a column compared for the smallest one (DANCING_LINKS).
+ *   4. eliminations: Candidates removed, by propagation (PROPAGATION) or by unlinking matrix rows (DANCING_LINKS).
+ *   5. maxDepth: The deepest search level reached.
+ *   6. wall and CPU time of the solve, in nanoseconds.
+ * The engines bump plain long fields, so leaving the counters on costs a few adds per node. Every update in the
+ * engines is guarded by ENABLED, a compile-time constant: setting it to false removes the counting code altogether.
+ * CPU time comes from the clock set with setCpuClock(), the JVM's thread CPU time by default; -1 if none is set.
+ * Only the solving thread may write the counters. Read them after the solve has returned.
+ */
+public final class SolverStats {
+    public static final boolean ENABLED = true;
+
+    private static volatile LongSupplier cpuClock = defaultCpuClock();
+
+    long nodes;
+    long backtracks;
+    long checks;
+    long eliminations;
+    int maxDepth;
+    private boolean solved;
+    private long wallNanos;
+    private long cpuNanos;
+    private long wallStart;
+    private long cpuStart;
+
+    /**
+     * Example Call:
+     * SolverStats.setCpuClock(Debug::threadCpuTimeNanos);
+     *
+     * Parameters:
+     * @param clock (LongSupplier): Returns the CPU time of the calling thread in nanoseconds, or null for none.
+     *
+     * Description:
+     * Replaces the CPU clock for all later solves. Platforms without java.lang.management (Android) pass their own.
+     */
+    public static void setCpuClock(LongSupplier clock) {
+        cpuClock = clock;
+    }
+
+    private static LongSupplier defaultCpuClock() {
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads.isCurrentThreadCpuTimeSupported()) {
+                return threads::getCurrentThreadCpuTime;
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // No management API on this platform
+        }
+        return null;
+    }
+
+    /**
+     * Resets the counters and starts the clocks. Called by the engine when a solve starts.
+     */
+    void begin() {
+        nodes = 0;
+        backtracks = 0;
+        checks = 0;
+        eliminations = 0;
+        maxDepth = 0;
+        solved = false;
+        LongSupplier clock = cpuClock;
+        cpuStart = clock != null ? clock.getAsLong() : -1;
+        wallStart = System.nanoTime();
+    }
+
+    /**
+     * Stops the clocks. Called by the engine when a solve returns.
+     */
+    void end(boolean solved) {
+        wallNanos = System.nanoTime() - wallStart;
+        LongSupplier clock = cpuClock;
+        cpuNanos = clock != null && cpuStart >= 0 ? clock.getAsLong() - cpuStart : -1;
+        this.solved = solved;
+    }
+
+    void enter(int depth) {
+        nodes++;
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    public long getChecks() {
+        return checks;
+    }
+
+    public long getEliminations() {
+        return eliminations;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public boolean isSolved() {
+        return solved;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Returns the CPU time the solving thread spent in the solve, or -1 if no CPU clock is available.
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * Adds the search counters of 'other', such as the engine behind a CachingSolver, to this instance.
+     */
+    void add(SolverStats other) {
+        nodes += other.nodes;
+        backtracks += other.backtracks;
+        checks += other.checks;
+        eliminations += other.eliminations;
+        maxDepth = Math.max(maxDepth, other.maxDepth);
+    }
+
+    /**
+     * Copies every counter of 'other' into this instance, so the values can be kept after the engine is reused.
+     */
+    public void copyFrom(SolverStats other) {
+        nodes = other.nodes;
+        backtracks = other.backtracks;
+        checks = other.checks;
+        eliminations = other.eliminations;
+        maxDepth = other.maxDepth;
+        solved = other.solved;
+        wallNanos = other.wallNanos;
+        cpuNanos = other.cpuNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "%s in %.3f ms (cpu %.3f ms): %d nodes, %d backtracks, %d checks, %d eliminations, depth %d",
+                solved ? "solved" : "unsolved", wallNanos / 1e6, cpuNanos / 1e6, nodes, backtracks, checks,
+                eliminations, maxDepth);
+    }
+}
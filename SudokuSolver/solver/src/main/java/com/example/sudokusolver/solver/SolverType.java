@@ -0,0 +1,63 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Enum: SolverType
+ *
+ * Description:
+ * The solver engines callers can choose between. Every engine can be made for any Geometry.
+ *   1. BITMASK: Depth-first backtracking over row, column and box bitmasks, branching on the most constrained cell.
+ *      Without deductions it is only practical up to 9x9; hard 16x16 puzzles take it far too long.
+ *   2. DANCING_LINKS: Knuth's Algorithm X over the exact-cover matrix (324 constraints on 9x9), using Dancing Links.
+ *   3. PROPAGATION: Singles and locked-candidate deductions to a fixpoint before the first guess and after each one.
+ *   4. SAT: A CDCL SAT solver over a CNF encoding of the board. It learns from conflicts instead of retrying them,
+ *      so it holds up on adversarial and large boards where backtracking explodes. Also the others' FallbackSolver.
+ */
+public enum SolverType {
+    BITMASK {
+        @Override
+        public SudokuSolver create(Geometry geometry) {
+            return new BitmaskSolver(geometry);
+        }
+    },
+    DANCING_LINKS {
+        @Override
+        public SudokuSolver create(Geometry geometry) {
+            return new DancingLinksSolver(geometry);
+        }
+    },
+    PROPAGATION {
+        @Override
+        public SudokuSolver create(Geometry geometry) {
+            return new PropagatingSolver(geometry);
+        }
+    },
+    SAT {
+        @Override
+        public SudokuSolver create(Geometry geometry) {
+            return new CdclSolver(geometry);
+        }
+    };
+
+    /**
+     * Example Call:
+     * SudokuSolver solver = SolverType.DANCING_LINKS.create();
+     *
+     * Returns:
+     * @return SudokuSolver - A new engine of this type for the classic 9x9 board.
+     */
+    public SudokuSolver create() {
+        return create(Geometry.CLASSIC);
+    }
+
+    /**
+     * Example Call:
+     * SudokuSolver solver = SolverType.PROPAGATION.create(Geometry.of(4));
+     *
+     * Parameters:
+     * @param geometry (Geometry): The board size the engine will solve.
+     *
+     * Returns:
+     * @return SudokuSolver - A new engine of this type for boards of that geometry.
+     */
+    public abstract SudokuSolver create(Geometry geometry);
+}
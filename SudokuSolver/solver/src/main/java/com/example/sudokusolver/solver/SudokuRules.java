@@ -0,0 +1,116 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: SudokuRules
+ *
+ * Description:
+ * Board geometry and placement rules for a classic 9x9 Sudoku board, as compile-time constants over the tables of
+ * Geometry.CLASSIC. Geometry describes the other board sizes.
+ * Boards are passed around as flat int arrays of 81 cells in row-major order, where 0 marks an empty cell
+ * and 1-9 are placed digits. Digit sets are stored as bitmasks where bit (digit - 1) represents the digit.
+ */
+public final class SudokuRules {
+    public static final int BOX_SIZE = 3;
+    public static final int SIZE = BOX_SIZE * BOX_SIZE;
+    public static final int CELLS = SIZE * SIZE;
+    public static final int ALL_DIGITS = (1 << SIZE) - 1;
+    public static final int PEER_COUNT = 3 * (SIZE - 1) - 2 * (BOX_SIZE - 1);
+
+    private static final int[] ROW_OF = Geometry.CLASSIC.rowOf;
+    private static final int[] COL_OF = Geometry.CLASSIC.colOf;
+    private static final int[] BOX_OF = Geometry.CLASSIC.boxOf;
+
+    // Units 0-8 are the rows, 9-17 the columns and 18-26 the boxes. Shared with the engines, never modified.
+    static final int UNIT_COUNT = 3 * SIZE;
+    static final int[][] UNITS = Geometry.CLASSIC.units;
+    static final int[][] PEERS = Geometry.CLASSIC.peers;
+
+    private SudokuRules() {
+    }
+
+    public static int rowOf(int cell) {
+        return ROW_OF[cell];
+    }
+
+    public static int colOf(int cell) {
+        return COL_OF[cell];
+    }
+
+    public static int boxOf(int cell) {
+        return BOX_OF[cell];
+    }
+
+    /**
+     * Returns the index-th of the 20 cells that share a row, column or box with 'cell'.
+     */
+    public static int peerOf(int cell, int index) {
+        return PEERS[cell][index];
+    }
+
+    public static int bitOf(int digit) {
+        return 1 << (digit - 1);
+    }
+
+    public static int digitOf(int bit) {
+        return Integer.numberOfTrailingZeros(bit) + 1;
+    }
+
+    /**
+     * Example Call:
+     * boolean isValid = SudokuRules.isValidPlacement(grid, row, col, num);
+     *
+     * Parameters:
+     * @param grid (int[]): The board as 81 cells in row-major order.
+     * @param row (int): The row index of the cell to be checked.
+     * @param col (int): The column index of the cell to be checked.
+     * @param num (int): The number to be placed in the cell and checked for validity.
+     *
+     * Returns:
+     * @return boolean - True if placing 'num' in the cell at position (row, col) is valid, false otherwise.
+     *
+     * Description:
+     * Checks the row, column and the corresponding 3x3 sub-grid for any conflicts with 'num'.
+     * The cell itself is skipped so that an already placed digit can be re-checked against its peers.
+     */
+    public static boolean isValidPlacement(int[] grid, int row, int col, int num) {
+        for (int i = 0; i < SIZE; i++) {
+            if ((i != col && grid[row * SIZE + i] == num) || (i != row && grid[i * SIZE + col] == num)) {
+                return false;
+            }
+        }
+
+        int subGridRow = (row / BOX_SIZE) * BOX_SIZE;
+        int subGridCol = (col / BOX_SIZE) * BOX_SIZE;
+        for (int i = 0; i < BOX_SIZE; i++) {
+            for (int j = 0; j < BOX_SIZE; j++) {
+                int r = subGridRow + i;
+                int c = subGridCol + j;
+                if ((r != row || c != col) && grid[r * SIZE + c] == num) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = SudokuRules.isSolved(grid);
+     *
+     * Parameters:
+     * @param grid (int[]): The board as 81 cells in row-major order.
+     *
+     * Returns:
+     * @return boolean - True if every cell is filled and no row, column or box repeats a digit.
+     */
+    public static boolean isSolved(int[] grid) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            int value = grid[cell];
+            if (value < 1 || value > SIZE || !isValidPlacement(grid, ROW_OF[cell], COL_OF[cell], value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
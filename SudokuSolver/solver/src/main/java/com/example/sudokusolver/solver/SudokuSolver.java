@@ -0,0 +1,76 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Interface: SudokuSolver
+ *
+ * Description:
+ * Common entry point for the solver engines. Boards are Geometry.cells cells in row-major order with 0 for empty cells.
+ * Implementations keep working state between calls, so an instance must only be used by one thread at a time.
+ * The only exception is cancel(), which is meant to be called from another thread.
+ *
+ * @see SolverType: Lists the available engines and creates them.
+ */
+public interface SudokuSolver {
+    /**
+     * Example Call:
+     * boolean solved = solver.solve(grid);
+     *
+     * Parameters:
+     * @param board (int[]): The board to solve. Filled in place when a solution is found, left untouched otherwise.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved, false if the givens conflict or no solution exists.
+     */
+    boolean solve(int[] board);
+
+    /**
+     * Example Call:
+     * boolean solved = solver.solve(board);
+     *
+     * Parameters:
+     * @param board (Board): The board to solve. Its empty cells are filled in place when a solution is found.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved, false if its digits conflict or no solution exists.
+     */
+    default boolean solve(Board board) {
+        int[] grid = board.toValues();
+        if (!solve(grid)) {
+            return false;
+        }
+        board.setValues(grid);
+        return true;
+    }
+
+    /**
+     * Example Call:
+     * solver.setListener(listener);
+     *
+     * Parameters:
+     * @param listener (SolverListener): Receives placements and undos during the following solves, or null for none.
+     */
+    void setListener(SolverListener listener);
+
+    /**
+     * Example Call:
+     * long nodes = solver.getStats().getNodes();
+     *
+     * Returns:
+     * @return SolverStats - The counters of the last solve. The same instance is reused and reset by every solve,
+     * so copy it (SolverStats.copyFrom) to keep the values. Read it on the solving thread or after the solve.
+     *
+     * @see SolverStats: What each counter means and how to compile the counting out.
+     */
+    SolverStats getStats();
+
+    /**
+     * Example Call:
+     * solver.cancel();
+     *
+     * Description:
+     * Asks a running solve to stop. May be called from any thread. The search checks the request at every node
+     * and then returns false without touching the board. The request is cleared once that solve returns, and a
+     * request made while no solve is running stops the next one immediately.
+     */
+    void cancel();
+}
@@ -0,0 +1,103 @@
+package com.example.sudokusolver.solver;
+
+/**
+ * Class: TracePlayer
+ *
+ * Description:
+ * Moves a board back and forth through a recorded SolveTrace. seek() applies or undoes steps until the board is at
+ * the requested position, and remembers which cells changed in a bitset. drainChanges() hands out each changed
+ * cell once with its current value, however many steps touched it, so a display can catch up in a single update.
+ */
+public final class TracePlayer {
+    private final SolveTrace trace;
+    private final int[] board;
+    private final long[] dirty;
+    private int position;
+
+    public TracePlayer(SolveTrace trace) {
+        this.trace = trace;
+        this.board = new int[trace.cellCount()];
+        this.dirty = new long[(board.length + 63) / 64];
+        trace.copyStartTo(board);
+    }
+
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Returns the number of cells of the board, the size drainChanges() needs for its arrays.
+     */
+    public int cellCount() {
+        return board.length;
+    }
+
+    public int length() {
+        return trace.size();
+    }
+
+    public boolean isAtEnd() {
+        return position == trace.size();
+    }
+
+    public int value(int cell) {
+        return board[cell];
+    }
+
+    /**
+     * Example Call:
+     * player.seek(player.length());
+     *
+     * Parameters:
+     * @param step (int): The number of trace steps the board should reflect, clamped to 0..length().
+     *
+     * Description:
+     * Applies steps forward or undoes them backward, marking every touched cell as changed.
+     */
+    public void seek(int step) {
+        int target = Math.max(0, Math.min(step, trace.size()));
+        while (position < target) {
+            int cell = trace.cellAt(position);
+            board[cell] = trace.valueAt(position);
+            markChanged(cell);
+            position++;
+        }
+        while (position > target) {
+            position--;
+            int cell = trace.cellAt(position);
+            board[cell] = trace.previousAt(position);
+            markChanged(cell);
+        }
+    }
+
+    /**
+     * Example Call:
+     * int count = player.drainChanges(cells, values);
+     *
+     * Parameters:
+     * @param cells (int[]): Receives the changed cells, in ascending order. Must hold one entry per board cell.
+     * @param values (int[]): Receives the current value of each changed cell. Must hold one entry per board cell.
+     *
+     * Returns:
+     * @return int - The number of changed cells written. The change marks are cleared.
+     */
+    public int drainChanges(int[] cells, int[] values) {
+        int count = 0;
+        for (int word = 0; word < dirty.length; word++) {
+            long bits = dirty[word];
+            dirty[word] = 0;
+            while (bits != 0) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                cells[count] = cell;
+                values[count] = board[cell];
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void markChanged(int cell) {
+        dirty[cell >>> 6] |= 1L << (cell & 63);
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.sudokusolver.solver;
+
+import java.util.Arrays;
+
+/**
+ * Class: Variant
+ *
+ * Description:
+ * The rules of a Sudoku variant: a set of units, each holding every digit once, plus optional sum cages.
+ * Classic boards have the rows, columns and boxes as units. Diagonal (X) Sudoku adds the two main diagonals.
+ * Jigsaw Sudoku replaces the boxes with irregular regions. Killer Sudoku adds cages to any of these: the digits of
+ * a cage differ and add up to the cage's sum.
+ * Everything is compiled once into flat int[] tables in compressed-row form: the cells of every unit, the units
+ * of every cell, the peers of every cell (cells sharing a unit or a cage) and the cells of every cage. VariantSolver
+ * indexes these tables directly, so an extra rule costs an extra table entry instead of an extra code path.
+ * Every cage also gets the list of digit sets that can fill it (its combinations, as digit bitmasks), so the
+ * digits still allowed in a partly filled cage are one pass over that list (allowedInCage). Cages with more than
+ * MAX_CAGE_COMBINATIONS combinations are rejected.
+ * Instances are immutable and may be shared between threads.
+ */
+public final class Variant {
+    public static final int MAX_CAGE_COMBINATIONS = 1 << 16;
+
+    private final Geometry geometry;
+    final int unitCount;
+    // The cells of unit u are unitCells[u * size .. u * size + size - 1]
+    final int[] unitCells;
+    // The units of cell c are cellUnits[cellUnitStart[c] .. cellUnitStart[c + 1] - 1]
+    final int[] cellUnitStart;
+    final int[] cellUnits;
+    // How many units every cell is in, or -1 if cells differ (as on the diagonals)
+    final int unitsPerCell;
+    // The peers of cell c are peers[peerStart[c] .. peerStart[c + 1] - 1]
+    final int[] peerStart;
+    final int[] peers;
+    // The cage of each cell, -1 if it has none
+    final int[] cageOf;
+    final int[] cageStart;
+    final int[] cageCells;
+    final int[] cageSum;
+    // The digit sets that can fill cage k are combinations[comboStart[k] .. comboStart[k + 1] - 1]
+    final int[] comboStart;
+    final int[] combinations;
+
+    private Variant(Geometry geometry, int[][] units, int[][] cages, int[] sums) {
+        this.geometry = geometry;
+        int size = geometry.size;
+        int cells = geometry.cells;
+        this.unitCount = units.length;
+        this.unitCells = new int[unitCount * size];
+        int[] unitCounts = new int[cells];
+        for (int unit = 0; unit < unitCount; unit++) {
+            if (units[unit].length != size) {
+                throw new IllegalArgumentException("Unit " + unit + " has " + units[unit].length + " cells, not "
+                        + size);
+            }
+            System.arraycopy(units[unit], 0, unitCells, unit * size, size);
+            for (int cell : units[unit]) {
+                unitCounts[cell]++;
+            }
+        }
+        this.cellUnitStart = prefixSums(unitCounts);
+        this.cellUnits = new int[cellUnitStart[cells]];
+        int uniform = unitCounts[0];
+        for (int count : unitCounts) {
+            if (count != uniform) {
+                uniform = -1;
+                break;
+            }
+        }
+        this.unitsPerCell = uniform;
+        int[] fill = Arrays.copyOf(cellUnitStart, cells);
+        for (int unit = 0; unit < unitCount; unit++) {
+            for (int cell : units[unit]) {
+                cellUnits[fill[cell]++] = unit;
+            }
+        }
+
+        this.cageOf = new int[cells];
+        Arrays.fill(cageOf, -1);
+        int[] cageSizes = new int[cages.length];
+        for (int cage = 0; cage < cages.length; cage++) {
+            cageSizes[cage] = cages[cage].length;
+            for (int cell : cages[cage]) {
+                if (cageOf[cell] >= 0) {
+                    throw new IllegalArgumentException("Cell " + cell + " is in two cages");
+                }
+                cageOf[cell] = cage;
+            }
+        }
+        this.cageStart = prefixSums(cageSizes);
+        this.cageCells = new int[cageStart[cages.length]];
+        this.cageSum = sums.clone();
+        int[][] combos = new int[cages.length][];
+        int comboCount = 0;
+        for (int cage = 0; cage < cages.length; cage++) {
+            System.arraycopy(cages[cage], 0, cageCells, cageStart[cage], cages[cage].length);
+            combos[cage] = combinations(size, cages[cage].length, sums[cage]);
+            comboCount += combos[cage].length;
+        }
+        this.comboStart = new int[cages.length + 1];
+        this.combinations = new int[comboCount];
+        for (int cage = 0; cage < cages.length; cage++) {
+            comboStart[cage + 1] = comboStart[cage] + combos[cage].length;
+            System.arraycopy(combos[cage], 0, combinations, comboStart[cage], combos[cage].length);
+        }
+
+        // Peers: every other cell of a unit or cage, each once
+        int[] mark = new int[cells];
+        Arrays.fill(mark, -1);
+        int[][] cellPeers = new int[cells][];
+        int[] scratch = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            int count = 0;
+            mark[cell] = cell;
+            for (int i = cellUnitStart[cell]; i < cellUnitStart[cell + 1]; i++) {
+                int base = cellUnits[i] * size;
+                for (int k = 0; k < size; k++) {
+                    int other = unitCells[base + k];
+                    if (mark[other] != cell) {
+                        mark[other] = cell;
+                        scratch[count++] = other;
+                    }
+                }
+            }
+            int cage = cageOf[cell];
+            if (cage >= 0) {
+                for (int i = cageStart[cage]; i < cageStart[cage + 1]; i++) {
+                    int other = cageCells[i];
+                    if (mark[other] != cell) {
+                        mark[other] = cell;
+                        scratch[count++] = other;
+                    }
+                }
+            }
+            cellPeers[cell] = Arrays.copyOf(scratch, count);
+        }
+        int[] peerCounts = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            peerCounts[cell] = cellPeers[cell].length;
+        }
+        this.peerStart = prefixSums(peerCounts);
+        this.peers = new int[peerStart[cells]];
+        for (int cell = 0; cell < cells; cell++) {
+            System.arraycopy(cellPeers[cell], 0, peers, peerStart[cell], cellPeers[cell].length);
+        }
+    }
+
+    private static int[] prefixSums(int[] counts) {
+        int[] starts = new int[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            starts[i + 1] = starts[i] + counts[i];
+        }
+        return starts;
+    }
+
+    // Every set of 'count' distinct digits from 1 to 'size' that adds up to 'sum', as digit bitmasks
+    private static int[] combinations(int size, int count, int sum) {
+        int[][] found = {new int[16]};
+        int total = collect(size, 1, count, sum, 0, found, 0);
+        return Arrays.copyOf(found[0], total);
+    }
+
+    private static int collect(int size, int from, int count, int sum, int mask, int[][] found, int total) {
+        if (count == 0) {
+            if (sum != 0) {
+                return total;
+            }
+            if (total == MAX_CAGE_COMBINATIONS) {
+                throw new IllegalArgumentException("A cage has more than " + MAX_CAGE_COMBINATIONS
+                        + " combinations");
+            }
+            if (total == found[0].length) {
+                found[0] = Arrays.copyOf(found[0], 2 * total);
+            }
+            found[0][total] = mask;
+            return total + 1;
+        }
+        for (int digit = from; digit <= size && digit <= sum; digit++) {
+            total = collect(size, digit + 1, count - 1, sum - digit, mask | SudokuRules.bitOf(digit), found, total);
+        }
+        return total;
+    }
+
+    /**
+     * Example Call:
+     * Variant rules = Variant.classic(Geometry.CLASSIC);
+     *
+     * Parameters:
+     * @param geometry (Geometry): The board size.
+     *
+     * Returns:
+     * @return Variant - Rows, columns and boxes, the same rules the other engines implement.
+     */
+    public static Variant classic(Geometry geometry) {
+        return new Variant(geometry, geometry.units.clone(), new int[0][], new int[0]);
+    }
+
+    /**
+     * Example Call:
+     * Variant rules = Variant.diagonal(Geometry.CLASSIC);
+     *
+     * Parameters:
+     * @param geometry (Geometry): The board size.
+     *
+     * Returns:
+     * @return Variant - The classic rules plus both main diagonals as units (X-Sudoku).
+     */
+    public static Variant diagonal(Geometry geometry) {
+        int size = geometry.size;
+        int[][] units = Arrays.copyOf(geometry.units, geometry.unitCount + 2);
+        units[geometry.unitCount] = new int[size];
+        units[geometry.unitCount + 1] = new int[size];
+        for (int i = 0; i < size; i++) {
+            units[geometry.unitCount][i] = i * size + i;
+            units[geometry.unitCount + 1][i] = i * size + size - 1 - i;
+        }
+        return new Variant(geometry, units, new int[0][], new int[0]);
+    }
+
+    /**
+     * Example Call:
+     * Variant rules = Variant.jigsaw(Geometry.CLASSIC, regionOf);
+     *
+     * Parameters:
+     * @param geometry (Geometry): The board size.
+     * @param regionOf (int[]): The region of every cell, 0 to size - 1. Every region must have 'size' cells.
+     *
+     * Returns:
+     * @return Variant - Rows, columns and the regions in place of the boxes.
+     */
+    public static Variant jigsaw(Geometry geometry, int[] regionOf) {
+        int size = geometry.size;
+        if (regionOf.length != geometry.cells) {
+            throw new IllegalArgumentException("Expected " + geometry.cells + " regions but got " + regionOf.length);
+        }
+        int[][] units = Arrays.copyOf(geometry.units, 3 * size);
+        int[] fill = new int[size];
+        for (int region = 0; region < size; region++) {
+            units[2 * size + region] = new int[size];
+        }
+        for (int cell = 0; cell < geometry.cells; cell++) {
+            int region = regionOf[cell];
+            if (region < 0 || region >= size || fill[region] == size) {
+                throw new IllegalArgumentException("Region " + region + " of cell " + cell + " is invalid or full");
+            }
+            units[2 * size + region][fill[region]++] = cell;
+        }
+        return new Variant(geometry, units, new int[0][], new int[0]);
+    }
+
+    /**
+     * Example Call:
+     * Variant rules = Variant.classic(Geometry.CLASSIC).withCages(cages, sums);
+     *
+     * Parameters:
+     * @param cages (int[][]): The cells of every cage. A cell may be in one cage at most.
+     * @param sums (int[]): The sum of every cage.
+     *
+     * Returns:
+     * @return Variant - These rules plus the cages (Killer Sudoku). Cages this variant already has are replaced.
+     */
+    public Variant withCages(int[][] cages, int[] sums) {
+        if (cages.length != sums.length) {
+            throw new IllegalArgumentException(cages.length + " cages but " + sums.length + " sums");
+        }
+        int size = geometry.size;
+        int[][] units = new int[unitCount][];
+        for (int unit = 0; unit < unitCount; unit++) {
+            units[unit] = Arrays.copyOfRange(unitCells, unit * size, unit * size + size);
+        }
+        return new Variant(geometry, units, cages, sums);
+    }
+
+    public Geometry geometry() {
+        return geometry;
+    }
+
+    public int cageCount() {
+        return cageSum.length;
+    }
+
+    /**
+     * Example Call:
+     * int allowed = variant.allowedInCage(cage, usedMask);
+     *
+     * Parameters:
+     * @param cage (int): The cage.
+     * @param used (int): The digits already placed in the cage, as a bitmask.
+     *
+     * Returns:
+     * @return int - The digits the empty cells of the cage may still take: those of every combination that contains
+     * all of 'used', without 'used' itself. 0 if no combination fits.
+     */
+    public int allowedInCage(int cage, int used) {
+        int allowed = 0;
+        for (int i = comboStart[cage]; i < comboStart[cage + 1]; i++) {
+            int combination = combinations[i];
+            if ((combination & used) == used) {
+                allowed |= combination;
+            }
+        }
+        return allowed & ~used;
+    }
+
+    /**
+     * Example Call:
+     * boolean conflict = variant.hasConflict(grid, cell);
+     *
+     * Parameters:
+     * @param grid (int[]): The board as geometry().cells values in row-major order, 0 for empty cells.
+     * @param cell (int): A filled cell.
+     *
+     * Returns:
+     * @return boolean - True if a peer of the cell (a cell sharing one of its units or its cage) holds the same digit.
+     */
+    public boolean hasConflict(int[] grid, int cell) {
+        int value = grid[cell];
+        for (int i = peerStart[cell]; i < peerStart[cell + 1]; i++) {
+            if (grid[peers[i]] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = variant.isSolved(grid);
+     *
+     * Parameters:
+     * @param grid (int[]): The board as geometry().cells values in row-major order.
+     *
+     * Returns:
+     * @return boolean - True if every cell is filled, no unit repeats a digit and every cage has distinct digits adding
+     * up to its sum.
+     */
+    public boolean isSolved(int[] grid) {
+        int size = geometry.size;
+        if (grid.length != geometry.cells) {
+            return false;
+        }
+        for (int unit = 0; unit < unitCount; unit++) {
+            int seen = 0;
+            for (int i = unit * size; i < unit * size + size; i++) {
+                int value = grid[unitCells[i]];
+                if (value < 1 || value > size) {
+                    return false;
+                }
+                seen |= SudokuRules.bitOf(value);
+            }
+            if (seen != geometry.allDigits) {
+                return false;
+            }
+        }
+        for (int cage = 0; cage < cageSum.length; cage++) {
+            int seen = 0;
+            int sum = 0;
+            for (int i = cageStart[cage]; i < cageStart[cage + 1]; i++) {
+                int bit = SudokuRules.bitOf(grid[cageCells[i]]);
+                if ((seen & bit) != 0) {
+                    return false;
+                }
+                seen |= bit;
+                sum += grid[cageCells[i]];
+            }
+            if (sum != cageSum[cage]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.sudokusolver.solver;
+
+import java.util.Arrays;
+
+/**
+ * Class: VariantSolver
+ *
+ * Description:
+ * A backtracking solver for any Variant: classic, diagonal, jigsaw or killer boards. It works like BitmaskSolver,
+ * keeping the digits used by every unit as a bitmask and branching on the empty cell with the fewest candidates,
+ * but reads the units of each cell from the variant's compiled tables, so a diagonal or an irregular region is one
+ * more mask in the OR and not a separate check. When every cell is in three units, as with classic and jigsaw
+ * rules, the three lookups are unrolled the way BitmaskSolver does them, and variants without cages skip the cage
+ * lookups, so classic rules cost no more per check than in BitmaskSolver.
+ * For killer cages it keeps the digits each cage may still take, allowedInCage() of the digits placed in it, and
+ * ANDs that into the candidates of the cage's cells. A cage of three cells summing to 7 therefore only offers 1, 2
+ * and 4 from the start, and a cage that cannot reach its sum any more leaves its cells without candidates.
+ * An instance holds its working state, so it is cheap to reuse but must not be shared between threads.
+ */
+public class VariantSolver implements SudokuSolver {
+    private final Variant variant;
+    // The variant's tables, held directly so the hot loops skip a field load
+    private final int[] cellUnitStart;
+    private final int[] cellUnits;
+    // The cage of each cell, or cageCount for cells without one; that last entry of cageAllowed is every digit
+    private final int[] cageOf;
+    // Set when every cell is in exactly three units (classic and jigsaw rules), which take an unrolled path
+    private final boolean threeUnits;
+    // Clear for every variant but killer, which then skips the cage lookups altogether
+    private final boolean hasCages;
+    private final int allDigits;
+    private final int[] grid;
+    private final int[] unitMask;
+    private final int[] cageUsed;
+    private final int[] cageAllowed;
+    private final int[] empties;
+    private int emptyCount;
+    private int loadedEmpty;
+    private final SolverStats stats = new SolverStats();
+    private SolverListener listener;
+    private volatile boolean cancelled;
+
+    public VariantSolver(Variant variant) {
+        this.variant = variant;
+        this.cellUnitStart = variant.cellUnitStart;
+        this.cellUnits = variant.cellUnits;
+        int cageCount = variant.cageCount();
+        this.cageOf = new int[variant.cageOf.length];
+        for (int cell = 0; cell < cageOf.length; cell++) {
+            cageOf[cell] = variant.cageOf[cell] < 0 ? cageCount : variant.cageOf[cell];
+        }
+        this.threeUnits = variant.unitsPerCell == 3;
+        this.hasCages = cageCount > 0;
+        this.allDigits = variant.geometry().allDigits;
+        this.grid = new int[variant.geometry().cells];
+        this.unitMask = new int[variant.unitCount];
+        this.cageUsed = new int[cageCount];
+        this.cageAllowed = new int[cageCount + 1];
+        cageAllowed[cageCount] = allDigits;
+        this.empties = new int[grid.length];
+    }
+
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public SolverStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Example Call:
+     * boolean solved = solver.solve(grid);
+     *
+     * Parameters:
+     * @param board (int[]): The board in row-major order, 0 for empty cells. Filled in place when solved.
+     *
+     * Returns:
+     * @return boolean - True if the board was solved, false if the givens break the variant's rules, no solution
+     * exists or the solve was cancelled.
+     */
+    @Override
+    public boolean solve(int[] board) {
+        boolean solved = false;
+        if (SolverStats.ENABLED) {
+            stats.begin();
+        }
+        try {
+            if (!load(board) || !search()) {
+                return false;
+            }
+            System.arraycopy(grid, 0, board, 0, grid.length);
+            solved = true;
+            return true;
+        } finally {
+            cancelled = false;
+            if (SolverStats.ENABLED) {
+                stats.end(solved);
+            }
+        }
+    }
+
+    private boolean load(int[] board) {
+        if (board.length != grid.length) {
+            throw new IllegalArgumentException("Expected " + grid.length + " cells but got " + board.length);
+        }
+        Arrays.fill(unitMask, 0);
+        Arrays.fill(cageUsed, 0);
+        for (int cage = 0; cage < cageUsed.length; cage++) {
+            cageAllowed[cage] = variant.allowedInCage(cage, 0);
+        }
+        emptyCount = 0;
+
+        for (int cell = 0; cell < grid.length; cell++) {
+            int value = board[cell];
+            grid[cell] = value;
+            if (value == 0) {
+                empties[emptyCount++] = cell;
+            } else if (value < 0 || value > variant.geometry().size) {
+                throw new IllegalArgumentException("Invalid value " + value + " at cell " + cell);
+            } else {
+                int bit = SudokuRules.bitOf(value);
+                if ((candidates(cell) & bit) == 0) {
+                    return false;
+                }
+                place(cell, bit);
+            }
+        }
+        loadedEmpty = emptyCount;
+        return true;
+    }
+
+    private boolean search() {
+        if (SolverStats.ENABLED) {
+            stats.enter(loadedEmpty - emptyCount);
+        }
+        if (emptyCount == 0) {
+            return true;
+        }
+        if (cancelled) {
+            return false;
+        }
+
+        int bestIndex = -1;
+        int bestMask = 0;
+        int bestCount = Integer.MAX_VALUE;
+        int i = 0;
+        for (; i < emptyCount; i++) {
+            int mask = candidates(empties[i]);
+            int count = Integer.bitCount(mask);
+            if (count < bestCount) {
+                bestIndex = i;
+                bestMask = mask;
+                bestCount = count;
+                if (count <= 1) {
+                    i++;
+                    break;
+                }
+            }
+        }
+        if (SolverStats.ENABLED) {
+            stats.checks += i;
+        }
+        if (bestCount == 0) {
+            return false;
+        }
+
+        // Move the chosen cell to the end of the live part of the list so deeper levels never see it
+        int cell = empties[bestIndex];
+        int last = --emptyCount;
+        empties[bestIndex] = empties[last];
+        empties[last] = cell;
+
+        int mask = bestMask;
+        while (mask != 0) {
+            int bit = mask & -mask;
+            mask ^= bit;
+            place(cell, bit);
+            if (listener != null) {
+                listener.onPlaced(cell, grid[cell]);
+            }
+            if (search()) {
+                return true;
+            }
+            remove(cell, bit);
+            if (SolverStats.ENABLED) {
+                stats.backtracks++;
+            }
+            if (listener != null) {
+                listener.onCleared(cell);
+            }
+        }
+
+        empties[last] = empties[bestIndex];
+        empties[bestIndex] = cell;
+        emptyCount++;
+        return false;
+    }
+
+    private int candidates(int cell) {
+        int used;
+        if (threeUnits) {
+            int units = 3 * cell;
+            used = unitMask[cellUnits[units]] | unitMask[cellUnits[units + 1]] | unitMask[cellUnits[units + 2]];
+        } else {
+            used = 0;
+            for (int i = cellUnitStart[cell], end = cellUnitStart[cell + 1]; i < end; i++) {
+                used |= unitMask[cellUnits[i]];
+            }
+        }
+        return hasCages ? ~used & cageAllowed[cageOf[cell]] : ~used & allDigits;
+    }
+
+    private void place(int cell, int bit) {
+        grid[cell] = SudokuRules.digitOf(bit);
+        if (threeUnits) {
+            int units = 3 * cell;
+            unitMask[cellUnits[units]] |= bit;
+            unitMask[cellUnits[units + 1]] |= bit;
+            unitMask[cellUnits[units + 2]] |= bit;
+        } else {
+            for (int i = cellUnitStart[cell], end = cellUnitStart[cell + 1]; i < end; i++) {
+                unitMask[cellUnits[i]] |= bit;
+            }
+        }
+        if (hasCages) {
+            int cage = cageOf[cell];
+            if (cage < cageUsed.length) {
+                cageUsed[cage] |= bit;
+                cageAllowed[cage] = variant.allowedInCage(cage, cageUsed[cage]);
+            }
+        }
+    }
+
+    private void remove(int cell, int bit) {
+        grid[cell] = 0;
+        if (threeUnits) {
+            int units = 3 * cell;
+            unitMask[cellUnits[units]] &= ~bit;
+            unitMask[cellUnits[units + 1]] &= ~bit;
+            unitMask[cellUnits[units + 2]] &= ~bit;
+        } else {
+            for (int i = cellUnitStart[cell], end = cellUnitStart[cell + 1]; i < end; i++) {
+                unitMask[cellUnits[i]] &= ~bit;
+            }
+        }
+        if (hasCages) {
+            int cage = cageOf[cell];
+            if (cage < cageUsed.length) {
+                cageUsed[cage] &= ~bit;
+                cageAllowed[cage] = variant.allowedInCage(cage, cageUsed[cage]);
+            }
+        }
+    }
+}
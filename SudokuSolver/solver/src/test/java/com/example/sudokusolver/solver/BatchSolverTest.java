@@ -0,0 +1,68 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchSolverTest {
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+    private static final String HARD =
+            "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......";
+
+    @Test
+    public void keepsInputOrderAcrossWorkers() {
+        List<String> puzzles = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            puzzles.add(i % 2 == 0 ? EASY : HARD);
+        }
+        BatchSolver.Result result = new BatchSolver(SolverType.BITMASK, 4).solveAll(puzzles);
+
+        String easy = solve(EASY);
+        String hard = solve(HARD);
+        assertEquals(200, result.solved);
+        for (int i = 0; i < puzzles.size(); i++) {
+            assertEquals(i % 2 == 0 ? easy : hard, result.output[i]);
+        }
+    }
+
+    @Test
+    public void reportsBadPuzzlesInPlace() {
+        String conflicting = "33" + EASY.substring(2);
+        List<String> puzzles = Arrays.asList(EASY, conflicting, "123", HARD);
+        BatchSolver.Result result = new BatchSolver(SolverType.DANCING_LINKS, 2).solveAll(puzzles);
+
+        assertEquals(2, result.solved);
+        assertEquals(solve(EASY), result.output[0]);
+        assertTrue(result.output[1].startsWith("# line 2: conflicting givens"));
+        assertTrue(result.output[2].startsWith("# line 3:"));
+        assertEquals(solve(HARD), result.output[3]);
+    }
+
+    @Test
+    public void namesTheInputLineOfBadPuzzles() {
+        List<String> puzzles = Arrays.asList(EASY, "123");
+        BatchSolver.Result result = new BatchSolver(SolverType.BITMASK, 1).solveAll(puzzles, new int[]{2, 5});
+
+        assertEquals(solve(EASY), result.output[0]);
+        assertTrue(result.output[1].startsWith("# line 5:"));
+    }
+
+    @Test
+    public void latencyPercentilesAreOrdered() {
+        BatchSolver.Result result = new BatchSolver(SolverType.BITMASK, 2).solveAll(Arrays.asList(EASY, HARD, EASY));
+        assertTrue(result.latencyPercentile(50) <= result.latencyPercentile(99));
+        assertTrue(result.latencyPercentile(99) <= result.latencyPercentile(100));
+        assertTrue(result.puzzlesPerSecond() > 0);
+    }
+
+    private static String solve(String puzzle) {
+        int[] grid = PuzzleText.parse(puzzle);
+        assertTrue(new DancingLinksSolver().solve(grid));
+        return PuzzleText.format(grid);
+    }
+}
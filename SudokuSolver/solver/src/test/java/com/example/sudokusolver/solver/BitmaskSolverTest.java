@@ -0,0 +1,113 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BitmaskSolverTest {
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+    private static final String SEVENTEEN_CLUES =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    @Test
+    public void solvesEasyPuzzle() {
+        int[] grid = parse(EASY);
+        assertTrue(new BitmaskSolver().solve(grid));
+        assertTrue(SudokuRules.isSolved(grid));
+        assertKeepsGivens(parse(EASY), grid);
+    }
+
+    @Test
+    public void solvesSeventeenCluePuzzle() {
+        int[] grid = parse(SEVENTEEN_CLUES);
+        assertTrue(new BitmaskSolver().solve(grid));
+        assertTrue(SudokuRules.isSolved(grid));
+        assertKeepsGivens(parse(SEVENTEEN_CLUES), grid);
+    }
+
+    @Test
+    public void solvesEmptyBoard() {
+        int[] grid = new int[SudokuRules.CELLS];
+        assertTrue(new BitmaskSolver().solve(grid));
+        assertTrue(SudokuRules.isSolved(grid));
+    }
+
+    @Test
+    public void rejectsConflictingGivens() {
+        int[] grid = parse(EASY);
+        grid[0] = 3; // row 0 already holds a 3
+        int[] before = grid.clone();
+        assertFalse(new BitmaskSolver().solve(grid));
+        assertArrayEquals(before, grid);
+    }
+
+    @Test
+    public void reportsUnsolvableBoard() {
+        // No conflicts among the givens, but cell 0 has no candidate left
+        int[] grid = new int[SudokuRules.CELLS];
+        for (int col = 1; col < SudokuRules.SIZE; col++) {
+            grid[col] = col;
+        }
+        grid[SudokuRules.SIZE * 4] = 9;
+        assertFalse(new BitmaskSolver().solve(grid));
+    }
+
+    @Test
+    public void solverInstanceIsReusable() {
+        BitmaskSolver solver = new BitmaskSolver();
+        int[] first = parse(SEVENTEEN_CLUES);
+        int[] second = parse(EASY);
+        assertTrue(solver.solve(first));
+        assertTrue(solver.solve(second));
+        assertTrue(SudokuRules.isSolved(second));
+    }
+
+    @Test
+    public void listenerEventsReplayToTheSolution() {
+        int[] puzzle = parse(SEVENTEEN_CLUES);
+        int[] replay = puzzle.clone();
+        BitmaskSolver solver = new BitmaskSolver();
+        solver.setListener(new SolverListener() {
+            @Override
+            public void onPlaced(int cell, int digit) {
+                assertEquals(0, replay[cell]);
+                replay[cell] = digit;
+            }
+
+            @Override
+            public void onCleared(int cell) {
+                assertNotEquals(0, replay[cell]);
+                replay[cell] = 0;
+            }
+        });
+        assertTrue(solver.solve(puzzle));
+        assertArrayEquals(puzzle, replay);
+    }
+
+    @Test
+    public void cancelStopsTheNextSolveOnly() {
+        BitmaskSolver solver = new BitmaskSolver();
+        int[] grid = parse(SEVENTEEN_CLUES);
+        solver.cancel();
+        assertFalse(solver.solve(grid));
+        assertArrayEquals(parse(SEVENTEEN_CLUES), grid);
+        assertTrue(solver.solve(grid));
+    }
+
+    private static void assertKeepsGivens(int[] puzzle, int[] solution) {
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            if (puzzle[cell] != 0) {
+                assertEquals(puzzle[cell], solution[cell]);
+            }
+        }
+    }
+
+    private static int[] parse(String puzzle) {
+        int[] grid = new int[SudokuRules.CELLS];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = puzzle.charAt(i) - '0';
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoardTest {
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+
+    @Test
+    public void fromValuesMarksFilledCellsAsGivens() {
+        Board board = Board.fromValues(PuzzleText.parse(EASY));
+        assertTrue(board.isGiven(2));
+        assertFalse(board.isGiven(0));
+        assertEquals(3, board.get(0, 2));
+        assertEquals(32, board.filledCount());
+    }
+
+    @Test
+    public void snapshotRoundTrips() {
+        Board board = Board.fromValues(PuzzleText.parse(EASY));
+        board.set(0, 4);
+        board.setGiven(80, true);
+        Board restored = Board.restore(board.snapshot());
+        assertEquals(board, restored);
+        assertTrue(restored.isGiven(80));
+        assertFalse(restored.isGiven(0));
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        Board board = Board.fromValues(PuzzleText.parse(EASY));
+        Board copy = board.copy();
+        copy.set(0, 4);
+        assertEquals(0, board.get(0));
+        assertEquals(4, copy.get(0));
+    }
+
+    @Test
+    public void solversFillTheBoardInPlace() {
+        Board board = Board.fromValues(PuzzleText.parse(EASY));
+        assertTrue(SolverType.PROPAGATION.create().solve(board));
+        assertTrue(SudokuRules.isSolved(board.toValues()));
+        assertFalse(board.isGiven(0));
+    }
+
+    @Test
+    public void snapshotKeepsTheGeometry() {
+        Geometry geometry = Geometry.of(5);
+        Board board = new Board(geometry);
+        board.set(geometry.cells - 1, 25);
+        board.setGiven(geometry.cells - 1, true);
+        Board restored = Board.restore(board.snapshot());
+        assertSame(geometry, restored.geometry());
+        assertEquals(board, restored);
+        assertEquals(25, restored.get(geometry.size - 1, geometry.size - 1));
+    }
+}
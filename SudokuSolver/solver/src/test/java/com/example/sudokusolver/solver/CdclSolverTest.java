@@ -0,0 +1,112 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CdclSolverTest {
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+    private static final String HARD =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String SEVENTEEN_CLUES =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    // Checks that the listener's events, applied in order, lead from the puzzle to the solution
+    private static final class Replay implements SolverListener {
+        final int[] board;
+
+        Replay(int[] puzzle) {
+            board = puzzle.clone();
+        }
+
+        @Override
+        public void onPlaced(int cell, int digit) {
+            assertEquals(0, board[cell]);
+            board[cell] = digit;
+        }
+
+        @Override
+        public void onCleared(int cell) {
+            assertNotEquals(0, board[cell]);
+            board[cell] = 0;
+        }
+    }
+
+    @Test
+    public void matchesDancingLinks() {
+        CdclSolver solver = new CdclSolver();
+        for (String puzzle : new String[] {EASY, HARD, SEVENTEEN_CLUES}) {
+            int[] expected = PuzzleText.parse(puzzle);
+            assertTrue(new DancingLinksSolver().solve(expected));
+            int[] grid = PuzzleText.parse(puzzle);
+            assertTrue(solver.solve(grid));
+            assertArrayEquals(expected, grid);
+        }
+    }
+
+    @Test
+    public void solvesEmptyLargeBoards() {
+        for (int boxSize = 4; boxSize <= Geometry.MAX_BOX_SIZE; boxSize++) {
+            Geometry geometry = Geometry.of(boxSize);
+            int[] board = new int[geometry.cells];
+            assertTrue(new CdclSolver(geometry).solve(board));
+            assertTrue(geometry.isSolved(board));
+        }
+    }
+
+    @Test
+    public void rejectsUnsolvableBoards() {
+        CdclSolver solver = new CdclSolver();
+        int[] grid = PuzzleText.parse(EASY);
+        grid[0] = 2; // row 0 already holds a 2
+        assertFalse(solver.solve(grid));
+
+        // Rows 1 and 2 of box 0 hold 2 to 7, and columns 0 to 2 each hold a 1 lower down: no room for 1 in box 0
+        int[] board = new int[SudokuRules.CELLS];
+        for (int i = 0; i < 6; i++) {
+            board[(1 + i / 3) * 9 + i % 3] = 2 + i;
+        }
+        board[3 * 9] = 1;
+        board[4 * 9 + 1] = 1;
+        board[5 * 9 + 2] = 1;
+        int[] copy = board.clone();
+        assertFalse(solver.solve(board));
+        assertArrayEquals(copy, board);
+    }
+
+    @Test
+    public void listenerEventsReplayToTheSolution() {
+        int[] puzzle = PuzzleText.parse(SEVENTEEN_CLUES);
+        Replay replay = new Replay(puzzle);
+        CdclSolver solver = new CdclSolver();
+        solver.setListener(replay);
+        assertTrue(solver.solve(puzzle));
+        assertArrayEquals(puzzle, replay.board);
+    }
+
+    @Test
+    public void restartsFollowTheLubySequence() {
+        int[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], CdclSolver.luby(i + 1));
+        }
+    }
+
+    @Test
+    public void fallbackTakesOverWhenTheBudgetRunsOut() {
+        int[] puzzle = PuzzleText.parse(HARD);
+        FallbackSolver solver = new FallbackSolver(new BitmaskSolver(), new CdclSolver(), 50, 10_000);
+        Replay replay = new Replay(puzzle);
+        solver.setListener(replay);
+        assertTrue(solver.solve(puzzle));
+        assertTrue(solver.wasFallbackUsed());
+        assertTrue(SudokuRules.isSolved(puzzle));
+        assertArrayEquals(puzzle, replay.board);
+
+        int[] easy = PuzzleText.parse(EASY);
+        solver.setListener(null);
+        assertTrue(solver.solve(easy));
+        assertFalse(solver.wasFallbackUsed());
+    }
+}
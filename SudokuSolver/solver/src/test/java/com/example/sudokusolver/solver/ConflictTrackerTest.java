@@ -0,0 +1,64 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConflictTrackerTest {
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+
+    @Test
+    public void validDigitsMatchIsValidPlacement() {
+        int[] grid = PuzzleText.parse(EASY);
+        ConflictTracker tracker = new ConflictTracker(grid);
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            if (grid[cell] != 0) {
+                continue;
+            }
+            for (int digit = 1; digit <= 9; digit++) {
+                boolean expected = SudokuRules.isValidPlacement(grid, SudokuRules.rowOf(cell), SudokuRules.colOf(cell), digit);
+                assertEquals(expected, tracker.canPlace(cell, digit));
+            }
+        }
+    }
+
+    @Test
+    public void tracksConflictsAsValuesChange() {
+        ConflictTracker tracker = new ConflictTracker(PuzzleText.parse(EASY));
+        assertFalse(tracker.isConflicting(2));
+
+        // Cell 0 shares row 0 with the 3 in cell 2 and column 0 with the 9 in cell 9
+        tracker.setValue(0, 3);
+        assertTrue(tracker.isConflicting(0));
+        assertTrue(tracker.isConflicting(2));
+        assertEquals(2, tracker.conflictCount(0)); // same row and same box as cell 2
+
+        tracker.setValue(0, 9);
+        assertFalse(tracker.isConflicting(2));
+        assertTrue(tracker.isConflicting(9));
+
+        tracker.setValue(0, 0);
+        assertFalse(tracker.isConflicting(9));
+        assertEquals(0, tracker.conflictCount(0));
+    }
+
+    @Test
+    public void ownValueDoesNotBlockItself() {
+        ConflictTracker tracker = new ConflictTracker(PuzzleText.parse(EASY));
+        assertTrue(tracker.canPlace(2, 3));
+        tracker.setValue(0, 3);
+        assertFalse(tracker.canPlace(2, 3));
+    }
+
+    @Test
+    public void tracksConflictsOnSixteenBySixteen() {
+        ConflictTracker tracker = new ConflictTracker(Geometry.of(4));
+        tracker.setValue(0, 16);
+        // Cell 51 is row 3, column 3: the same box as cell 0 but a different row and column
+        assertFalse(tracker.canPlace(51, 16));
+        assertTrue(tracker.canPlace(51, 15));
+        tracker.setValue(51, 16);
+        assertEquals(1, tracker.conflictCount(0));
+    }
+}
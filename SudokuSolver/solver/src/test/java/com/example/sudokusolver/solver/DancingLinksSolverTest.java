@@ -0,0 +1,65 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DancingLinksSolverTest {
+    private static final String HARD =
+            "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+    private static final String SEVENTEEN_CLUES =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    @Test
+    public void solvesHardPuzzle() {
+        assertSolves(new DancingLinksSolver(), HARD);
+    }
+
+    @Test
+    public void solvesSeventeenCluePuzzle() {
+        assertSolves(new DancingLinksSolver(), SEVENTEEN_CLUES);
+    }
+
+    @Test
+    public void agreesWithBitmaskSolverOnUniquePuzzles() {
+        for (String puzzle : new String[] {HARD, SEVENTEEN_CLUES}) {
+            int[] dlx = parse(puzzle);
+            int[] bitmask = parse(puzzle);
+            assertTrue(SolverType.DANCING_LINKS.create().solve(dlx));
+            assertTrue(SolverType.BITMASK.create().solve(bitmask));
+            assertArrayEquals(bitmask, dlx);
+        }
+    }
+
+    @Test
+    public void rejectsConflictingGivensAndStaysReusable() {
+        DancingLinksSolver solver = new DancingLinksSolver();
+        int[] conflicting = parse(HARD);
+        conflicting[1] = 8; // row 0 already holds an 8
+        int[] before = conflicting.clone();
+        assertFalse(solver.solve(conflicting));
+        assertArrayEquals(before, conflicting);
+
+        assertSolves(solver, SEVENTEEN_CLUES);
+        assertSolves(solver, HARD);
+    }
+
+    private static void assertSolves(SudokuSolver solver, String puzzle) {
+        int[] grid = parse(puzzle);
+        assertTrue(solver.solve(grid));
+        assertTrue(SudokuRules.isSolved(grid));
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            if (puzzle.charAt(cell) != '0') {
+                assertEquals(puzzle.charAt(cell) - '0', grid[cell]);
+            }
+        }
+    }
+
+    private static int[] parse(String puzzle) {
+        int[] grid = new int[SudokuRules.CELLS];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = puzzle.charAt(i) - '0';
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EditJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // Replays into a list of "slot:cell=value@elapsed" and "slot:board@elapsed" lines
+    private static List<String> replay(File directory, int below) throws IOException {
+        List<String> records = new ArrayList<>();
+        EditJournal.replay(directory, below, new EditJournal.Handler() {
+            @Override
+            public void onBoard(int slot, Board board, long elapsedMillis) {
+                records.add(slot + ":board" + board.filledCount() + "@" + elapsedMillis);
+            }
+
+            @Override
+            public void onCell(int slot, int cell, int value, long elapsedMillis) {
+                records.add(slot + ":" + cell + "=" + value + "@" + elapsedMillis);
+            }
+        });
+        return records;
+    }
+
+    @Test
+    public void recordsAreReplayedInOrderAcrossSegments() throws IOException {
+        File directory = folder.newFolder("journal");
+        Board board = Board.fromValues(PuzzleText.parse(
+                "003020600900305001001806400008102900700000008006708200002609500800203009005010300"));
+        try (EditJournal journal = EditJournal.open(directory)) {
+            journal.appendBoard(0, board, 1000);
+            journal.appendCell(0, 0, 4, 2000);
+            journal.rotate().close();
+            assertEquals(1, journal.activeSegment());
+            journal.appendCell(3, 80, 7, 3000);
+        }
+        List<String> expected = new ArrayList<>();
+        expected.add("0:board" + board.filledCount() + "@1000");
+        expected.add("0:0=4@2000");
+        assertEquals(expected, replay(directory, 1));
+        expected.add("3:80=7@3000");
+        assertEquals(expected, replay(directory, Integer.MAX_VALUE));
+
+        // A reopened journal appends after the existing segments
+        try (EditJournal journal = EditJournal.open(directory)) {
+            assertEquals(2, journal.activeSegment());
+            EditJournal.delete(directory, journal.activeSegment());
+            journal.appendCell(1, 5, 0, 4000);
+        }
+        assertEquals(1, replay(directory, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void aDamagedTailEndsTheSegment() throws IOException {
+        File directory = folder.newFolder("journal");
+        long size;
+        try (EditJournal journal = EditJournal.open(directory)) {
+            journal.appendCell(0, 1, 1, 0);
+            journal.appendCell(0, 2, 2, 0);
+            size = journal.size();
+            journal.appendCell(0, 3, 3, 0);
+            journal.rotate().close();
+            journal.appendCell(0, 4, 4, 0);
+        }
+        File first = new File(directory, "journal-0.log");
+        try (RandomAccessFile file = new RandomAccessFile(first, "rw")) {
+            // A record cut short by a crash
+            file.setLength(file.length() - 5);
+        }
+        assertEquals(3, replay(directory, Integer.MAX_VALUE).size());
+
+        try (RandomAccessFile file = new RandomAccessFile(first, "rw")) {
+            // A flipped bit in the second record: its checksum no longer matches
+            file.seek(size - 6);
+            int b = file.read();
+            file.seek(size - 6);
+            file.write(b ^ 1);
+        }
+        List<String> records = replay(directory, Integer.MAX_VALUE);
+        assertEquals(2, records.size());
+        assertEquals("0:1=1@0", records.get(0));
+        assertEquals("0:4=4@0", records.get(1));
+    }
+}
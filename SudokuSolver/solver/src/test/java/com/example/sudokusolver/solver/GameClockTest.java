@@ -0,0 +1,53 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GameClockTest {
+    @Test
+    public void countsOnlyWhileRunning() {
+        GameClock clock = new GameClock();
+        clock.start(10_000);
+        assertEquals(2_500, clock.elapsedMillis(12_500));
+
+        clock.pause(12_500);
+        assertFalse(clock.isRunning());
+        assertEquals(2_500, clock.elapsedMillis(60_000));
+
+        clock.resume(60_000);
+        assertTrue(clock.isRunning());
+        assertEquals(3_000, clock.elapsedMillis(60_500));
+    }
+
+    @Test
+    public void repeatedPauseAndResumeAreIgnored() {
+        GameClock clock = new GameClock();
+        clock.start(0);
+        clock.pause(1_000);
+        clock.pause(5_000);
+        clock.resume(7_000);
+        clock.resume(8_000);
+        assertEquals(2_000, clock.elapsedMillis(8_000));
+    }
+
+    @Test
+    public void continuesFromRestoredTime() {
+        GameClock clock = new GameClock();
+        clock.start(0);
+        clock.setElapsedMillis(90_000, 5_000);
+        assertEquals(90_250, clock.elapsedMillis(5_250));
+    }
+
+    @Test
+    public void nextTickFallsOnSecondBoundary() {
+        GameClock clock = new GameClock();
+        clock.start(100);
+        assertEquals(1_000, clock.millisUntilNextTick(100));
+        assertEquals(600, clock.millisUntilNextTick(500));
+        assertEquals(1, clock.millisUntilNextTick(1_099));
+        assertEquals(1_000, clock.millisUntilNextTick(1_100));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GeometryTest {
+    private static final String SIXTEEN =
+            ".32E.F..1G.....B" +
+            "5....G..4...C8.." +
+            ".6C....DE....3.." +
+            "D......6B.3....2" +
+            "FE..G2..5.4...38" +
+            "6...9....D...E.." +
+            "..GA...8...9..4F" +
+            "3..B..D.F8.EA..." +
+            "B.....C......7.4" +
+            ".D...51.....6..E" +
+            "..F.74.A..B..G.9" +
+            "G.1......F..8.D." +
+            ".9A3..2C64.F7.5." +
+            "2.B...F1...C.9.A" +
+            "E.5....37.A.FB.." +
+            "....8.........2D";
+
+    @Test
+    public void classicGeometryMatchesSudokuRules() {
+        Geometry classic = Geometry.CLASSIC;
+        assertSame(classic, Geometry.of(SudokuRules.BOX_SIZE));
+        assertEquals(SudokuRules.CELLS, classic.cells);
+        assertEquals(SudokuRules.PEER_COUNT, classic.peerCount);
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            assertEquals(SudokuRules.boxOf(cell), classic.boxOf(cell));
+            assertEquals(SudokuRules.peerOf(cell, 7), classic.peerOf(cell, 7));
+        }
+    }
+
+    @Test
+    public void everySizeHasConsistentUnitsAndPeers() {
+        for (int boxSize = Geometry.MIN_BOX_SIZE; boxSize <= Geometry.MAX_BOX_SIZE; boxSize++) {
+            Geometry geometry = Geometry.of(boxSize);
+            assertSame(geometry, Geometry.forCells(geometry.cells));
+            assertEquals((1L << geometry.size) - 1, geometry.allDigits & 0xFFFFFFFFL);
+            int[] unitsPerCell = new int[geometry.cells];
+            for (int unit = 0; unit < geometry.unitCount; unit++) {
+                for (int i = 0; i < geometry.size; i++) {
+                    unitsPerCell[geometry.unitCell(unit, i)]++;
+                }
+            }
+            for (int cell = 0; cell < geometry.cells; cell++) {
+                assertEquals(3, unitsPerCell[cell]);
+                for (int i = 0; i < geometry.peerCount; i++) {
+                    int peer = geometry.peerOf(cell, i);
+                    assertNotEquals(cell, peer);
+                    assertTrue(geometry.rowOf(peer) == geometry.rowOf(cell)
+                            || geometry.colOf(peer) == geometry.colOf(cell)
+                            || geometry.boxOf(peer) == geometry.boxOf(cell));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsupportedSizes() {
+        Geometry.of(6);
+    }
+
+    @Test
+    public void everyEngineSolvesEmptySmallBoards() {
+        Geometry geometry = Geometry.of(2);
+        for (SolverType type : SolverType.values()) {
+            int[] board = new int[geometry.cells];
+            assertTrue(type.create(geometry).solve(board));
+            assertTrue(geometry.isSolved(board));
+        }
+    }
+
+    @Test
+    public void largeEnginesAgreeOnSixteenBySixteen() {
+        Geometry geometry = Geometry.of(4);
+        int[] expected = PuzzleText.parse(SIXTEEN, geometry);
+        assertTrue(new DancingLinksSolver(geometry).solve(expected));
+        assertTrue(geometry.isSolved(expected));
+        int[] board = PuzzleText.parse(SIXTEEN, geometry);
+        assertTrue(new PropagatingSolver(geometry).solve(board));
+        assertArrayEquals(expected, board);
+        SolutionCounter counter = new SolutionCounter(geometry);
+        assertEquals(SolutionCounter.Result.UNIQUE, counter.check(PuzzleText.parse(SIXTEEN, geometry)));
+    }
+
+    @Test
+    public void sixteenBySixteenTextRoundTrips() {
+        int[] board = PuzzleText.parse(SIXTEEN, Geometry.of(4));
+        assertEquals(SIXTEEN, PuzzleText.format(board));
+    }
+
+    @Test
+    public void timedOutSolveLeavesTheBoardUntouched() {
+        Geometry geometry = Geometry.of(5);
+        int[] board = new int[geometry.cells];
+        PropagatingSolver solver = new PropagatingSolver(geometry);
+        solver.setTimeLimit(1);
+        // An empty board always has a solution, so a failed solve can only be a timeout
+        boolean solved = solver.solve(board);
+        assertEquals(!solved, solver.isTimedOut());
+        if (!solved) {
+            assertArrayEquals(new int[geometry.cells], board);
+        }
+    }
+}
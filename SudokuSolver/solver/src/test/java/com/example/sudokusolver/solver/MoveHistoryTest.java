@@ -0,0 +1,115 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MoveHistoryTest {
+    private final int[] cells = new int[SudokuRules.CELLS];
+    private final int[] values = new int[SudokuRules.CELLS];
+
+    private static void apply(int[] board, int[] cells, int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            board[cells[i]] = values[i];
+        }
+    }
+
+    @Test
+    public void undoAndRedoSingleMoves() {
+        MoveHistory history = new MoveHistory(Geometry.CLASSIC);
+        history.reset(new int[SudokuRules.CELLS]);
+        assertFalse(history.canUndo());
+        history.record(10, 5);
+        history.record(10, 7);
+        history.record(20, 3);
+
+        assertEquals(1, history.undo(cells, values));
+        assertEquals(20, cells[0]);
+        assertEquals(0, values[0]);
+        assertEquals(1, history.undo(cells, values));
+        assertEquals(10, cells[0]);
+        assertEquals(5, values[0]);
+        assertTrue(history.canRedo());
+        assertEquals(1, history.redo(cells, values));
+        assertEquals(7, values[0]);
+
+        // A new edit drops the move that could have been redone
+        history.record(30, 1);
+        assertFalse(history.canRedo());
+        assertEquals(0, history.redo(cells, values));
+    }
+
+    @Test
+    public void groupsAreUndoneAsOneStep() {
+        int[] puzzle = PuzzleText.parse(
+                "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..");
+        int[] board = puzzle.clone();
+        MoveHistory history = new MoveHistory(Geometry.CLASSIC);
+        history.reset(board);
+        history.record(1, 1);
+        board[1] = 1;
+        history.undo(cells, values);
+        board[1] = 0;
+
+        int[] solution = puzzle.clone();
+        assertTrue(new DancingLinksSolver().solve(solution));
+        history.recordChanges(solution);
+        int count = history.undo(cells, values);
+        assertEquals(SudokuRules.CELLS - 21, count);
+        apply(board, cells, values, count);
+        assertArrayEquals(puzzle, board);
+        assertFalse(history.canUndo());
+        apply(board, cells, values, history.redo(cells, values));
+        assertArrayEquals(solution, board);
+    }
+
+    @Test
+    public void memoryStaysBoundedByDroppingTheOldestMoves() {
+        MoveHistory history = new MoveHistory(Geometry.CLASSIC, 8);
+        history.reset(new int[SudokuRules.CELLS]);
+        for (int i = 0; i < 20; i++) {
+            history.record(i, 1 + i % 9);
+        }
+        assertEquals(12, history.oldestPosition());
+        int undone = 0;
+        while (history.canUndo()) {
+            history.undo(cells, values);
+            undone++;
+        }
+        assertEquals(8, undone);
+    }
+
+    @Test
+    public void seekMatchesEveryRecordedBoard() {
+        Random random = new Random(9);
+        MoveHistory history = new MoveHistory(Geometry.CLASSIC, 1000);
+        int[] board = new int[SudokuRules.CELLS];
+        history.reset(board);
+        List<int[]> states = new ArrayList<>();
+        states.add(board.clone());
+        for (int i = 0; i < 700; i++) {
+            int cell = random.nextInt(SudokuRules.CELLS);
+            int value = random.nextInt(10);
+            if (board[cell] == value) {
+                value = (value + 1) % 10;
+            }
+            board[cell] = value;
+            history.record(cell, value);
+            states.add(board.clone());
+        }
+        // Undo a little, so seek starts from the middle of the history
+        for (int i = 0; i < 5; i++) {
+            apply(board, cells, values, history.undo(cells, values));
+        }
+        for (int step = 0; step < 50; step++) {
+            int target = random.nextInt(states.size());
+            apply(board, cells, values, history.seek(target, cells, values));
+            assertEquals(target, history.position());
+            assertArrayEquals("position " + target, states.get(target), board);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PortfolioSolverTest {
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+    private static final String HARD =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String SEVENTEEN_CLUES =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    @Test
+    public void matchesDancingLinks() {
+        try (PortfolioSolver solver = new PortfolioSolver(Geometry.CLASSIC, 4)) {
+            for (String puzzle : new String[] {EASY, HARD, SEVENTEEN_CLUES}) {
+                int[] expected = PuzzleText.parse(puzzle);
+                assertTrue(new DancingLinksSolver().solve(expected));
+                int[] grid = PuzzleText.parse(puzzle);
+                assertTrue(solver.solve(grid));
+                assertArrayEquals(expected, grid);
+            }
+        }
+    }
+
+    @Test
+    public void scrambledCopiesMapBack() {
+        // Only scrambled strategies, so every answer goes through a symmetry and back
+        PortfolioSolver.Strategy[] strategies = new PortfolioSolver.Strategy[3];
+        for (int i = 0; i < strategies.length; i++) {
+            strategies[i] = new PortfolioSolver.Strategy("BITMASK#" + (i + 1), SolverType.BITMASK, i + 1);
+        }
+        int[] expected = PuzzleText.parse(HARD);
+        assertTrue(new DancingLinksSolver().solve(expected));
+        try (PortfolioSolver solver = new PortfolioSolver(Geometry.CLASSIC, Arrays.asList(strategies))) {
+            for (int round = 0; round < 5; round++) {
+                int[] grid = PuzzleText.parse(HARD);
+                assertTrue(solver.solve(grid));
+                assertArrayEquals(expected, grid);
+            }
+            long total = 0;
+            for (long wins : solver.getWins().values()) {
+                total += wins;
+            }
+            assertEquals(5, total);
+        }
+
+        Geometry large = Geometry.of(4);
+        try (PortfolioSolver solver = new PortfolioSolver(large, Arrays.asList(
+                new PortfolioSolver.Strategy("PROPAGATION#7", SolverType.PROPAGATION, 7),
+                new PortfolioSolver.Strategy("SAT#8", SolverType.SAT, 8)))) {
+            int[] board = new int[large.cells];
+            board[0] = 16;
+            board[large.size + 5] = 3;
+            assertTrue(solver.solve(board));
+            assertTrue(large.isSolved(board));
+            assertEquals(16, board[0]);
+            assertEquals(3, board[large.size + 5]);
+        }
+    }
+
+    @Test
+    public void rejectsUnsolvableBoards() {
+        try (PortfolioSolver solver = new PortfolioSolver(Geometry.CLASSIC, 3)) {
+            int[] grid = PuzzleText.parse(EASY);
+            grid[1] = 3;
+            int[] before = grid.clone();
+            assertFalse(solver.solve(grid));
+            assertArrayEquals(before, grid);
+        }
+    }
+
+    @Test
+    public void cancelStopsTheNextSolveOnly() {
+        try (PortfolioSolver solver = new PortfolioSolver(Geometry.CLASSIC, 3)) {
+            solver.cancel();
+            int[] grid = PuzzleText.parse(EASY);
+            assertFalse(solver.solve(grid));
+            assertTrue(solver.solve(grid));
+            assertTrue(SudokuRules.isSolved(grid));
+        }
+    }
+
+    @Test
+    public void reportsTheWinnersSteps() {
+        try (PortfolioSolver solver = new PortfolioSolver(Geometry.CLASSIC, 6)) {
+            int[] puzzle = PuzzleText.parse(HARD);
+            final int[] replayed = puzzle.clone();
+            solver.setListener(new SolverListener() {
+                @Override
+                public void onPlaced(int cell, int digit) {
+                    assertEquals(0, replayed[cell]);
+                    replayed[cell] = digit;
+                }
+
+                @Override
+                public void onCleared(int cell) {
+                    assertNotEquals(0, replayed[cell]);
+                    replayed[cell] = 0;
+                }
+            });
+            int[] grid = puzzle.clone();
+            assertTrue(solver.solve(grid));
+            assertArrayEquals(grid, replayed);
+
+            Map<String, Long> wins = solver.getWins();
+            assertEquals(Arrays.asList("PROPAGATION", "SAT", "DANCING_LINKS", "PROPAGATION#1", "SAT#1",
+                    "DANCING_LINKS#1"), Arrays.asList(wins.keySet().toArray()));
+        }
+    }
+}
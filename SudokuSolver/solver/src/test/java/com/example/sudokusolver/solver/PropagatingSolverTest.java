@@ -0,0 +1,83 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PropagatingSolverTest {
+    private static final String[] EASY = {
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300",
+            "200080300060070084030500209000105408000000000402706000301007040720040060004010003",
+            "000000907000420180000705026100904000050000040000507009920108000034059000507000000",
+    };
+    private static final String HARD =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String SEVENTEEN_CLUES =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    @Test
+    public void solvesNewspaperPuzzlesWithoutGuessing() {
+        PropagatingSolver solver = new PropagatingSolver();
+        for (String puzzle : EASY) {
+            int[] grid = PuzzleText.parse(puzzle);
+            assertTrue(solver.solve(grid));
+            assertTrue(SudokuRules.isSolved(grid));
+            assertEquals(0, solver.getGuessCount());
+        }
+    }
+
+    @Test
+    public void matchesDancingLinksOnHardPuzzles() {
+        for (String puzzle : new String[] {HARD, SEVENTEEN_CLUES}) {
+            int[] expected = PuzzleText.parse(puzzle);
+            assertTrue(new DancingLinksSolver().solve(expected));
+            int[] grid = PuzzleText.parse(puzzle);
+            assertTrue(new PropagatingSolver().solve(grid));
+            assertArrayEquals(expected, grid);
+        }
+    }
+
+    @Test
+    public void pointingRemovesCandidatesOutsideTheBox() {
+        // Rows 1 and 2 of box 0 are filled, so digit 1 must sit in row 0 of that box
+        int[] board = new int[SudokuRules.CELLS];
+        for (int i = 0; i < 6; i++) {
+            board[(1 + i / 3) * 9 + i % 3] = 2 + i;
+        }
+        CandidateGrid grid = new CandidateGrid();
+        assertTrue(grid.load(board));
+        assertNotEquals(0, grid.candidates(8) & SudokuRules.bitOf(1));
+        assertTrue(grid.propagate());
+        assertEquals(0, grid.candidates(8) & SudokuRules.bitOf(1));
+        assertNotEquals(0, grid.candidates(0) & SudokuRules.bitOf(1));
+    }
+
+    @Test
+    public void listenerEventsReplayToTheSolution() {
+        int[] puzzle = PuzzleText.parse(HARD);
+        int[] replay = puzzle.clone();
+        PropagatingSolver solver = new PropagatingSolver();
+        solver.setListener(new SolverListener() {
+            @Override
+            public void onPlaced(int cell, int digit) {
+                assertEquals(0, replay[cell]);
+                replay[cell] = digit;
+            }
+
+            @Override
+            public void onCleared(int cell) {
+                assertNotEquals(0, replay[cell]);
+                replay[cell] = 0;
+            }
+        });
+        assertTrue(solver.solve(puzzle));
+        assertArrayEquals(puzzle, replay);
+    }
+
+    @Test
+    public void rejectsConflictingGivens() {
+        int[] grid = PuzzleText.parse(EASY[0]);
+        grid[0] = 2; // row 0 already holds a 2
+        assertFalse(new PropagatingSolver().solve(grid));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PuzzleGeneratorTest {
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+
+    @Test
+    public void fullGridIsSolved() {
+        PuzzleGenerator generator = new PuzzleGenerator(1);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(SudokuRules.isSolved(generator.fullGrid()));
+        }
+    }
+
+    @Test
+    public void generatesPuzzlesOfTheRequestedGradeWithOneSolution() {
+        PuzzleGenerator generator = new PuzzleGenerator(7);
+        for (Difficulty difficulty : Difficulty.values()) {
+            int[] puzzle = generator.generate(difficulty);
+            assertEquals(difficulty, PuzzleGenerator.grade(puzzle));
+            assertTrue(clues(puzzle) >= difficulty.minClues);
+            assertUnique(puzzle);
+        }
+    }
+
+    @Test
+    public void removedCluesKeepTheOriginalSolution() {
+        PuzzleGenerator generator = new PuzzleGenerator(3);
+        int[] solution = generator.fullGrid();
+        int[] puzzle = generator.removeClues(solution, 30);
+        assertEquals(30, clues(puzzle));
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            assertTrue(puzzle[cell] == 0 || puzzle[cell] == solution[cell]);
+        }
+        int[] solved = puzzle.clone();
+        assertTrue(new DancingLinksSolver().solve(solved));
+        assertArrayEquals(solution, solved);
+    }
+
+    @Test
+    public void sameSeedGivesSamePuzzle() {
+        assertArrayEquals(new PuzzleGenerator(42).generate(Difficulty.HARD),
+                new PuzzleGenerator(42).generate(Difficulty.HARD));
+    }
+
+    @Test
+    public void gradesSinglesOnlyPuzzleAsEasy() {
+        assertEquals(Difficulty.EASY, PuzzleGenerator.grade(PuzzleText.parse(EASY)));
+    }
+
+    private static int clues(int[] puzzle) {
+        int count = 0;
+        for (int value : puzzle) {
+            if (value != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Any second solution differs from the first in some empty cell, so forcing every other digit there must fail
+    private static void assertUnique(int[] puzzle) {
+        int[] solution = puzzle.clone();
+        assertTrue(new BitmaskSolver().solve(solution));
+        BitmaskSolver solver = new BitmaskSolver();
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            if (puzzle[cell] != 0) {
+                continue;
+            }
+            for (int digit = 1; digit <= SudokuRules.SIZE; digit++) {
+                if (digit != solution[cell]) {
+                    int[] grid = puzzle.clone();
+                    grid[cell] = digit;
+                    assertFalse(SudokuRules.isValidPlacement(grid, cell / 9, cell % 9, digit) && solver.solve(grid));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class PuzzleLibraryTest {
+    private static final String[] PUZZLES = {
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300",
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000",
+            "200080300060070084030500209000105408000000000402706000301007040720040060004010003",
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File importPuzzles(String text) throws IOException {
+        File library = folder.newFile("library.sdkl");
+        LibraryImporter.importText(new BufferedReader(new StringReader(text)), library);
+        return library;
+    }
+
+    @Test
+    public void importedPuzzlesAreReadBackByOrdinal() throws IOException {
+        StringBuilder text = new StringBuilder("# a comment\n\n");
+        for (String puzzle : PUZZLES) {
+            text.append(puzzle).append('\n');
+        }
+        File library = importPuzzles(text.toString());
+        try (PuzzleLibrary opened = PuzzleLibrary.open(library, false)) {
+            assertEquals(PUZZLES.length, opened.size());
+            assertSame(Geometry.CLASSIC, opened.geometry());
+            for (int ordinal = 0; ordinal < PUZZLES.length; ordinal++) {
+                int[] expected = PuzzleText.parse(PUZZLES[ordinal]);
+                assertArrayEquals(expected, opened.read(ordinal));
+                assertEquals(PuzzleGenerator.grade(expected), opened.difficulty(ordinal));
+                assertFalse(opened.isSolved(ordinal));
+            }
+            assertEquals(17, opened.clues(2));
+            assertEquals(1, opened.countWithClues(17));
+            assertEquals(2, opened.withClues(17, 0));
+        }
+    }
+
+    @Test
+    public void invalidAndAmbiguousLinesAreRejected() throws IOException {
+        String conflicting = "11" + PUZZLES[0].substring(2);
+        String ambiguous = "." + PUZZLES[0].substring(1).replace('3', '.');
+        File library = folder.newFile("rejects.sdkl");
+        LibraryImporter.Report report = LibraryImporter.importText(new BufferedReader(new StringReader(
+                PUZZLES[0] + "\nnot a puzzle\n" + conflicting + "\n" + ambiguous + "\n" + PUZZLES[1] + "\n")), library);
+        assertEquals(5, report.read);
+        assertEquals(2, report.imported);
+        assertEquals(3, report.rejected);
+        try (PuzzleLibrary opened = PuzzleLibrary.open(library, false)) {
+            assertEquals(2, opened.size());
+            assertArrayEquals(PuzzleText.parse(PUZZLES[1]), opened.read(1));
+        }
+    }
+
+    @Test
+    public void markingSolvedKeepsTheUnsolvedBucketsExact() throws IOException {
+        StringBuilder text = new StringBuilder();
+        PuzzleGenerator generator = new PuzzleGenerator(5);
+        for (int i = 0; i < 12; i++) {
+            text.append(PuzzleText.format(generator.generate(Difficulty.EASY))).append('\n');
+        }
+        File library = importPuzzles(text.toString());
+        try (PuzzleLibrary opened = PuzzleLibrary.open(library, true)) {
+            assertEquals(12, opened.unsolvedCount(Difficulty.EASY));
+            int first = opened.unsolved(Difficulty.EASY, 0);
+            int fifth = opened.unsolved(Difficulty.EASY, 4);
+            opened.markSolved(first, true);
+            opened.markSolved(fifth, true);
+            opened.markSolved(fifth, true);
+            assertEquals(10, opened.unsolvedCount(Difficulty.EASY));
+            assertEquals(12, opened.count(Difficulty.EASY));
+            for (int k = 0; k < 10; k++) {
+                int ordinal = opened.unsolved(Difficulty.EASY, k);
+                assertFalse(opened.isSolved(ordinal));
+                assertNotEquals(first, ordinal);
+                assertNotEquals(fifth, ordinal);
+            }
+            opened.markSolved(first, false);
+            assertEquals(11, opened.unsolvedCount(Difficulty.EASY));
+        }
+        // The marks survive reopening, and a rebuilt index agrees with them
+        PuzzleLibrary.buildIndex(library);
+        try (PuzzleLibrary opened = PuzzleLibrary.open(library, false)) {
+            assertEquals(11, opened.unsolvedCount(Difficulty.EASY));
+        }
+    }
+
+    @Test
+    public void anIndexLeftBehindByAnInterruptedMarkIsRebuilt() throws IOException {
+        File library = importPuzzles(PUZZLES[0] + "\n" + PUZZLES[1] + "\n");
+        // What markSolved() writes to the library before the process dies: a new generation and the solved flag
+        try (RandomAccessFile file = new RandomAccessFile(library, "rw")) {
+            file.seek(20);
+            file.writeInt(1);
+            file.seek(PuzzleLibrary.HEADER_BYTES);
+            int flags = file.readByte();
+            file.seek(PuzzleLibrary.HEADER_BYTES);
+            file.writeByte(flags | 0x80);
+        }
+        try (PuzzleLibrary opened = PuzzleLibrary.open(library, true)) {
+            assertTrue(opened.isSolved(0));
+            Difficulty difficulty = opened.difficulty(0);
+            for (int k = 0; k < opened.unsolvedCount(difficulty); k++) {
+                assertNotEquals(0, opened.unsolved(difficulty, k));
+            }
+            int unsolved = 0;
+            for (Difficulty each : Difficulty.values()) {
+                unsolved += opened.unsolvedCount(each);
+            }
+            assertEquals(1, unsolved);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void aMismatchedIndexIsRefused() throws IOException {
+        File library = importPuzzles(PUZZLES[0] + "\n" + PUZZLES[1] + "\n");
+        File other = folder.newFile("other.sdkl");
+        LibraryImporter.importText(new BufferedReader(new StringReader(PUZZLES[0] + "\n")), other);
+        assertTrue(PuzzleLibrary.indexFile(other).renameTo(PuzzleLibrary.indexFile(library)));
+        PuzzleLibrary.open(library, false).close();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SolutionCacheTest {
+    private static final String HARD =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String SEVENTEEN_CLUES =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+
+    // Applies a random symmetry: band, row, stack and column shuffles, maybe a transpose, and a digit relabeling
+    private static int[] transform(int[] board, Random random) {
+        int[] rows = lineOrder(random);
+        int[] cols = lineOrder(random);
+        int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int i = 9; i > 1; i--) {
+            int j = 1 + random.nextInt(i);
+            int swap = digits[i];
+            digits[i] = digits[j];
+            digits[j] = swap;
+        }
+        boolean transpose = random.nextBoolean();
+        int[] result = new int[SudokuRules.CELLS];
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int from = transpose ? cols[col] * 9 + rows[row] : rows[row] * 9 + cols[col];
+                result[row * 9 + col] = digits[board[from]];
+            }
+        }
+        return result;
+    }
+
+    private static int[] lineOrder(Random random) {
+        int[] blocks = shuffled(random);
+        int[] order = new int[9];
+        for (int block = 0; block < 3; block++) {
+            int[] lines = shuffled(random);
+            for (int line = 0; line < 3; line++) {
+                order[block * 3 + line] = blocks[block] * 3 + lines[line];
+            }
+        }
+        return order;
+    }
+
+    private static int[] shuffled(Random random) {
+        int[] values = {0, 1, 2};
+        for (int i = 2; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return values;
+    }
+
+    @Test
+    public void equivalentBoardsShareTheirCanonicalForm() {
+        Canonicalizer canonicalizer = new Canonicalizer(Geometry.CLASSIC);
+        Random random = new Random(7);
+        for (String text : new String[] {HARD, SEVENTEEN_CLUES}) {
+            int[] puzzle = PuzzleText.parse(text);
+            String key = canonicalizer.canonicalize(puzzle).key();
+            for (int i = 0; i < 50; i++) {
+                assertEquals(key, canonicalizer.canonicalize(transform(puzzle, random)).key());
+            }
+        }
+        assertNotEquals(canonicalizer.canonicalize(PuzzleText.parse(HARD)).key(),
+                canonicalizer.canonicalize(PuzzleText.parse(SEVENTEEN_CLUES)).key());
+    }
+
+    @Test
+    public void generatedPuzzlesAreCanonicalizedConsistently() {
+        Canonicalizer canonicalizer = new Canonicalizer(Geometry.CLASSIC);
+        PuzzleGenerator generator = new PuzzleGenerator(11);
+        Random random = new Random(11);
+        for (int i = 0; i < 10; i++) {
+            int[] puzzle = generator.generate(Difficulty.HARD);
+            Canonicalizer.Form form = canonicalizer.canonicalize(puzzle);
+            assertNotNull(form);
+            assertEquals(form.key(), canonicalizer.canonicalize(transform(puzzle, random)).key());
+        }
+    }
+
+    @Test
+    public void cachedSolutionsAreMappedBackToEquivalentBoards() {
+        SolutionCache cache = new SolutionCache(1 << 16);
+        CachingSolver solver = new CachingSolver(new DancingLinksSolver(), cache);
+        int[] first = PuzzleText.parse(HARD);
+        assertTrue(solver.solve(first));
+        assertFalse(solver.wasCacheHit());
+        assertEquals(1, cache.size());
+
+        Random random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            int[] puzzle = transform(PuzzleText.parse(HARD), random);
+            int[] expected = puzzle.clone();
+            assertTrue(new DancingLinksSolver().solve(expected));
+            assertTrue(solver.solve(puzzle));
+            assertTrue(solver.wasCacheHit());
+            assertEquals(0, solver.getStats().getNodes());
+            assertArrayEquals(expected, puzzle);
+        }
+        assertEquals(20, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void boardsWithoutACanonicalFormGoToTheEngine() {
+        SolutionCache cache = new SolutionCache(1 << 16);
+        CachingSolver solver = new CachingSolver(new PropagatingSolver(), cache);
+        int[] empty = new int[SudokuRules.CELLS];
+        assertNull(new Canonicalizer(Geometry.CLASSIC).canonicalize(empty));
+        assertTrue(solver.solve(empty));
+        assertTrue(SudokuRules.isSolved(empty));
+        assertEquals(1, cache.getSkipped());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvictedOverBudget() {
+        int entryBytes = SolutionCache.ENTRY_OVERHEAD_BYTES + 3 * SudokuRules.CELLS;
+        SolutionCache cache = new SolutionCache(2 * entryBytes);
+        byte[] solution = new byte[SudokuRules.CELLS];
+        cache.put(key('a'), solution);
+        cache.put(key('b'), solution);
+        assertNotNull(cache.get(key('a')));
+        cache.put(key('c'), solution);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(key('b')));
+        assertNotNull(cache.get(key('a')));
+        assertTrue(cache.getUsedBytes() <= 2 * entryBytes);
+        assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+    }
+
+    private static String key(char fill) {
+        char[] chars = new char[SudokuRules.CELLS];
+        Arrays.fill(chars, fill);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SolutionCounterTest {
+    private static final String SEVENTEEN_CLUES =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+    private static final String SOLVED =
+            "483921657967345821251876493548132976729564138136798245372689514814253769695417382";
+
+    @Test
+    public void properPuzzleIsUnique() {
+        assertEquals(SolutionCounter.Result.UNIQUE, new SolutionCounter().check(PuzzleText.parse(SEVENTEEN_CLUES)));
+    }
+
+    @Test
+    public void conflictingGivensHaveNoSolution() {
+        int[] board = PuzzleText.parse(SEVENTEEN_CLUES);
+        board[0] = 1;
+        board[1] = 1;
+        assertEquals(SolutionCounter.Result.NONE, new SolutionCounter().check(board));
+    }
+
+    @Test
+    public void swappableRectangleHasTwoSolutions() {
+        int[] board = PuzzleText.parse(SOLVED);
+        int[] rectangle = findDeadlyRectangle(board);
+        assertNotNull(rectangle);
+        for (int cell : rectangle) {
+            board[cell] = 0;
+        }
+        SolutionCounter counter = new SolutionCounter();
+        assertEquals(SolutionCounter.Result.MULTIPLE, counter.check(board));
+        assertEquals(2, counter.count(board, 100));
+    }
+
+    @Test
+    public void stopsAtTheLimit() {
+        int[] board = new int[SudokuRules.CELLS];
+        assertEquals(1000, new SolutionCounter().count(board, 1000));
+        assertEquals(1000, SolutionCounter.countParallel(board, 1000, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void parallelCountMatchesSequentialCount() {
+        int[] board = PuzzleText.parse(SOLVED);
+        for (int cell = 0; cell < 3 * SudokuRules.SIZE; cell++) {
+            board[cell] = 0;
+        }
+        board[40] = 0;
+        long sequential = new SolutionCounter().count(board, Long.MAX_VALUE);
+        assertTrue(sequential > 1);
+        assertEquals(sequential, SolutionCounter.countParallel(board, Long.MAX_VALUE, new ForkJoinPool(4)));
+    }
+
+    // Two rows and two columns of a solved grid, spanning exactly two boxes, where the corners read a b / b a
+    private static int[] findDeadlyRectangle(int[] grid) {
+        for (int r1 = 0; r1 < 9; r1++) {
+            for (int r2 = r1 + 1; r2 < 9; r2++) {
+                for (int c1 = 0; c1 < 9; c1++) {
+                    for (int c2 = c1 + 1; c2 < 9; c2++) {
+                        boolean twoBoxes = (r1 / 3 == r2 / 3) != (c1 / 3 == c2 / 3);
+                        int a = grid[r1 * 9 + c1];
+                        int b = grid[r1 * 9 + c2];
+                        if (twoBoxes && grid[r2 * 9 + c1] == b && grid[r2 * 9 + c2] == a) {
+                            return new int[] {r1 * 9 + c1, r1 * 9 + c2, r2 * 9 + c1, r2 * 9 + c2};
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
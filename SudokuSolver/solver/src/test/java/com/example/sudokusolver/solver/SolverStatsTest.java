@@ -0,0 +1,88 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class SolverStatsTest {
+    private static final String HARD =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+
+    @Test
+    public void everyEngineCountsItsSearch() {
+        for (SolverType type : SolverType.values()) {
+            SudokuSolver solver = type.create();
+            assertTrue(solver.solve(PuzzleText.parse(HARD)));
+            SolverStats stats = solver.getStats();
+            assertTrue(type + " solved", stats.isSolved());
+            assertTrue(type + " nodes", stats.getNodes() > 1);
+            assertTrue(type + " backtracks", stats.getBacktracks() > 0);
+            assertTrue(type + " nodes cover backtracks", stats.getNodes() > stats.getBacktracks());
+            assertTrue(type + " checks", stats.getChecks() > 0);
+            assertTrue(type + " depth", stats.getMaxDepth() > 0);
+            assertTrue(type + " wall time", stats.getWallNanos() > 0);
+        }
+    }
+
+    @Test
+    public void propagationSolvesEasyPuzzlesAtTheRoot() {
+        PropagatingSolver solver = new PropagatingSolver();
+        assertTrue(solver.solve(PuzzleText.parse(EASY)));
+        SolverStats stats = solver.getStats();
+        assertEquals(1, stats.getNodes());
+        assertEquals(0, stats.getBacktracks());
+        assertEquals(0, stats.getMaxDepth());
+        assertTrue(stats.getEliminations() > 0);
+    }
+
+    @Test
+    public void statsAreResetByTheNextSolve() {
+        PropagatingSolver solver = new PropagatingSolver();
+        solver.solve(PuzzleText.parse(HARD));
+        SolverStats hard = new SolverStats();
+        hard.copyFrom(solver.getStats());
+        int[] conflicting = new int[SudokuRules.CELLS];
+        conflicting[0] = 1;
+        conflicting[1] = 1;
+        assertFalse(solver.solve(conflicting));
+        assertFalse(solver.getStats().isSolved());
+        assertEquals(0, solver.getStats().getNodes());
+        assertTrue(hard.getNodes() > 0);
+    }
+
+    @Test
+    public void histogramPercentilesAreWithinABucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 100_000L); // 0.1 ms .. 10 ms
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(10_000_000L, histogram.getMaxNanos());
+        assertEquals(5_050_000L, histogram.getMeanNanos());
+        long p50 = histogram.percentileNanos(0.5);
+        assertTrue(p50 >= 5_000_000L && p50 <= 10_000_000L);
+        assertEquals(histogram.getMaxNanos(), histogram.percentileNanos(1.0));
+        assertTrue(histogram.percentileNanos(0.01) <= 200_000L);
+        histogram.record(-1);
+        assertEquals(100, histogram.getCount());
+    }
+
+    @Test
+    public void metricsGroupSolvesByName() throws IOException {
+        SolverMetrics metrics = new SolverMetrics();
+        SudokuSolver solver = SolverType.DANCING_LINKS.create();
+        for (int i = 0; i < 3; i++) {
+            solver.solve(PuzzleText.parse(HARD));
+            metrics.record("DANCING_LINKS", solver.getStats());
+        }
+        assertEquals(3, metrics.count("DANCING_LINKS"));
+        assertEquals(0, metrics.count("BITMASK"));
+        StringBuilder dump = new StringBuilder();
+        metrics.dump(dump);
+        assertTrue(dump.toString(), dump.toString().contains("DANCING_LINKS per solve: 3/3 solved"));
+    }
+}
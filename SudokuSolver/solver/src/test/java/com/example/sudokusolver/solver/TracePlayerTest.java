@@ -0,0 +1,94 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TracePlayerTest {
+    private static final String HARD =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+    @Test
+    public void replaysRecordedSolveToTheSolution() {
+        for (SolverType type : SolverType.values()) {
+            int[] puzzle = PuzzleText.parse(HARD);
+            SolveTrace trace = record(type, puzzle);
+            int[] solution = puzzle.clone();
+            assertTrue(new DancingLinksSolver().solve(solution));
+
+            TracePlayer player = new TracePlayer(trace);
+            player.seek(player.length());
+            assertTrue(player.isAtEnd());
+            for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+                assertEquals(type + " cell " + cell, solution[cell], player.value(cell));
+            }
+        }
+    }
+
+    @Test
+    public void seekingBackRestoresEarlierBoards() {
+        int[] puzzle = PuzzleText.parse(HARD);
+        SolveTrace trace = record(SolverType.BITMASK, puzzle);
+        TracePlayer player = new TracePlayer(trace);
+        int middle = player.length() / 2;
+        player.seek(middle);
+        int[] atMiddle = snapshot(player);
+
+        player.seek(player.length());
+        player.seek(middle);
+        assertArrayEquals(atMiddle, snapshot(player));
+        player.seek(-5);
+        assertEquals(0, player.position());
+        assertArrayEquals(puzzle, snapshot(player));
+    }
+
+    @Test
+    public void drainReportsEachChangedCellOnce() {
+        SolveTrace trace = new SolveTrace();
+        trace.reset(new int[SudokuRules.CELLS]);
+        trace.onPlaced(5, 3);
+        trace.onCleared(5);
+        trace.onPlaced(5, 4);
+        trace.onPlaced(2, 1);
+        TracePlayer player = new TracePlayer(trace);
+        player.seek(4);
+
+        int[] cells = new int[SudokuRules.CELLS];
+        int[] values = new int[SudokuRules.CELLS];
+        assertEquals(2, player.drainChanges(cells, values));
+        assertEquals(2, cells[0]);
+        assertEquals(1, values[0]);
+        assertEquals(5, cells[1]);
+        assertEquals(4, values[1]);
+        assertEquals(0, player.drainChanges(cells, values));
+    }
+
+    @Test
+    public void stopsStoringAtTheStepLimit() {
+        SolveTrace trace = new SolveTrace(2);
+        trace.reset(new int[SudokuRules.CELLS]);
+        trace.onPlaced(0, 1);
+        trace.onPlaced(1, 2);
+        assertFalse(trace.isTruncated());
+        trace.onPlaced(2, 3);
+        assertEquals(2, trace.size());
+        assertTrue(trace.isTruncated());
+    }
+
+    private static SolveTrace record(SolverType type, int[] puzzle) {
+        SolveTrace trace = new SolveTrace();
+        trace.reset(puzzle);
+        SudokuSolver solver = type.create();
+        solver.setListener(trace);
+        assertTrue(solver.solve(puzzle.clone()));
+        return trace;
+    }
+
+    private static int[] snapshot(TracePlayer player) {
+        int[] board = new int[SudokuRules.CELLS];
+        for (int cell = 0; cell < SudokuRules.CELLS; cell++) {
+            board[cell] = player.value(cell);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.sudokusolver.solver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VariantSolverTest {
+    private static final String EASY =
+            "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+    private static final String HARD =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+    @Test
+    public void classicMatchesDancingLinks() {
+        VariantSolver solver = new VariantSolver(Variant.classic(Geometry.CLASSIC));
+        for (String puzzle : new String[] {EASY, HARD}) {
+            int[] expected = PuzzleText.parse(puzzle);
+            assertTrue(new DancingLinksSolver().solve(expected));
+            int[] grid = PuzzleText.parse(puzzle);
+            assertTrue(solver.solve(grid));
+            assertArrayEquals(expected, grid);
+        }
+    }
+
+    @Test
+    public void diagonalBoardHasDistinctDiagonals() {
+        Variant variant = Variant.diagonal(Geometry.CLASSIC);
+        int[] board = new int[81];
+        assertTrue(new VariantSolver(variant).solve(board));
+        assertTrue(variant.isSolved(board));
+        int main = 0;
+        int anti = 0;
+        for (int i = 0; i < 9; i++) {
+            main |= SudokuRules.bitOf(board[i * 9 + i]);
+            anti |= SudokuRules.bitOf(board[i * 9 + 8 - i]);
+        }
+        assertEquals(Geometry.CLASSIC.allDigits, main);
+        assertEquals(Geometry.CLASSIC.allDigits, anti);
+
+        // Two equal digits on a diagonal are fine on a classic board but not here
+        int[] givens = new int[81];
+        givens[0] = 5;
+        givens[80] = 5;
+        assertFalse(new VariantSolver(variant).solve(givens));
+        assertTrue(variant.hasConflict(givens, 0));
+    }
+
+    @Test
+    public void solvesJigsawRegions() {
+        int[] solution = PuzzleText.parse(EASY);
+        assertTrue(new DancingLinksSolver().solve(solution));
+        // Trade the top-left cell of box 0 for the cell of box 1 with the same digit, so the solution stays valid
+        int[] regionOf = new int[81];
+        int traded = -1;
+        for (int cell = 0; cell < 81; cell++) {
+            regionOf[cell] = Geometry.CLASSIC.boxOf(cell);
+            if (regionOf[cell] == 1 && solution[cell] == solution[0]) {
+                traded = cell;
+            }
+        }
+        regionOf[0] = 1;
+        regionOf[traded] = 0;
+        Variant variant = Variant.jigsaw(Geometry.CLASSIC, regionOf);
+        assertTrue(variant.isSolved(solution));
+
+        int[] board = PuzzleText.parse(EASY);
+        assertTrue(new VariantSolver(variant).solve(board));
+        assertTrue(variant.isSolved(board));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnevenRegions() {
+        int[] regionOf = new int[81];
+        regionOf[80] = 1;
+        Variant.jigsaw(Geometry.CLASSIC, regionOf);
+    }
+
+    @Test
+    public void solvesKillerCages() {
+        int[] solution = PuzzleText.parse(EASY);
+        assertTrue(new DancingLinksSolver().solve(solution));
+        // Every row split into three cages of three cells, with the sums of the known solution
+        int[][] cages = new int[27][];
+        int[] sums = new int[27];
+        for (int cage = 0; cage < 27; cage++) {
+            cages[cage] = new int[] {3 * cage, 3 * cage + 1, 3 * cage + 2};
+            sums[cage] = solution[3 * cage] + solution[3 * cage + 1] + solution[3 * cage + 2];
+        }
+        Variant variant = Variant.classic(Geometry.CLASSIC).withCages(cages, sums);
+        assertTrue(variant.isSolved(solution));
+
+        int[] board = new int[81];
+        VariantSolver solver = new VariantSolver(variant);
+        assertTrue(solver.solve(board));
+        assertTrue(variant.isSolved(board));
+        assertTrue(Geometry.CLASSIC.isSolved(board));
+
+        int[] wrong = solution.clone();
+        int swap = wrong[0];
+        wrong[0] = wrong[3];
+        wrong[3] = swap;
+        assertFalse(variant.isSolved(wrong));
+    }
+
+    @Test
+    public void cageCombinationsPrune() {
+        Variant variant = Variant.classic(Geometry.CLASSIC).withCages(
+                new int[][] {{0, 1}, {9, 10, 11}}, new int[] {3, 7});
+        // 3 is only 1 + 2
+        assertEquals(SudokuRules.bitOf(1) | SudokuRules.bitOf(2), variant.allowedInCage(0, 0));
+        assertEquals(SudokuRules.bitOf(2), variant.allowedInCage(0, SudokuRules.bitOf(1)));
+        // 7 in three cells is only 1 + 2 + 4
+        assertEquals(SudokuRules.bitOf(1) | SudokuRules.bitOf(2) | SudokuRules.bitOf(4), variant.allowedInCage(1, 0));
+        assertEquals(0, variant.allowedInCage(1, SudokuRules.bitOf(3)));
+
+        int[] board = new int[81];
+        board[0] = 3;
+        assertFalse(new VariantSolver(variant).solve(board));
+    }
+}